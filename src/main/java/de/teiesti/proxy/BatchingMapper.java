@@ -0,0 +1,253 @@
+package de.teiesti.proxy;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * A {@code BatchingMapper} decorates another {@link Mapper} whose calls are expensive per call but cheap per object,
+ * e.g. a mapper which resolves proxies through a remote cache. It coalesces concurrent calls of
+ * {@link #getProxy(Object)} and {@link #getSubject(Object)} into a single call of
+ * {@link Mapper#getProxies(Collection)} and {@link Mapper#getSubjects(Collection)} of the decorated mapper, i.e. the
+ * bulk methods of the decorated mapper are the loader of this mapper.<br /><br />
+ *
+ * The first call which finds no batch in progress opens a new batch and waits until the window elapsed. All calls made
+ * in the meantime join this batch; calls for an object which is already in the batch share its result. Then the
+ * opening call loads the whole batch and completes all waiting calls. A batch never exceeds the maximum batch size:
+ * The call which fills the batch loads it right away, and the next call opens a new batch. No additional threads are
+ * used. Therefore, without concurrent calls, every call is delayed by the window; choose it to be small compared to
+ * the latency of the decorated mapper.<br /><br />
+ *
+ * If the decorated mapper throws an exception, every call of the batch throws it. A {@code BatchingMapper} is
+ * thread-safe; the decorated mapper must be thread-safe, too, because batches may be loaded concurrently. It has the
+ * characteristics of the decorated mapper.
+ *
+ * @param <Proxy> the type of the proxy
+ * @param <Subject> the type of the subject
+ */
+public class BatchingMapper<Proxy, Subject> implements Mapper<Proxy, Subject> {
+
+	private final Mapper<Proxy, Subject> mapper;
+
+	private final Batcher<Subject, Proxy> proxies;
+	private final Batcher<Proxy, Subject> subjects;
+
+	/**
+	 * Creates a new {@code BatchingMapper} which decorates the given mapper.
+	 *
+	 * @param mapper the mapper to decorate
+	 * @param window how long a batch collects calls at most
+	 * @param unit the unit of {@code window}
+	 * @param maximumBatchSize the maximum number of distinct objects in a batch
+	 */
+	public BatchingMapper(Mapper<Proxy, Subject> mapper, long window, TimeUnit unit, int maximumBatchSize) {
+		if (mapper == null)
+			throw new IllegalArgumentException("mapper == null");
+		if (window < 0)
+			throw new IllegalArgumentException("window < 0");
+		if (unit == null)
+			throw new IllegalArgumentException("unit == null");
+		if (maximumBatchSize <= 0)
+			throw new IllegalArgumentException("maximumBatchSize <= 0");
+
+		this.mapper = mapper;
+		this.proxies = new Batcher<>(mapper::getProxies, unit.toNanos(window), maximumBatchSize);
+		this.subjects = new Batcher<>(mapper::getSubjects, unit.toNanos(window), maximumBatchSize);
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: The subject is converted together with the subjects of concurrent calls.
+	 */
+	@Override
+	public Proxy getProxy(Subject subject) {
+		return proxies.get(subject);
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: The proxy is converted together with the proxies of concurrent calls.
+	 */
+	@Override
+	public Subject getSubject(Proxy proxy) {
+		return subjects.get(proxy);
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: This method is forwarded to the decorated mapper because the subjects are a batch already.
+	 */
+	@Override
+	public List<Proxy> getProxies(Collection<? extends Subject> subjects) {
+		return mapper.getProxies(subjects);
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: This method is forwarded to the decorated mapper because the proxies are a batch already.
+	 */
+	@Override
+	public List<Subject> getSubjects(Collection<? extends Proxy> proxies) {
+		return mapper.getSubjects(proxies);
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: These are the characteristics of the decorated mapper.
+	 */
+	@Override
+	public int characteristics() {
+		return mapper.characteristics();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Class<?> getProxyClass() {
+		return mapper.getProxyClass();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Class<?> getSubjectClass() {
+		return mapper.getSubjectClass();
+	}
+
+	/**
+	 * Returns how many batches were loaded, i.e. how often the bulk methods of the decorated mapper were called by
+	 * this mapper.
+	 *
+	 * @return the number of loaded batches
+	 */
+	public long getBatchCount() {
+		return proxies.getBatchCount() + subjects.getBatchCount();
+	}
+
+	/**
+	 * A {@code Batcher} coalesces concurrent lookups of single keys into lookups of batches of keys.
+	 *
+	 * @param <K> the type of the keys
+	 * @param <V> the type of the values
+	 */
+	private static class Batcher<K, V> {
+
+		private final Function<List<K>, List<V>> loader;
+		private final long window;
+		private final int maximumBatchSize;
+
+		private final Object lock = new Object();
+		private Map<K, CompletableFuture<V>> batch = new LinkedHashMap<>();
+		private boolean open;
+		private long batches;
+
+		private Batcher(Function<List<K>, List<V>> loader, long window, int maximumBatchSize) {
+			this.loader = loader;
+			this.window = window;
+			this.maximumBatchSize = maximumBatchSize;
+		}
+
+		private V get(K key) {
+			CompletableFuture<V> result;
+			Map<K, CompletableFuture<V>> opened = null;
+			Map<K, CompletableFuture<V>> full = null;
+
+			synchronized (lock) {
+				result = batch.get(key);
+				if (result == null) {
+					result = new CompletableFuture<>();
+					batch.put(key, result);
+				}
+				if (batch.size() >= maximumBatchSize) {
+					full = swap();                                  // the batch is full: this call loads it
+					lock.notifyAll();                               // and the opening call stops waiting
+				} else if (!open) {
+					open = true;
+					opened = batch;
+				}
+			}
+
+			if (full != null)
+				load(full);
+			else if (opened != null) {
+				Map<K, CompletableFuture<V>> collected = collect(opened);
+				if (collected != null)
+					load(collected);
+			}
+
+			try {
+				return result.join();
+			} catch (CompletionException e) {
+				if (e.getCause() instanceof RuntimeException)
+					throw (RuntimeException) e.getCause();
+				if (e.getCause() instanceof Error)
+					throw (Error) e.getCause();
+				throw e;
+			}
+		}
+
+		// waits for the window to elapse and takes the given batch, or returns null if it was filled and taken before
+		private Map<K, CompletableFuture<V>> collect(Map<K, CompletableFuture<V>> opened) {
+			boolean interrupted = false;
+
+			synchronized (lock) {
+				long deadline = System.nanoTime() + window;
+				long remaining = window;
+				while (batch == opened && remaining > 0) {
+					try {
+						TimeUnit.NANOSECONDS.timedWait(lock, remaining);
+					} catch (InterruptedException e) {
+						interrupted = true;                         // load the batch now, the callers are waiting
+						break;
+					}
+					remaining = deadline - System.nanoTime();
+				}
+
+				if (interrupted)
+					Thread.currentThread().interrupt();
+				return batch == opened ? swap() : null;
+			}
+		}
+
+		// must be called while holding the lock
+		private Map<K, CompletableFuture<V>> swap() {
+			Map<K, CompletableFuture<V>> result = batch;
+			batch = new LinkedHashMap<>();
+			open = false;
+			batches++;
+			return result;
+		}
+
+		private void load(Map<K, CompletableFuture<V>> batch) {
+			List<K> keys = new ArrayList<>(batch.keySet());
+			try {
+				List<V> values = loader.apply(keys);
+				if (values.size() != keys.size())
+					throw new IllegalStateException("loaded " + values.size() + " values for " + keys.size() + " keys");
+
+				for (int i = 0; i < keys.size(); i++)
+					batch.get(keys.get(i)).complete(values.get(i));
+			} catch (RuntimeException | Error e) {
+				for (CompletableFuture<V> f : batch.values())
+					f.completeExceptionally(e);
+				throw e;
+			}
+		}
+
+		private long getBatchCount() {
+			synchronized (lock) {
+				return batches;
+			}
+		}
+
+	}
+
+}
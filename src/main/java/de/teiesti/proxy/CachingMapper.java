@@ -0,0 +1,354 @@
+package de.teiesti.proxy;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@code CachingMapper} decorates another {@link Mapper} and interns the proxies it creates: Once a proxy was
+ * created for a subject, {@link #getProxy(Object)} returns the very same proxy for that subject as long as it is
+ * cached. In this way, iterating a {@link ProxySet} does not allocate any proxy once the cache is warm - as long as
+ * the policy keeps the proxies (see below).<br /><br />
+ *
+ * How long a proxy stays cached depends on the {@link Policy}:
+ * <ul>
+ * <li>{@link Policy#WEAK} keeps a proxy as long as its subject and the proxy itself are in use elsewhere,</li>
+ * <li>{@link Policy#LRU} keeps a bounded number of proxies and evicts the least recently used one first and</li>
+ * <li>{@link Policy#UNBOUNDED} keeps every proxy forever.</li>
+ * </ul>
+ * {@link #getSubject(Object)} is not cached but forwarded to the decorated mapper.<br /><br />
+ *
+ * The default policy is {@link Policy#WEAK}, which drops a proxy as soon as callers release it: A proxy that is
+ * created, used and discarded within a loop is created again in the next iteration. Choose {@link Policy#UNBOUNDED}
+ * or {@link Policy#LRU} if proxies should survive between uses.<br /><br />
+ *
+ * A {@code CachingMapper} is thread-safe if the decorated mapper is thread-safe. The decorated mapper is never called
+ * while a lock is held; if two threads miss the same subject concurrently, both create a proxy but only the first
+ * one is cached and returned to both. Using {@link Policy#UNBOUNDED}, the cache is a {@link ConcurrentHashMap} and
+ * lookups do not lock at all. The other policies guard their cache with a lock that is only held for the lookup or
+ * the insertion itself.<br /><br />
+ *
+ * A {@code CachingMapper} counts cache hits, misses and evictions which can be obtained with {@link #getHitCount()},
+ * {@link #getMissCount()} and {@link #getEvictionCount()}.
+ *
+ * @param <Proxy> the type of the proxy
+ * @param <Subject> the type of the subject
+ */
+public class CachingMapper<Proxy, Subject> implements Mapper<Proxy, Subject> {
+
+	/**
+	 * The policy which decides how long a {@link CachingMapper} keeps a proxy.
+	 */
+	public enum Policy {
+
+		/**
+		 * Subjects are referenced weakly (see {@link WeakHashMap}) and so are the cached proxies (see
+		 * {@link WeakReference}). A proxy is kept as long as both the subject and the proxy are strongly reachable
+		 * from elsewhere. Proxies usually reference their subject, therefore caching them strongly would prevent the
+		 * subjects from being reclaimed.
+		 */
+		WEAK,
+
+		/**
+		 * At most a given number of proxies is kept. If this number is exceeded, the least recently used proxy is
+		 * evicted.
+		 */
+		LRU,
+
+		/**
+		 * Every proxy is kept forever. Use this policy only if the number of subjects is bounded.
+		 */
+		UNBOUNDED
+
+	}
+
+	private final Mapper<Proxy, Subject> mapper;
+	private final Policy policy;
+	private final Map<Subject, Object> cache;                 // guarded by itself unless it is a ConcurrentMap
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+
+	/**
+	 * Creates a new {@code CachingMapper} which decorates the given mapper using the {@link Policy#WEAK} policy. Note
+	 * that this policy drops a proxy as soon as no caller references it anymore. Use {@link Policy#UNBOUNDED} or
+	 * {@link #CachingMapper(Mapper, int)} to keep proxies that are not in use.
+	 *
+	 * @param mapper the mapper to decorate
+	 */
+	public CachingMapper(Mapper<Proxy, Subject> mapper) {
+		this(mapper, Policy.WEAK);
+	}
+
+	/**
+	 * Creates a new {@code CachingMapper} which decorates the given mapper using the given policy. Because the
+	 * {@link Policy#LRU} policy needs a maximum size, use {@link #CachingMapper(Mapper, int)} instead.
+	 *
+	 * @param mapper the mapper to decorate
+	 * @param policy either {@link Policy#WEAK} or {@link Policy#UNBOUNDED}
+	 */
+	public CachingMapper(Mapper<Proxy, Subject> mapper, Policy policy) {
+		if (mapper == null)
+			throw new IllegalArgumentException("mapper == null");
+		if (policy == null)
+			throw new IllegalArgumentException("policy == null");
+		if (policy == Policy.LRU)
+			throw new IllegalArgumentException("policy == LRU requires a maximum size");
+
+		this.mapper = mapper;
+		this.policy = policy;
+		if (policy == Policy.WEAK)
+			this.cache = new WeakHashMap<>();
+		else
+			this.cache = new ConcurrentHashMap<>();
+	}
+
+	/**
+	 * Creates a new {@code CachingMapper} which decorates the given mapper using the {@link Policy#LRU} policy with
+	 * the given maximum size.
+	 *
+	 * @param mapper the mapper to decorate
+	 * @param maximumSize the maximum number of cached proxies
+	 */
+	public CachingMapper(Mapper<Proxy, Subject> mapper, final int maximumSize) {
+		if (mapper == null)
+			throw new IllegalArgumentException("mapper == null");
+		if (maximumSize <= 0)
+			throw new IllegalArgumentException("maximumSize <= 0");
+
+		this.mapper = mapper;
+		this.policy = Policy.LRU;
+		this.cache = new LinkedHashMap<Subject, Object>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Subject, Object> eldest) {
+				if (size() > maximumSize) {
+					evictions.increment();
+					return true;
+				} else return false;
+			}
+		};
+	}
+
+	/**
+	 * Returns the cached proxy for the given subject. If there is no such proxy, the decorated mapper is asked for a
+	 * proxy which is cached before it is returned. If another thread cached a proxy for the same subject in the
+	 * meantime, that proxy is returned instead.
+	 *
+	 * @param subject the subject to convert into its proxy
+	 * @return a proxy object associated to the given subject
+	 */
+	@Override
+	public Proxy getProxy(Subject subject) {
+		Proxy proxy = cached(subject);
+		if (proxy != null) {
+			hits.increment();
+			return proxy;
+		}
+
+		misses.increment();
+		return cache(subject, mapper.getProxy(subject));
+	}
+
+	/**
+	 * Returns the proxies for the given subjects. Cached proxies are taken from the cache, and all other subjects are
+	 * converted with a single call to {@link Mapper#getProxies(Collection)} of the decorated mapper.
+	 *
+	 * @param subjects the subjects to convert into their proxies
+	 * @return the proxies associated to the given subjects
+	 */
+	@Override
+	public List<Proxy> getProxies(Collection<? extends Subject> subjects) {
+		List<Proxy> result = new ArrayList<>(subjects.size());
+		List<Subject> missing = new ArrayList<>();
+		List<Integer> positions = new ArrayList<>();
+
+		for (Subject s : subjects) {
+			Proxy proxy = cached(s);
+			if (proxy != null) {
+				hits.increment();
+			} else {
+				misses.increment();
+				missing.add(s);
+				positions.add(result.size());
+			}
+			result.add(proxy);
+		}
+
+		if (!missing.isEmpty()) {
+			List<Proxy> loaded = mapper.getProxies(missing);
+			for (int i = 0; i < missing.size(); i++)
+				result.set(positions.get(i), cache(missing.get(i), loaded.get(i)));
+		}
+
+		return result;
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: This method is forwarded to the decorated mapper.
+	 */
+	@Override
+	public Subject getSubject(Proxy proxy) {
+		return mapper.getSubject(proxy);
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: This method is forwarded to the decorated mapper.
+	 */
+	@Override
+	public List<Subject> getSubjects(Collection<? extends Proxy> proxies) {
+		return mapper.getSubjects(proxies);
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: These are the characteristics of the decorated mapper.
+	 */
+	@Override
+	public int characteristics() {
+		return mapper.characteristics();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Class<?> getProxyClass() {
+		return mapper.getProxyClass();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Class<?> getSubjectClass() {
+		return mapper.getSubjectClass();
+	}
+
+	private Proxy cached(Subject subject) {
+		if (cache instanceof ConcurrentMap) {
+			@SuppressWarnings("unchecked")
+			Proxy proxy = subject == null ? null : (Proxy) cache.get(subject);
+			return proxy;
+		}
+
+		synchronized (cache) {
+			Proxy proxy = unwrap(cache.get(subject));
+			if (proxy == null && cache.containsKey(subject))
+				evictions.increment();                          // the proxy was reclaimed by the garbage collector
+			return proxy;
+		}
+	}
+
+	// caches the given proxy unless there is a proxy for the subject already, and returns the cached proxy
+	private Proxy cache(Subject subject, Proxy proxy) {
+		if (proxy == null)
+			return null;
+
+		if (cache instanceof ConcurrentMap) {
+			if (subject == null)
+				return proxy;                                   // a ConcurrentHashMap does not permit null keys
+			@SuppressWarnings("unchecked")
+			Proxy previous = (Proxy) ((ConcurrentMap<Subject, Object>) cache).putIfAbsent(subject, proxy);
+			return previous == null ? proxy : previous;
+		}
+
+		synchronized (cache) {
+			Proxy previous = unwrap(cache.get(subject));
+			if (previous != null)
+				return previous;
+			cache.put(subject, policy == Policy.WEAK ? new WeakReference<>(proxy) : proxy);
+			return proxy;
+		}
+	}
+
+	private Proxy unwrap(Object cached) {
+		if (policy == Policy.WEAK) {
+			@SuppressWarnings("unchecked")
+			WeakReference<Proxy> reference = (WeakReference<Proxy>) cached;
+			return reference == null ? null : reference.get();
+		} else {
+			@SuppressWarnings("unchecked")
+			Proxy proxy = (Proxy) cached;
+			return proxy;
+		}
+	}
+
+	/**
+	 * Returns the policy of this mapper.
+	 *
+	 * @return the policy of this mapper
+	 */
+	public Policy getPolicy() {
+		return policy;
+	}
+
+	/**
+	 * Returns the number of proxies which are currently cached. Using the {@link Policy#WEAK} policy, this number
+	 * may include proxies which were already reclaimed by the garbage collector.
+	 *
+	 * @return the number of cached proxies
+	 */
+	public int size() {
+		if (cache instanceof ConcurrentMap)
+			return cache.size();
+		synchronized (cache) {
+			return cache.size();
+		}
+	}
+
+	/**
+	 * Removes all cached proxies. The statistics are not reset.
+	 */
+	public void clear() {
+		if (cache instanceof ConcurrentMap) {
+			cache.clear();
+			return;
+		}
+		synchronized (cache) {
+			cache.clear();
+		}
+	}
+
+	/**
+	 * Returns how often {@link #getProxy(Object)} returned a cached proxy.
+	 *
+	 * @return the number of cache hits
+	 */
+	public long getHitCount() {
+		return hits.sum();
+	}
+
+	/**
+	 * Returns how often {@link #getProxy(Object)} had to ask the decorated mapper for a proxy.
+	 *
+	 * @return the number of cache misses
+	 */
+	public long getMissCount() {
+		return misses.sum();
+	}
+
+	/**
+	 * Returns how many proxies were evicted from the cache. Using the {@link Policy#LRU} policy, this is the number of
+	 * proxies which were evicted because the maximum size was exceeded. Using the {@link Policy#WEAK} policy, this is
+	 * the number of reclaimed proxies which were requested afterwards. Using the {@link Policy#UNBOUNDED} policy, no
+	 * proxy is ever evicted.
+	 *
+	 * @return the number of evictions
+	 */
+	public long getEvictionCount() {
+		return evictions.sum();
+	}
+
+}
@@ -0,0 +1,77 @@
+package de.teiesti.proxy;
+
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A {@code ConcurrentProxySet} is a thread-safe {@link ProxySet}. It encapsulates a concurrent set of subjects, e.g. a
+ * set obtained with {@link ConcurrentHashMap#newKeySet()}, and never synchronizes on its own. Therefore it scales like
+ * the underlying set: Using {@link ConcurrentHashMap#newKeySet()}, {@link #contains(Object)}, {@link #add(Object)} and
+ * {@link #remove(Object)} never take a global lock, and retrievals do not block at all.<br /><br />
+ *
+ * Iterators and spliterators are weakly consistent: They never throw a {@link ConcurrentModificationException} and
+ * reflect the state of the set at some point at or since their creation. Bulk operations (e.g.
+ * {@link #addAll(java.util.Collection)}) are - as in {@code java.util.concurrent} - not atomic, but every single
+ * element is added or removed atomically.<br /><br />
+ *
+ * Thread-safety contract: The {@link Mapper} is called concurrently and therefore must be thread-safe (see
+ * {@link Mapper}). The set of subjects must be thread-safe and must provide weakly consistent iterators. Changes to the
+ * set of subjects made from other threads are visible through this set like changes made through this set.
+ *
+ * @param <Proxy> the type of the proxy
+ * @param <Subject> the type of the subject
+ */
+public class ConcurrentProxySet<Proxy, Subject> extends ProxySet<Proxy, Subject> {
+
+	/**
+	 * Creates a new {@code ConcurrentProxySet} which encapsulates a new and empty set obtained with
+	 * {@link ConcurrentHashMap#newKeySet()}.
+	 *
+	 * @param mapper a thread-safe mapper mapping subjects to proxies
+	 */
+	public ConcurrentProxySet(Mapper<Proxy, Subject> mapper) {
+		this(ConcurrentHashMap.<Subject> newKeySet(), mapper);
+	}
+
+	/**
+	 * Creates a new {@code ConcurrentProxySet} which encapsulates a given concurrent set of subjects by the help of a
+	 * {@link Mapper}.
+	 *
+	 * @param subjects a thread-safe set of subjects with weakly consistent iterators
+	 * @param mapper a thread-safe mapper mapping subjects to proxies
+	 */
+	public ConcurrentProxySet(Set<Subject> subjects, Mapper<Proxy, Subject> mapper) {
+		super(subjects, mapper);
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: The size of this set may change during the method call. Therefore the returned array contains the proxies
+	 * which were encountered by a weakly consistent iterator.
+	 */
+	@Override
+	public Object[] toArray() {
+		return encountered().toArray();
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: The size of this set may change during the method call. Therefore the returned array contains the proxies
+	 * which were encountered by a weakly consistent iterator.
+	 */
+	@Override
+	public <T> T[] toArray(T[] a) {
+		return encountered().toArray(a);
+	}
+
+	private List<Proxy> encountered() {
+		List<Proxy> result = new ArrayList<>();
+		for (Proxy p : this)
+			result.add(p);
+		return result;
+	}
+
+}
@@ -0,0 +1,276 @@
+package de.teiesti.proxy;
+
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * A {@code CopyOnWriteProxySet} is a thread-safe {@link ProxySet} for sets which are read much more often than they
+ * are changed. Its subjects are stored in an immutable version (see {@link ImmutableCompactSet}) which is published
+ * through a volatile reference. Readers never lock: {@link #contains(Object)} probes the current version, and
+ * iterators and spliterators traverse the version which was current when they were created. Therefore reads scale
+ * with the number of threads and never throw a {@link java.util.ConcurrentModificationException}.<br /><br />
+ *
+ * Every modification copies the current version, modifies the copy and publishes it as the new version; writers are
+ * serialized by a lock. A modification costs O(n), thus use {@link #mutate(Consumer)} to combine many modifications
+ * into a single copy. Bulk operations (e.g. {@link #addAll(Collection)}) copy only once and are atomic.
+ * {@link Iterator#remove()} removes the current proxy from the latest version, not from the version the iterator
+ * traverses.<br /><br />
+ *
+ * Thread-safety contract: The {@link Mapper} is called concurrently and therefore must be thread-safe (see
+ * {@link Mapper}).
+ *
+ * @param <Proxy> the type of the proxy
+ * @param <Subject> the type of the subject
+ */
+public class CopyOnWriteProxySet<Proxy, Subject> extends ProxySet<Proxy, Subject> {
+
+	private final Versions<Subject> versions;
+
+	/**
+	 * Creates a new and empty {@code CopyOnWriteProxySet}.
+	 *
+	 * @param mapper a thread-safe mapper mapping subjects to proxies
+	 */
+	public CopyOnWriteProxySet(Mapper<Proxy, Subject> mapper) {
+		this(Collections.<Subject> emptySet(), mapper);
+	}
+
+	/**
+	 * Creates a new {@code CopyOnWriteProxySet} which contains the proxies of the given subjects. The subjects are
+	 * copied; later changes to the given collection are not reflected by this set.
+	 *
+	 * @param subjects the initial subjects
+	 * @param mapper a thread-safe mapper mapping subjects to proxies
+	 */
+	public CopyOnWriteProxySet(Collection<? extends Subject> subjects, Mapper<Proxy, Subject> mapper) {
+		this(new Versions<Subject>(subjects), mapper);
+	}
+
+	private CopyOnWriteProxySet(Versions<Subject> versions, Mapper<Proxy, Subject> mapper) {
+		super(versions, mapper);
+		this.versions = versions;
+	}
+
+	/**
+	 * Applies the given mutation to a copy of this set and publishes the result as a single new version. Readers see
+	 * either none or all of the changes. The set passed to the mutation is a mutable {@link ProxySet} which must not
+	 * be used after the mutation returns. Other writers wait until the mutation is done.
+	 *
+	 * @param mutation the mutation to apply
+	 */
+	public void mutate(Consumer<? super Set<Proxy>> mutation) {
+		if (mutation == null)
+			throw new IllegalArgumentException("mutation == null");
+
+		apply(copy -> {
+			mutation.accept(copy);
+			return null;
+		});
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: This method copies the current version once.
+	 */
+	@Override
+	public boolean addAll(Collection<? extends Proxy> c) {
+		return apply(copy -> copy.addAll(c));
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: This method copies the current version once.
+	 */
+	@Override
+	public boolean removeAll(Collection<?> c) {
+		return apply(copy -> copy.removeAll(c));
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: This method copies the current version once.
+	 */
+	@Override
+	public boolean retainAll(Collection<?> c) {
+		return apply(copy -> copy.retainAll(c));
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: This method copies the current version once.
+	 */
+	@Override
+	public boolean removeIf(Predicate<? super Proxy> filter) {
+		if (filter == null)
+			throw new IllegalArgumentException("filter == null");
+
+		return apply(copy -> copy.removeIf(filter));
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: The proxies are taken from the version which is current when this method is called.
+	 */
+	@Override
+	public Object[] toArray() {
+		return currentVersion().toArray();
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: The proxies are taken from the version which is current when this method is called.
+	 */
+	@Override
+	public <T> T[] toArray(T[] a) {
+		return currentVersion().toArray(a);
+	}
+
+	// a view of the current version which does not change when a new version is published
+	private ProxySet<Proxy, Subject> currentVersion() {
+		ProxySet<Proxy, Subject> snapshot = new ProxySet<Proxy, Subject>(versions.current, mapper());
+		snapshot.setParallelThreshold(getParallelThreshold());
+		return snapshot;
+	}
+
+	private <R> R apply(Function<ProxySet<Proxy, Subject>, R> mutation) {
+		return versions.update(copy -> mutation.apply(new ProxySet<Proxy, Subject>(copy, mapper())));
+	}
+
+	/**
+	 * {@code Versions} is a set of subjects which publishes immutable versions through a volatile reference. All
+	 * methods of a {@link ProxySet} reach the subjects through it.
+	 *
+	 * @param <Subject> the type of the subject
+	 */
+	private static final class Versions<Subject> extends AbstractSet<Subject> {
+
+		private final Object lock = new Object();
+		private volatile ImmutableCompactSet<Subject> current;
+
+		private Versions(Collection<? extends Subject> subjects) {
+			if (subjects == null)
+				throw new IllegalArgumentException("subjects == null");
+
+			this.current = new ImmutableCompactSet<Subject>(subjects);
+		}
+
+		/**
+		 * Applies the given mutation to a mutable copy of the current version and publishes the copy.
+		 *
+		 * @param mutation the mutation
+		 * @param <R> the type of the result
+		 * @return the result of the mutation
+		 */
+		private <R> R update(Function<Set<Subject>, R> mutation) {
+			synchronized (lock) {
+				Set<Subject> copy = new LinkedHashSet<>(current);
+				R result = mutation.apply(copy);
+				current = new ImmutableCompactSet<Subject>(copy);
+				return result;
+			}
+		}
+
+		@Override
+		public boolean add(Subject s) {
+			synchronized (lock) {
+				if (current.contains(s))
+					return false;
+				return update(copy -> copy.add(s));
+			}
+		}
+
+		@Override
+		public boolean remove(Object o) {
+			synchronized (lock) {
+				if (!current.contains(o))
+					return false;
+				return update(copy -> copy.remove(o));
+			}
+		}
+
+		@Override
+		public void clear() {
+			synchronized (lock) {
+				current = new ImmutableCompactSet<Subject>(Collections.<Subject> emptySet());
+			}
+		}
+
+		@Override
+		public boolean contains(Object o) {
+			return current.contains(o);
+		}
+
+		@Override
+		public int size() {
+			return current.size();
+		}
+
+		@Override
+		public boolean isEmpty() {
+			return current.isEmpty();
+		}
+
+		@Override
+		public Iterator<Subject> iterator() {
+			Iterator<Subject> it = current.iterator();
+
+			return new Iterator<Subject>() {
+
+				private Subject last;
+				private boolean removable;
+
+				@Override
+				public boolean hasNext() {
+					return it.hasNext();
+				}
+
+				@Override
+				public Subject next() {
+					last = it.next();
+					removable = true;
+					return last;
+				}
+
+				@Override
+				public void remove() {
+					if (!removable)
+						throw new IllegalStateException();
+
+					Versions.this.remove(last);
+					removable = false;
+				}
+
+			};
+		}
+
+		@Override
+		public Spliterator<Subject> spliterator() {
+			return current.spliterator();
+		}
+
+		@Override
+		public Object[] toArray() {
+			return current.toArray();
+		}
+
+		@Override
+		public <T> T[] toArray(T[] a) {
+			return current.toArray(a);
+		}
+
+		@Override
+		public int hashCode() {
+			return current.hashCode();
+		}
+
+	}
+
+}
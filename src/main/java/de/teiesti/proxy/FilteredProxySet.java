@@ -0,0 +1,335 @@
+package de.teiesti.proxy;
+
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * A {@code FilteredProxySet} is a lazy view of those proxies in a {@link ProxySet} which match a filter (see
+ * {@link ProxySet#filter(Predicate)} and {@link ProxySet#filterSubjects(Predicate)}). A filter consists of a
+ * predicate on subjects and a predicate on proxies. The predicate on subjects is tested before a subject is mapped,
+ * thus subjects which do not match it are never mapped. Prefer {@link #filterSubjects(Predicate)} whenever a
+ * predicate can be answered from the subject alone.<br /><br />
+ *
+ * Filtered views can be filtered again and projected to other proxies with another mapper (see
+ * {@link #map(Mapper)}); the result is a single view which tests all predicates on the same underlying set of
+ * subjects. Removing proxies from a view writes through to the underlying set of subjects; adding proxies is not
+ * supported.<br /><br />
+ *
+ * Every call to {@link #size()} scans the underlying set of subjects unless the size is cached (see
+ * {@link #setSizeCached(boolean)}). A filtered view is not thread-safe.
+ *
+ * @param <Proxy> the type of the proxy
+ * @param <Subject> the type of the subject
+ */
+public class FilteredProxySet<Proxy, Subject> extends AbstractSet<Proxy> {
+
+	private static final Object NONE = new Object();                // marks an object which is not in this view
+
+	private final Set<Subject> subjects;
+	private final Mapper<Proxy, Subject> mapper;
+	private final Predicate<? super Subject> subjectFilter;
+	private final Predicate<? super Proxy> proxyFilter;
+
+	private boolean sizeCached;
+	private int size = -1;                                          // -1 if the size is not cached
+
+	/**
+	 * Creates a {@code FilteredProxySet} which contains the proxies of the given subjects which match both
+	 * predicates. A predicate which is {@code null} matches everything.
+	 *
+	 * @param subjects the set of subjects to filter
+	 * @param mapper a mapper which maps the subjects to the proxies
+	 * @param subjectFilter the predicate on subjects or {@code null}
+	 * @param proxyFilter the predicate on proxies or {@code null}
+	 */
+	FilteredProxySet(Set<Subject> subjects, Mapper<Proxy, Subject> mapper, Predicate<? super Subject> subjectFilter,
+			Predicate<? super Proxy> proxyFilter) {
+		if (subjects == null)
+			throw new IllegalArgumentException("subjects == null");
+		if (mapper == null)
+			throw new IllegalArgumentException("mapper == null");
+
+		this.subjects = subjects;
+		this.mapper = mapper;
+		this.subjectFilter = subjectFilter;
+		this.proxyFilter = proxyFilter;
+	}
+
+	/**
+	 * Returns a view of the proxies in this view which match the given predicate. Each proxy is tested after all
+	 * predicates of this view.
+	 *
+	 * @param filter a predicate on proxies
+	 * @return a filtered view of this view
+	 */
+	public FilteredProxySet<Proxy, Subject> filter(Predicate<? super Proxy> filter) {
+		if (filter == null)
+			throw new IllegalArgumentException("filter == null");
+
+		return new FilteredProxySet<Proxy, Subject>(subjects, mapper, subjectFilter,
+				proxyFilter == null ? filter : and(proxyFilter, filter));
+	}
+
+	/**
+	 * Returns a view of the proxies in this view whose subjects match the given predicate. The predicate is tested
+	 * after the predicate on subjects of this view but before any subject is mapped.
+	 *
+	 * @param filter a predicate on subjects
+	 * @return a filtered view of this view
+	 */
+	public FilteredProxySet<Proxy, Subject> filterSubjects(Predicate<? super Subject> filter) {
+		if (filter == null)
+			throw new IllegalArgumentException("filter == null");
+
+		return new FilteredProxySet<Proxy, Subject>(subjects, mapper,
+				subjectFilter == null ? filter : and(subjectFilter, filter), proxyFilter);
+	}
+
+	/**
+	 * Returns a view which projects the proxies in this view with the given mapper, i.e. the proxies of this view are
+	 * the subjects of the given mapper. The returned view works on the underlying set of subjects of this view with
+	 * the composition of both mappers (see {@link Mappers#compose(Mapper, Mapper)}). A predicate on proxies of this
+	 * view becomes a predicate on subjects of the returned view.
+	 *
+	 * @param outer a mapper which maps the proxies of this view to the proxies of the returned view
+	 * @param <Projection> the type of the proxies of the returned view
+	 * @return a projection of this view
+	 */
+	public <Projection> FilteredProxySet<Projection, Subject> map(Mapper<Projection, Proxy> outer) {
+		if (outer == null)
+			throw new IllegalArgumentException("outer == null");
+
+		Predicate<? super Subject> filter = subjectFilter;
+		if (proxyFilter != null) {
+			Predicate<? super Proxy> proxies = proxyFilter;
+			Mapper<Proxy, Subject> inner = mapper;
+			Predicate<Subject> mapped = s -> proxies.test(inner.getProxy(s));
+			filter = filter == null ? mapped : and(filter, mapped);
+		}
+		return new FilteredProxySet<Projection, Subject>(subjects, Mappers.compose(outer, mapper), filter, null);
+	}
+
+	/**
+	 * Returns if the size of this view is cached.
+	 *
+	 * @return if the size is cached
+	 */
+	public boolean isSizeCached() {
+		return sizeCached;
+	}
+
+	/**
+	 * Sets if the size of this view is cached. A cached size is computed by the first call to {@link #size()} and
+	 * updated by removals through this view. It is not updated if the underlying set of subjects is modified
+	 * otherwise; call {@link #invalidateSize()} in this case.
+	 *
+	 * @param sizeCached if the size is cached
+	 */
+	public void setSizeCached(boolean sizeCached) {
+		this.sizeCached = sizeCached;
+		this.size = -1;
+	}
+
+	/**
+	 * Discards the cached size. The next call to {@link #size()} scans the underlying set of subjects again.
+	 */
+	public void invalidateSize() {
+		size = -1;
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: This method scans the underlying set of subjects unless the size is cached (see
+	 * {@link #setSizeCached(boolean)}). Only subjects which match the predicate on subjects are mapped.
+	 */
+	@Override
+	public int size() {
+		if (size >= 0)
+			return size;
+
+		int result = 0;
+		for (Subject s : subjects)
+			if (matches(s))
+				result++;
+		if (sizeCached)
+			size = result;
+		return result;
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: This method stops at the first matching subject.
+	 */
+	@Override
+	public boolean isEmpty() {
+		if (size >= 0)
+			return size == 0;
+		return !iterator().hasNext();
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: This method maps the given proxy to its subject and looks it up in the underlying set of subjects.
+	 */
+	@Override
+	public boolean contains(Object o) {
+		return subjectOf(o) != NONE;
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: This method modifies the underlying set of subjects.
+	 */
+	@Override
+	public boolean remove(Object o) {
+		Object s = subjectOf(o);
+		if (s == NONE)
+			return false;
+		subjects.remove(s);
+		removed();
+		return true;
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: Invoking the {@link Iterator#remove()}-method affects the underlying set of subjects, too. Because the
+	 * iterator needs to look ahead to find the next matching subject, {@link Iterator#remove()} throws an
+	 * {@link IllegalStateException} if {@link Iterator#hasNext()} looked ahead since the last call to
+	 * {@link Iterator#next()} - unless the look-ahead reached the end of the underlying set of subjects.
+	 */
+	@Override
+	public Iterator<Proxy> iterator() {
+		return new Iterator<Proxy>() {
+
+			private final Iterator<Subject> it = subjects.iterator();
+			private Subject nextSubject;
+			private Subject lastSubject;
+			private Proxy next;
+			private boolean hasNext;
+			private boolean lookedAhead;                        // it moved past lastSubject
+			private boolean removable;
+
+			@Override
+			public boolean hasNext() {
+				while (!hasNext && it.hasNext()) {
+					Subject s = it.next();
+					lookedAhead = true;
+					if (subjectFilter == null || subjectFilter.test(s)) {
+						Proxy p = mapper.getProxy(s);
+						if (proxyFilter == null || proxyFilter.test(p)) {
+							next = p;
+							nextSubject = s;
+							hasNext = true;
+						}
+					}
+				}
+				return hasNext;
+			}
+
+			@Override
+			public Proxy next() {
+				if (!hasNext())
+					throw new NoSuchElementException();
+
+				Proxy result = next;
+				lastSubject = nextSubject;
+				next = null;
+				nextSubject = null;
+				hasNext = false;
+				lookedAhead = false;
+				removable = true;
+				return result;
+			}
+
+			@Override
+			public void remove() {
+				if (!removable)
+					throw new IllegalStateException();
+
+				if (!lookedAhead)
+					it.remove();
+				else if (!hasNext && !it.hasNext())
+					subjects.remove(lastSubject);               // it is exhausted and cannot be invalidated
+				else
+					throw new IllegalStateException("hasNext() looked ahead");
+				lastSubject = null;
+				removable = false;
+				removed();
+			}
+
+		};
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: This method modifies the underlying set of subjects.
+	 */
+	@Override
+	public void clear() {
+		subjects.removeIf(this::matches);
+		if (sizeCached)
+			size = 0;
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: This method modifies the underlying set of subjects.
+	 */
+	@Override
+	public boolean removeAll(Collection<?> c) {
+		boolean result = false;
+		for (Object o : c)
+			result |= remove(o);
+		return result;
+	}
+
+	/**
+	 * Returns the subject of the given object if it is a proxy in this view and {@link #NONE} otherwise.
+	 *
+	 * @param o an object
+	 * @return the subject of {@code o} or {@link #NONE}
+	 */
+	private Object subjectOf(Object o) {
+		if (o != null && !mapper.getProxyClass().isInstance(o))     // black magic: o is not a proxy
+			return NONE;
+
+		@SuppressWarnings("unchecked")
+		Proxy p = (Proxy) o;
+		Subject s = mapper.getSubject(p);
+		if (!subjects.contains(s))
+			return NONE;
+		if (subjectFilter != null && !subjectFilter.test(s))
+			return NONE;
+		if (proxyFilter != null && !proxyFilter.test(p))
+			return NONE;
+		return s;
+	}
+
+	/**
+	 * Returns if the given subject matches both predicates of this view.
+	 *
+	 * @param s a subject
+	 * @return if {@code s} matches
+	 */
+	private boolean matches(Subject s) {
+		if (subjectFilter != null && !subjectFilter.test(s))
+			return false;
+		return proxyFilter == null || proxyFilter.test(mapper.getProxy(s));
+	}
+
+	private void removed() {
+		if (size > 0)
+			size--;
+	}
+
+	private static <T> Predicate<T> and(Predicate<? super T> first, Predicate<? super T> second) {
+		return t -> first.test(t) && second.test(t);
+	}
+
+}
@@ -0,0 +1,85 @@
+package de.teiesti.proxy;
+
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * A {@code FunctionMapper} converts subjects and proxies with two functions (see
+ * {@link Mapper#of(Class, Class, Function, Function)}). The class is final so that calls through a mapper which is
+ * known to be a {@code FunctionMapper} can be inlined. Two function mappers are equal if their classes, functions and
+ * characteristics are equal.
+ *
+ * @param <Proxy> the type of the proxy
+ * @param <Subject> the type of the subject
+ */
+final class FunctionMapper<Proxy, Subject> implements Mapper<Proxy, Subject> {
+
+	private final Class<Proxy> proxyClass;
+	private final Class<Subject> subjectClass;
+	private final Function<? super Subject, ? extends Proxy> toProxy;
+	private final Function<? super Proxy, ? extends Subject> toSubject;
+	private final int characteristics;
+
+	FunctionMapper(Class<Proxy> proxyClass, Class<Subject> subjectClass,
+			Function<? super Subject, ? extends Proxy> toProxy, Function<? super Proxy, ? extends Subject> toSubject,
+			int characteristics) {
+		if (proxyClass == null)
+			throw new IllegalArgumentException("proxyClass == null");
+		if (subjectClass == null)
+			throw new IllegalArgumentException("subjectClass == null");
+		if (toProxy == null)
+			throw new IllegalArgumentException("toProxy == null");
+		if (toSubject == null)
+			throw new IllegalArgumentException("toSubject == null");
+
+		this.proxyClass = proxyClass;
+		this.subjectClass = subjectClass;
+		this.toProxy = toProxy;
+		this.toSubject = toSubject;
+		this.characteristics = characteristics;
+	}
+
+	@Override
+	public Proxy getProxy(Subject subject) {
+		return toProxy.apply(subject);
+	}
+
+	@Override
+	public Subject getSubject(Proxy proxy) {
+		return toSubject.apply(proxy);
+	}
+
+	@Override
+	public int characteristics() {
+		return characteristics;
+	}
+
+	@Override
+	public Class<?> getProxyClass() {
+		return proxyClass;
+	}
+
+	@Override
+	public Class<?> getSubjectClass() {
+		return subjectClass;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(proxyClass, subjectClass, toProxy, toSubject, characteristics);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj instanceof FunctionMapper<?, ?>) {
+			FunctionMapper<?, ?> other = (FunctionMapper<?, ?>) obj;
+			return proxyClass.equals(other.proxyClass) && subjectClass.equals(other.subjectClass)
+					&& toProxy.equals(other.toProxy) && toSubject.equals(other.toSubject)
+					&& characteristics == other.characteristics;
+		}
+		return false;
+	}
+
+}
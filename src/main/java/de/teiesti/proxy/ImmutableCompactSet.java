@@ -0,0 +1,199 @@
+package de.teiesti.proxy;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+
+/**
+ * An {@code ImmutableCompactSet} is an immutable set which stores its elements in two flat arrays: The elements
+ * themselves in iteration order and a hash table of indices into the elements which uses open addressing with linear
+ * probing. In contrast to a {@link java.util.HashSet}, there are no nodes to follow; iterating reads a single array,
+ * and a lookup reads two. The hash code is computed when the set is created.<br /><br />
+ *
+ * The iteration order is the iteration order of the collection the set was created from. {@code null} is permitted.
+ * All methods which would modify the set throw an {@link UnsupportedOperationException}. This class is thread-safe.
+ *
+ * @param <E> the type of the elements
+ */
+public final class ImmutableCompactSet<E> extends AbstractSet<E> {
+
+	private static final int MAXIMUM_CAPACITY = 1 << 30;
+
+	private final Object[] elements;
+	private final int[] table;                      // index + 1 of an element or 0 if the slot is free
+	private final int mask;
+	private final int hashCode;
+
+	/**
+	 * Creates a new {@code ImmutableCompactSet} which contains the elements of the given collection. Duplicates are
+	 * dropped. Because the hash table has twice as many slots as elements, the collection must not contain more than
+	 * {@code 2^29} elements.
+	 *
+	 * @param elements the elements
+	 * @throws IllegalArgumentException if the collection contains more than {@code 2^29} elements
+	 */
+	public ImmutableCompactSet(Collection<? extends E> elements) {
+		if (elements == null)
+			throw new IllegalArgumentException("elements == null");
+
+		Object[] candidates = elements.toArray();
+		if (candidates.length > MAXIMUM_CAPACITY / 2)
+			throw new IllegalArgumentException("more than " + MAXIMUM_CAPACITY / 2 + " elements");
+
+		int capacity = Math.max(2, Integer.highestOneBit(candidates.length * 2 - 1) << 1);    // load factor at most 0.5
+		this.table = new int[capacity];
+		this.mask = capacity - 1;
+
+		int size = 0;
+		int hashCode = 0;
+		for (Object e : candidates) {
+			int i = index(e);
+			while (table[i] != 0 && !equal(candidates[table[i] - 1], e))
+				i = (i + 1) & mask;
+			if (table[i] == 0) {
+				candidates[size] = e;                           // compact the candidates in place
+				table[i] = ++size;
+				hashCode += e == null ? 0 : e.hashCode();
+			}
+		}
+
+		this.elements = size == candidates.length ? candidates : Arrays.copyOf(candidates, size);
+		this.hashCode = hashCode;
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: This method reads the hash table and the element array once each (plus probing).
+	 */
+	@Override
+	public boolean contains(Object o) {
+		int i = index(o);
+		for (int slot = table[i]; slot != 0; slot = table[i = (i + 1) & mask])
+			if (equal(elements[slot - 1], o))
+				return true;
+		return false;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int size() {
+		return elements.length;
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: The returned iterator does not support {@link Iterator#remove()}.
+	 */
+	@Override
+	public Iterator<E> iterator() {
+		return new Iterator<E>() {
+
+			private int next;
+
+			@Override
+			public boolean hasNext() {
+				return next < elements.length;
+			}
+
+			@Override
+			public E next() {
+				if (next >= elements.length)
+					throw new NoSuchElementException();
+				return element(next++);
+			}
+
+		};
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Spliterator<E> spliterator() {
+		return Spliterators.spliterator(elements, Spliterator.DISTINCT | Spliterator.IMMUTABLE | Spliterator.ORDERED);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void forEach(Consumer<? super E> action) {
+		if (action == null)
+			throw new NullPointerException("action == null");
+
+		for (int i = 0; i < elements.length; i++)
+			action.accept(element(i));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Object[] toArray() {
+		return elements.clone();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public <T> T[] toArray(T[] a) {
+		if (a.length < elements.length)
+			return (T[]) Arrays.copyOf(elements, elements.length, a.getClass());
+
+		System.arraycopy(elements, 0, a, 0, elements.length);
+		if (a.length > elements.length)
+			a[elements.length] = null;
+		return a;
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: The hash code was computed when this set was created.
+	 */
+	@Override
+	public int hashCode() {
+		return hashCode;
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: Two {@code ImmutableCompactSet}s with different hash codes are not compared element by element.
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj instanceof ImmutableCompactSet<?> && hashCode != ((ImmutableCompactSet<?>) obj).hashCode)
+			return false;
+		if (obj instanceof Set<?>) {
+			Set<?> other = (Set<?>) obj;
+			return elements.length == other.size() && containsAll(other);
+		}
+		return false;
+	}
+
+	@SuppressWarnings("unchecked")
+	private E element(int i) {
+		return (E) elements[i];                                 // safe because only Es were added
+	}
+
+	private int index(Object o) {
+		int h = o == null ? 0 : o.hashCode() * 0x9E3779B9;     // Fibonacci hashing, see IntHashSet
+		return (h ^ (h >>> 16)) & mask;
+	}
+
+	private static boolean equal(Object a, Object b) {
+		return a == null ? b == null : a.equals(b);
+	}
+
+}
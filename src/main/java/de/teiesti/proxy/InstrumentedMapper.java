@@ -0,0 +1,331 @@
+package de.teiesti.proxy;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * An {@code InstrumentedMapper} decorates another {@link Mapper} and records how it is used: It counts the calls of
+ * every mapping method, the number of mapped objects and the latency of the calls as a histogram. The statistics can
+ * be obtained directly or - after {@link #register(String)} - through JMX (see {@link InstrumentedMapperMBean}).
+ * Together with an {@link InstrumentedProxySet}, it shows which proxy sets are worth caching (see
+ * {@link CachingMapper}) or materializing.<br /><br />
+ *
+ * Counting is cheap, but reading the clock twice per call is not for a cheap mapper. Therefore the latency is only
+ * recorded for a random sample of the calls if the sample interval is set (see {@link #setSampleInterval(int)}), e.g.
+ * to {@code 64} in production.<br /><br />
+ *
+ * An {@code InstrumentedMapper} is thread-safe if the decorated mapper is thread-safe. It has the characteristics of
+ * the decorated mapper.
+ *
+ * @param <Proxy> the type of the proxy
+ * @param <Subject> the type of the subject
+ */
+public class InstrumentedMapper<Proxy, Subject> implements Mapper<Proxy, Subject>, InstrumentedMapperMBean {
+
+	private static final int BUCKETS = 64;
+
+	private final Mapper<Proxy, Subject> mapper;
+
+	private final LongAdder proxyCalls = new LongAdder();
+	private final LongAdder subjectCalls = new LongAdder();
+	private final LongAdder bulkProxyCalls = new LongAdder();
+	private final LongAdder bulkSubjectCalls = new LongAdder();
+	private final LongAdder mappedSubjects = new LongAdder();
+	private final LongAdder mappedProxies = new LongAdder();
+
+	private final LongAdder sampledCalls = new LongAdder();
+	private final LongAdder sampledNanos = new LongAdder();
+	private final AtomicLongArray histogram = new AtomicLongArray(BUCKETS);
+
+	private volatile int sampleInterval = 1;
+
+	/**
+	 * Creates a new {@code InstrumentedMapper} which decorates the given mapper and times every call.
+	 *
+	 * @param mapper the mapper to decorate
+	 */
+	public InstrumentedMapper(Mapper<Proxy, Subject> mapper) {
+		if (mapper == null)
+			throw new IllegalArgumentException("mapper == null");
+
+		this.mapper = mapper;
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: This method is forwarded to the decorated mapper.
+	 */
+	@Override
+	public Proxy getProxy(Subject subject) {
+		proxyCalls.increment();
+		mappedSubjects.increment();
+
+		long start = startSample();
+		Proxy result = mapper.getProxy(subject);
+		endSample(start);
+		return result;
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: This method is forwarded to the decorated mapper.
+	 */
+	@Override
+	public Subject getSubject(Proxy proxy) {
+		subjectCalls.increment();
+		mappedProxies.increment();
+
+		long start = startSample();
+		Subject result = mapper.getSubject(proxy);
+		endSample(start);
+		return result;
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: This method is forwarded to the decorated mapper.
+	 */
+	@Override
+	public List<Proxy> getProxies(Collection<? extends Subject> subjects) {
+		bulkProxyCalls.increment();
+		mappedSubjects.add(subjects.size());
+
+		long start = startSample();
+		List<Proxy> result = mapper.getProxies(subjects);
+		endSample(start);
+		return result;
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: This method is forwarded to the decorated mapper.
+	 */
+	@Override
+	public List<Subject> getSubjects(Collection<? extends Proxy> proxies) {
+		bulkSubjectCalls.increment();
+		mappedProxies.add(proxies.size());
+
+		long start = startSample();
+		List<Subject> result = mapper.getSubjects(proxies);
+		endSample(start);
+		return result;
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: These are the characteristics of the decorated mapper.
+	 */
+	@Override
+	public int characteristics() {
+		return mapper.characteristics();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Class<?> getProxyClass() {
+		return mapper.getProxyClass();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Class<?> getSubjectClass() {
+		return mapper.getSubjectClass();
+	}
+
+	private long startSample() {
+		int interval = sampleInterval;
+		if (interval == 1 || ThreadLocalRandom.current().nextInt(interval) == 0)
+			return System.nanoTime();
+		else return -1;
+	}
+
+	private void endSample(long start) {
+		if (start == -1)
+			return;
+
+		long nanos = Math.max(System.nanoTime() - start, 1);
+		sampledCalls.increment();
+		sampledNanos.add(nanos);
+		histogram.incrementAndGet(63 - Long.numberOfLeadingZeros(nanos));      // floor(log2(nanos))
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long getProxyCalls() {
+		return proxyCalls.sum();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long getSubjectCalls() {
+		return subjectCalls.sum();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long getBulkProxyCalls() {
+		return bulkProxyCalls.sum();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long getBulkSubjectCalls() {
+		return bulkSubjectCalls.sum();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long getMappedSubjects() {
+		return mappedSubjects.sum();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long getMappedProxies() {
+		return mappedProxies.sum();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long getSampledCalls() {
+		return sampledCalls.sum();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public double getMeanLatencyNanos() {
+		long calls = sampledCalls.sum();
+		return calls == 0 ? 0 : sampledNanos.sum() / (double) calls;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long[] getLatencyHistogram() {
+		long[] result = new long[BUCKETS];
+		for (int i = 0; i < BUCKETS; i++)
+			result[i] = histogram.get(i);
+		return result;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int getSampleInterval() {
+		return sampleInterval;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setSampleInterval(int sampleInterval) {
+		if (sampleInterval < 1)
+			throw new IllegalArgumentException("sampleInterval < 1");
+
+		this.sampleInterval = sampleInterval;
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: Calls which are in progress may be counted before or after the reset.
+	 */
+	@Override
+	public void reset() {
+		proxyCalls.reset();
+		subjectCalls.reset();
+		bulkProxyCalls.reset();
+		bulkSubjectCalls.reset();
+		mappedSubjects.reset();
+		mappedProxies.reset();
+		sampledCalls.reset();
+		sampledNanos.reset();
+		for (int i = 0; i < BUCKETS; i++)
+			histogram.set(i, 0);
+	}
+
+	/**
+	 * Registers this mapper at the platform MBean server with the object name
+	 * {@code de.teiesti.proxy:type=InstrumentedMapper,name=<name>}.
+	 *
+	 * @param name the name of this mapper
+	 * @return the object name this mapper was registered with
+	 * @throws IllegalStateException if the registration failed, e.g. because the name is already in use
+	 */
+	public ObjectName register(String name) {
+		return register(this, "InstrumentedMapper", name);
+	}
+
+	/**
+	 * Registers the given MBean at the platform MBean server with the object name
+	 * {@code de.teiesti.proxy:type=<type>,name=<name>}.
+	 *
+	 * @param mbean the MBean to register
+	 * @param type the type of the MBean
+	 * @param name the name of the MBean
+	 * @return the object name the MBean was registered with
+	 * @throws IllegalStateException if the registration failed
+	 */
+	static ObjectName register(Object mbean, String type, String name) {
+		if (name == null)
+			throw new IllegalArgumentException("name == null");
+
+		try {
+			ObjectName objectName = new ObjectName("de.teiesti.proxy:type=" + type + ",name=" + ObjectName.quote(name));
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			server.registerMBean(mbean, objectName);
+			return objectName;
+		} catch (JMException e) {
+			throw new IllegalStateException("cannot register " + type + " " + name, e);
+		}
+	}
+
+	/**
+	 * Unregisters an MBean which was registered with {@link #register(String)} or
+	 * {@link InstrumentedProxySet#register(String)}.
+	 *
+	 * @param objectName the object name returned by the registration
+	 * @throws IllegalStateException if the MBean could not be unregistered
+	 */
+	public static void unregister(ObjectName objectName) {
+		if (objectName == null)
+			throw new IllegalArgumentException("objectName == null");
+
+		try {
+			ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+		} catch (JMException e) {
+			throw new IllegalStateException("cannot unregister " + objectName, e);
+		}
+	}
+
+}
@@ -0,0 +1,94 @@
+package de.teiesti.proxy;
+
+/**
+ * The management interface of an {@link InstrumentedMapper} (see
+ * {@link InstrumentedMapper#register(String)}).
+ */
+public interface InstrumentedMapperMBean {
+
+	/**
+	 * Returns how often {@link Mapper#getProxy(Object)} was called.
+	 *
+	 * @return the number of calls
+	 */
+	public long getProxyCalls();
+
+	/**
+	 * Returns how often {@link Mapper#getSubject(Object)} was called.
+	 *
+	 * @return the number of calls
+	 */
+	public long getSubjectCalls();
+
+	/**
+	 * Returns how often {@link Mapper#getProxies(java.util.Collection)} was called.
+	 *
+	 * @return the number of calls
+	 */
+	public long getBulkProxyCalls();
+
+	/**
+	 * Returns how often {@link Mapper#getSubjects(java.util.Collection)} was called.
+	 *
+	 * @return the number of calls
+	 */
+	public long getBulkSubjectCalls();
+
+	/**
+	 * Returns how many subjects were mapped to proxies by single and bulk calls.
+	 *
+	 * @return the number of mapped subjects
+	 */
+	public long getMappedSubjects();
+
+	/**
+	 * Returns how many proxies were mapped to subjects by single and bulk calls.
+	 *
+	 * @return the number of mapped proxies
+	 */
+	public long getMappedProxies();
+
+	/**
+	 * Returns how many calls were timed.
+	 *
+	 * @return the number of sampled calls
+	 */
+	public long getSampledCalls();
+
+	/**
+	 * Returns the mean latency of the sampled calls in nanoseconds.
+	 *
+	 * @return the mean latency or {@code 0} if no call was sampled
+	 */
+	public double getMeanLatencyNanos();
+
+	/**
+	 * Returns the latency histogram of the sampled calls. The {@code i}-th bucket counts the calls which took at least
+	 * {@code 2^i} and less than {@code 2^(i+1)} nanoseconds; the first bucket counts the calls which took less than two
+	 * nanoseconds, too.
+	 *
+	 * @return the latency histogram
+	 */
+	public long[] getLatencyHistogram();
+
+	/**
+	 * Returns the sample interval: On average, one out of this number of calls is timed.
+	 *
+	 * @return the sample interval
+	 */
+	public int getSampleInterval();
+
+	/**
+	 * Sets the sample interval: On average, one out of this number of calls is timed. An interval of {@code 1} times
+	 * every call.
+	 *
+	 * @param sampleInterval the sample interval
+	 */
+	public void setSampleInterval(int sampleInterval);
+
+	/**
+	 * Resets all counters and the latency histogram.
+	 */
+	public void reset();
+
+}
@@ -0,0 +1,269 @@
+package de.teiesti.proxy;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import javax.management.ObjectName;
+
+/**
+ * An {@code InstrumentedProxySet} is a {@link ProxySet} which records how it is used: It counts the calls of the
+ * single and bulk operations, the iterations and the proxies returned per iteration, and the objects passed to
+ * {@link #contains(Object)} or {@link #remove(Object)} which are not proxies. The statistics can be obtained directly
+ * or - after {@link #register(String)} - through JMX (see {@link InstrumentedProxySetMBean}). Use an
+ * {@link InstrumentedMapper} to record the cost of the mapping itself.<br /><br />
+ *
+ * Only the proxies returned by iterators are counted; proxies passed to actions of a spliterator (e.g. by a stream)
+ * are not. The counters are thread-safe and cheap, thus an {@code InstrumentedProxySet} is as thread-safe as the
+ * underlying set of subjects and the mapper.
+ *
+ * @param <Proxy> the type of the proxy
+ * @param <Subject> the type of the subject
+ */
+public class InstrumentedProxySet<Proxy, Subject> extends ProxySet<Proxy, Subject>
+		implements InstrumentedProxySetMBean {
+
+	private final LongAdder addCalls = new LongAdder();
+	private final LongAdder containsCalls = new LongAdder();
+	private final LongAdder removeCalls = new LongAdder();
+	private final LongAdder bulkCalls = new LongAdder();
+	private final LongAdder iterations = new LongAdder();
+	private final LongAdder iteratedProxies = new LongAdder();
+	private final LongAdder typeCheckFailures = new LongAdder();
+
+	/**
+	 * Creates a new {@code InstrumentedProxySet} which encapsulates a given set of subjects by the help of a
+	 * {@link Mapper}.
+	 *
+	 * @param subjects the set of subjects
+	 * @param mapper a mapper mapping subjects to proxies
+	 */
+	public InstrumentedProxySet(Set<Subject> subjects, Mapper<Proxy, Subject> mapper) {
+		super(subjects, mapper);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean add(Proxy e) {
+		addCalls.increment();
+		return super.add(e);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean addAll(Collection<? extends Proxy> c) {
+		bulkCalls.increment();
+		return super.addAll(c);
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: An object which is not a proxy is counted as a failed type check.
+	 */
+	@Override
+	public boolean contains(Object o) {
+		containsCalls.increment();
+		if (!isProxy(o)) {
+			typeCheckFailures.increment();
+			return false;
+		}
+		return super.contains(o);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean containsAll(Collection<?> c) {
+		bulkCalls.increment();
+		return super.containsAll(c);
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: An object which is not a proxy is counted as a failed type check.
+	 */
+	@Override
+	public boolean remove(Object o) {
+		removeCalls.increment();
+		if (!isProxy(o)) {
+			typeCheckFailures.increment();
+			return false;
+		}
+		return super.remove(o);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean removeAll(Collection<?> c) {
+		bulkCalls.increment();
+		return super.removeAll(c);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean retainAll(Collection<?> c) {
+		bulkCalls.increment();
+		return super.retainAll(c);
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: The returned iterator counts the proxies it returns.
+	 */
+	@Override
+	public Iterator<Proxy> iterator() {
+		iterations.increment();
+		Iterator<Proxy> proxies = super.iterator();
+
+		return new Iterator<Proxy>() {
+
+			@Override
+			public boolean hasNext() {
+				return proxies.hasNext();
+			}
+
+			@Override
+			public Proxy next() {
+				Proxy result = proxies.next();
+				iteratedProxies.increment();
+				return result;
+			}
+
+			@Override
+			public void forEachRemaining(Consumer<? super Proxy> action) {
+				if (action == null)
+					throw new NullPointerException("action == null");
+
+				long[] count = new long[1];
+				try {
+					proxies.forEachRemaining(p -> {
+						count[0]++;
+						action.accept(p);
+					});
+				} finally {
+					iteratedProxies.add(count[0]);
+				}
+			}
+
+			@Override
+			public void remove() {
+				proxies.remove();
+			}
+
+		};
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Spliterator<Proxy> spliterator() {
+		iterations.increment();
+		return super.spliterator();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long getAddCalls() {
+		return addCalls.sum();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long getContainsCalls() {
+		return containsCalls.sum();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long getRemoveCalls() {
+		return removeCalls.sum();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long getBulkCalls() {
+		return bulkCalls.sum();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long getIterations() {
+		return iterations.sum();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long getIteratedProxies() {
+		return iteratedProxies.sum();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public double getMeanProxiesPerIteration() {
+		long count = iterations.sum();
+		return count == 0 ? 0 : iteratedProxies.sum() / (double) count;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long getTypeCheckFailures() {
+		return typeCheckFailures.sum();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void reset() {
+		addCalls.reset();
+		containsCalls.reset();
+		removeCalls.reset();
+		bulkCalls.reset();
+		iterations.reset();
+		iteratedProxies.reset();
+		typeCheckFailures.reset();
+	}
+
+	/**
+	 * Registers this set at the platform MBean server with the object name
+	 * {@code de.teiesti.proxy:type=InstrumentedProxySet,name=<name>}. Use
+	 * {@link InstrumentedMapper#unregister(ObjectName)} to unregister it.
+	 *
+	 * @param name the name of this set
+	 * @return the object name this set was registered with
+	 * @throws IllegalStateException if the registration failed, e.g. because the name is already in use
+	 */
+	public ObjectName register(String name) {
+		return InstrumentedMapper.register(this, "InstrumentedProxySet", name);
+	}
+
+}
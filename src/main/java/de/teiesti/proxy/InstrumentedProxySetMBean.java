@@ -0,0 +1,73 @@
+package de.teiesti.proxy;
+
+/**
+ * The management interface of an {@link InstrumentedProxySet} (see {@link InstrumentedProxySet#register(String)}).
+ */
+public interface InstrumentedProxySetMBean {
+
+	/**
+	 * Returns how often {@link ProxySet#add(Object)} was called.
+	 *
+	 * @return the number of calls
+	 */
+	public long getAddCalls();
+
+	/**
+	 * Returns how often {@link ProxySet#contains(Object)} was called.
+	 *
+	 * @return the number of calls
+	 */
+	public long getContainsCalls();
+
+	/**
+	 * Returns how often {@link ProxySet#remove(Object)} was called.
+	 *
+	 * @return the number of calls
+	 */
+	public long getRemoveCalls();
+
+	/**
+	 * Returns how often one of the bulk operations {@link ProxySet#addAll(java.util.Collection)},
+	 * {@link ProxySet#containsAll(java.util.Collection)}, {@link ProxySet#removeAll(java.util.Collection)} and
+	 * {@link ProxySet#retainAll(java.util.Collection)} was called.
+	 *
+	 * @return the number of calls
+	 */
+	public long getBulkCalls();
+
+	/**
+	 * Returns how often the set was iterated, i.e. how many iterators and spliterators were created.
+	 *
+	 * @return the number of iterations
+	 */
+	public long getIterations();
+
+	/**
+	 * Returns how many proxies were returned by all iterators.
+	 *
+	 * @return the number of iterated proxies
+	 */
+	public long getIteratedProxies();
+
+	/**
+	 * Returns the mean number of proxies returned per iterator.
+	 *
+	 * @return the mean number of proxies per iteration or {@code 0} if the set was not iterated
+	 */
+	public double getMeanProxiesPerIteration();
+
+	/**
+	 * Returns how often an object which is not a proxy (see {@link ProxySet#isProxy(Object)}) was passed to
+	 * {@link ProxySet#contains(Object)} or {@link ProxySet#remove(Object)}. The elements of collections passed to bulk
+	 * operations are not counted.
+	 *
+	 * @return the number of failed type checks
+	 */
+	public long getTypeCheckFailures();
+
+	/**
+	 * Resets all counters.
+	 */
+	public void reset();
+
+}
@@ -1,19 +1,54 @@
 package de.teiesti.proxy;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
 /**
  * A {@code Mapper} converts a generic proxy object into its subject and vice-versa. In this way, mappers provide an
  * abstract view to the relationship between proxies and subjects which is needed for high-level algorithms and data
- * structures on proxies.
+ * structures on proxies.<br /><br />
+ *
+ * Thread-safety: A mapper which is shared among threads - e.g. by a {@link ConcurrentProxySet} - must be thread-safe,
+ * i.e. all of its methods may be called concurrently. Ideally, a mapper is stateless or immutable so that it does not
+ * need any synchronization at all.
  *
  * @param <Proxy> the type of the proxy
  * @param <Subject> the type of the subject
  */
 public interface Mapper<Proxy, Subject> {
 
+	/**
+	 * Characteristic value signifying that the mapper is the identity: {@link #getProxy(Object)} and
+	 * {@link #getSubject(Object)} return their argument. This characteristic implies all other characteristics.
+	 */
+	public static final int IDENTITY = 0x00000001;
+
+	/**
+	 * Characteristic value signifying that the mapper maps different subjects to different proxies: Two proxies are
+	 * equal (see {@link Object#equals(Object)}) if and only if their subjects are equal.
+	 */
+	public static final int INJECTIVE = 0x00000002;
+
+	/**
+	 * Characteristic value signifying that a proxy has the same hash code as its subject (see
+	 * {@link Object#hashCode()}).
+	 */
+	public static final int HASH_PRESERVING = 0x00000004;
+
+	/**
+	 * Characteristic value signifying that proxies are ordered like their subjects: Comparing two proxies by their
+	 * natural ordering (or by the comparator of a {@link ProxySortedSet}) yields the same result as comparing their
+	 * subjects.
+	 */
+	public static final int ORDER_PRESERVING = 0x00000008;
+
 	/**
 	 * Returns a proxy object associated to the given subject. Among multiple method calls with the same subject the
-	 * returned proxy must not be the same. However, different proxies for the same subject must be equal (see
-	 * {@link Object#equals(Object)}).
+	 * returned proxy need not be the same. However, different proxies for the same subject must be equal (see
+	 * {@link Object#equals(Object)}). A mapper that returns the same proxy for the same subject can be obtained with
+	 * a {@link CachingMapper}.
 	 *
 	 * @param subject the subject to convert into its proxy
 	 * @return a proxy object associated to the given subject
@@ -30,6 +65,75 @@ public interface Mapper<Proxy, Subject> {
 	 */
 	public Subject getSubject(Proxy proxy);
 
+	/**
+	 * Returns the proxies associated to the given subjects. The returned list contains one proxy per subject in the
+	 * iteration order of the given collection, i.e. it is equal to a list which is generated in the following manner:
+	 * <br /><br />
+	 *
+	 * <pre>{@code
+	 * List<Proxy> proxies = new ArrayList<>();
+	 * for (Subject s : subjects)
+	 *    proxies.add(getProxy(s));
+	 * }</pre>
+	 *
+	 * This is exactly what the default implementation does. Mappers which have a high fixed cost per call (e.g.
+	 * because they query a backend) should override this method and convert all subjects at once. Bulk operations of
+	 * {@link ProxySet} and {@link ProxyIterator} use this method whenever they convert more than a single subject.
+	 *
+	 * @param subjects the subjects to convert into their proxies
+	 * @return the proxies associated to the given subjects
+	 */
+	public default List<Proxy> getProxies(Collection<? extends Subject> subjects) {
+		List<Proxy> result = new ArrayList<>(subjects.size());
+		for (Subject s : subjects)
+			result.add(getProxy(s));
+		return result;
+	}
+
+	/**
+	 * Returns the subjects the given proxies are associated to. The returned list contains one subject per proxy in
+	 * the iteration order of the given collection. The default implementation calls {@link #getSubject(Object)} for
+	 * each proxy. Like {@link #getProxies(Collection)} this method should be overridden by mappers which have a high
+	 * fixed cost per call.
+	 *
+	 * @param proxies the proxies to convert into their subjects
+	 * @return the subjects the given proxies are associated to
+	 */
+	public default List<Subject> getSubjects(Collection<? extends Proxy> proxies) {
+		List<Subject> result = new ArrayList<>(proxies.size());
+		for (Proxy p : proxies)
+			result.add(getSubject(p));
+		return result;
+	}
+
+	/**
+	 * Returns a set of characteristics of this mapper, i.e. an OR-ed combination of {@link #IDENTITY},
+	 * {@link #INJECTIVE}, {@link #HASH_PRESERVING} and {@link #ORDER_PRESERVING}. Algorithms and data structures use
+	 * these characteristics to skip mapping where it is safe: e.g. a {@link ProxySet} delegates
+	 * {@link ProxySet#hashCode()} to the underlying set of subjects if the mapper is {@link #HASH_PRESERVING}. The
+	 * characteristics of a mapper must not change.<br /><br />
+	 *
+	 * The default implementation returns {@code 0}, i.e. no characteristics.
+	 *
+	 * @return the characteristics of this mapper
+	 */
+	public default int characteristics() {
+		return 0;
+	}
+
+	/**
+	 * Returns if this mapper has all of the given characteristics (see {@link #characteristics()}).
+	 *
+	 * @param characteristics the characteristics to check for
+	 * @return {@code true} if all of the given characteristics are present
+	 */
+	public default boolean hasCharacteristics(int characteristics) {
+		int present = characteristics();
+		if ((present & IDENTITY) != 0)
+			present |= INJECTIVE | HASH_PRESERVING | ORDER_PRESERVING;
+		return (present & characteristics) == characteristics;
+	}
+
 	/**
 	 * Returns the class of the proxies this mapper works with. This method is needed by some algorithms because one
 	 * cannot obtain the class of a generic type.
@@ -46,4 +150,53 @@ public interface Mapper<Proxy, Subject> {
 	 */
 	public Class<?> getSubjectClass();
 
+	/**
+	 * Returns a mapper which converts subjects and proxies with the given functions, e.g.
+	 * {@code Mapper.of(String.class, Integer.class, Object::toString, Integer::valueOf)}. The returned mapper is
+	 * thread-safe if the functions are thread-safe.
+	 *
+	 * @param proxyClass the class of the proxies
+	 * @param subjectClass the class of the subjects
+	 * @param toProxy the function which converts a subject into its proxy
+	 * @param toSubject the function which converts a proxy into its subject
+	 * @param <Proxy> the type of the proxy
+	 * @param <Subject> the type of the subject
+	 * @return a mapper which uses the given functions
+	 */
+	public static <Proxy, Subject> Mapper<Proxy, Subject> of(Class<Proxy> proxyClass, Class<Subject> subjectClass,
+			Function<? super Subject, ? extends Proxy> toProxy, Function<? super Proxy, ? extends Subject> toSubject) {
+		return of(proxyClass, subjectClass, toProxy, toSubject, 0);
+	}
+
+	/**
+	 * Returns a mapper which converts subjects and proxies with the given functions and has the given
+	 * characteristics (see {@link #of(Class, Class, Function, Function)} and {@link #characteristics()}).
+	 *
+	 * @param proxyClass the class of the proxies
+	 * @param subjectClass the class of the subjects
+	 * @param toProxy the function which converts a subject into its proxy
+	 * @param toSubject the function which converts a proxy into its subject
+	 * @param characteristics the characteristics of the mapper
+	 * @param <Proxy> the type of the proxy
+	 * @param <Subject> the type of the subject
+	 * @return a mapper which uses the given functions
+	 */
+	public static <Proxy, Subject> Mapper<Proxy, Subject> of(Class<Proxy> proxyClass, Class<Subject> subjectClass,
+			Function<? super Subject, ? extends Proxy> toProxy, Function<? super Proxy, ? extends Subject> toSubject,
+			int characteristics) {
+		return new FunctionMapper<>(proxyClass, subjectClass, toProxy, toSubject, characteristics);
+	}
+
+	/**
+	 * Returns the {@link #IDENTITY} mapper for the given class: Proxies and subjects are the same objects. All
+	 * identity mappers for the same class are equal.
+	 *
+	 * @param type the class of the proxies and subjects
+	 * @param <T> the type of the proxies and subjects
+	 * @return the identity mapper
+	 */
+	public static <T> Mapper<T, T> identity(Class<T> type) {
+		return new FunctionMapper<>(type, type, Function.identity(), Function.identity(), IDENTITY);
+	}
+
 }
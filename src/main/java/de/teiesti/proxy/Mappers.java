@@ -0,0 +1,127 @@
+package de.teiesti.proxy;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * This class consists of static methods which operate on or return {@link Mapper}s.
+ */
+public final class Mappers {
+
+	private Mappers() {
+		// no instances
+	}
+
+	/**
+	 * Returns a mapper which maps a subject with the inner mapper first and the result with the outer mapper, i.e. the
+	 * composition of both mappers. A proxy is mapped back in reverse order. The composed mapper has the
+	 * characteristics both mappers have; if one of them is the {@link Mapper#IDENTITY}, the other one is returned.
+	 * Two composed mappers are equal if their outer and inner mappers are equal, thus proxy sets which use equal
+	 * compositions share their mapper (see {@link ProxySet}).
+	 *
+	 * @param outer the mapper which maps the proxies of the inner mapper to the final proxies
+	 * @param inner the mapper which maps the subjects to intermediate proxies
+	 * @param <Proxy> the type of the proxy
+	 * @param <Intermediate> the type of the proxies of the inner mapper, which are the subjects of the outer mapper
+	 * @param <Subject> the type of the subject
+	 * @return the composition of both mappers
+	 */
+	public static <Proxy, Intermediate, Subject> Mapper<Proxy, Subject> compose(Mapper<Proxy, Intermediate> outer,
+			Mapper<Intermediate, Subject> inner) {
+		if (outer == null)
+			throw new IllegalArgumentException("outer == null");
+		if (inner == null)
+			throw new IllegalArgumentException("inner == null");
+
+		if (outer.hasCharacteristics(Mapper.IDENTITY)) {
+			@SuppressWarnings("unchecked")
+			Mapper<Proxy, Subject> result = (Mapper<Proxy, Subject>) (Mapper<?, ?>) inner;    // Proxy == Intermediate
+			return result;
+		}
+		if (inner.hasCharacteristics(Mapper.IDENTITY)) {
+			@SuppressWarnings("unchecked")
+			Mapper<Proxy, Subject> result = (Mapper<Proxy, Subject>) (Mapper<?, ?>) outer;    // Intermediate == Subject
+			return result;
+		}
+		return new ComposedMapper<>(outer, inner);
+	}
+
+	/**
+	 * The composition of two mappers (see {@link Mappers#compose(Mapper, Mapper)}).
+	 *
+	 * @param <Proxy> the type of the proxy
+	 * @param <Intermediate> the type of the intermediate proxy
+	 * @param <Subject> the type of the subject
+	 */
+	private static final class ComposedMapper<Proxy, Intermediate, Subject> implements Mapper<Proxy, Subject> {
+
+		private final Mapper<Proxy, Intermediate> outer;
+		private final Mapper<Intermediate, Subject> inner;
+		private final int characteristics;
+
+		private ComposedMapper(Mapper<Proxy, Intermediate> outer, Mapper<Intermediate, Subject> inner) {
+			this.outer = outer;
+			this.inner = inner;
+
+			int all = Mapper.INJECTIVE | Mapper.HASH_PRESERVING | Mapper.ORDER_PRESERVING;
+			int result = 0;
+			for (int c = 1; c <= all; c <<= 1)
+				if ((all & c) != 0 && outer.hasCharacteristics(c) && inner.hasCharacteristics(c))
+					result |= c;
+			this.characteristics = result;
+		}
+
+		@Override
+		public Proxy getProxy(Subject subject) {
+			return outer.getProxy(inner.getProxy(subject));
+		}
+
+		@Override
+		public Subject getSubject(Proxy proxy) {
+			return inner.getSubject(outer.getSubject(proxy));
+		}
+
+		@Override
+		public List<Proxy> getProxies(Collection<? extends Subject> subjects) {
+			return outer.getProxies(inner.getProxies(subjects));
+		}
+
+		@Override
+		public List<Subject> getSubjects(Collection<? extends Proxy> proxies) {
+			return inner.getSubjects(outer.getSubjects(proxies));
+		}
+
+		@Override
+		public int characteristics() {
+			return characteristics;
+		}
+
+		@Override
+		public Class<?> getProxyClass() {
+			return outer.getProxyClass();
+		}
+
+		@Override
+		public Class<?> getSubjectClass() {
+			return inner.getSubjectClass();
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * outer.hashCode() + inner.hashCode();
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			if (obj instanceof ComposedMapper<?, ?, ?>) {
+				ComposedMapper<?, ?, ?> other = (ComposedMapper<?, ?, ?>) obj;
+				return outer.equals(other.outer) && inner.equals(other.inner);
+			}
+			return false;
+		}
+
+	}
+
+}
@@ -0,0 +1,431 @@
+package de.teiesti.proxy;
+
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.function.Predicate;
+
+/**
+ * An {@code ObservableProxySet} is a {@link ProxySet} which tells its listeners about the changes which are made
+ * through it. A listener receives the changes in batches (see {@link Listener}), thus it can maintain derived data -
+ * e.g. an index or an aggregate - in O(changes) instead of rescanning the whole set.<br /><br />
+ *
+ * Every change carries the subject which was added or removed and maps it to its proxy only if asked for (see
+ * {@link Change#getProxy()}). Each call to a mutating method - including bulk operations - is delivered as a single
+ * batch; use {@link #batch(Runnable)} to combine several calls. Changes within a batch are coalesced: A subject which
+ * is added and removed again (or vice versa) is not reported at all, and clearing the set discards all changes
+ * before and is reported as a single {@link Type#CLEARED} change.<br /><br />
+ *
+ * Removals through the iterator (see {@link Iterator#remove()}) are reported, too, each in its own batch unless the
+ * iteration is done within {@link #batch(Runnable)}. Be careful: Changes which are made directly to the underlying set
+ * of subjects are not detected. This class is not thread-safe.
+ *
+ * @param <Proxy> the type of the proxy
+ * @param <Subject> the type of the subject
+ */
+public class ObservableProxySet<Proxy, Subject> extends ProxySet<Proxy, Subject> {
+
+	/**
+	 * The type of a {@link Change}.
+	 */
+	public enum Type {
+
+		/**
+		 * A subject was added.
+		 */
+		ADDED,
+
+		/**
+		 * A subject was removed.
+		 */
+		REMOVED,
+
+		/**
+		 * All subjects were removed. A change of this type has no subject.
+		 */
+		CLEARED
+
+	}
+
+	/**
+	 * A {@code Change} describes that a single subject was added or removed or that the set was cleared.
+	 *
+	 * @param <Proxy> the type of the proxy
+	 * @param <Subject> the type of the subject
+	 */
+	public static final class Change<Proxy, Subject> {
+
+		private final Type type;
+		private final Subject subject;
+		private final Mapper<Proxy, Subject> mapper;
+
+		private Proxy proxy;
+		private boolean mapped;
+
+		private Change(Type type, Subject subject, Mapper<Proxy, Subject> mapper) {
+			this.type = type;
+			this.subject = subject;
+			this.mapper = mapper;
+		}
+
+		/**
+		 * Returns the type of this change.
+		 *
+		 * @return the type
+		 */
+		public Type getType() {
+			return type;
+		}
+
+		/**
+		 * Returns the subject which was added or removed.
+		 *
+		 * @return the subject or {@code null} if the type is {@link Type#CLEARED}
+		 */
+		public Subject getSubject() {
+			return subject;
+		}
+
+		/**
+		 * Returns the proxy of the subject which was added or removed. The subject is mapped by the first call to this
+		 * method.
+		 *
+		 * @return the proxy or {@code null} if the type is {@link Type#CLEARED}
+		 */
+		public Proxy getProxy() {
+			if (type == Type.CLEARED)
+				return null;
+
+			if (!mapped) {
+				proxy = mapper.getProxy(subject);
+				mapped = true;
+			}
+			return proxy;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public String toString() {
+			return type == Type.CLEARED ? type.toString() : type + "(" + subject + ")";
+		}
+
+	}
+
+	/**
+	 * A {@code Listener} is told about the changes of an {@link ObservableProxySet}.
+	 *
+	 * @param <Proxy> the type of the proxy
+	 * @param <Subject> the type of the subject
+	 */
+	public interface Listener<Proxy, Subject> {
+
+		/**
+		 * Is called after a batch of changes was made. The changes are given in the order they were made. The list is
+		 * never empty and must not be modified.
+		 *
+		 * @param changes the changes
+		 */
+		public void changed(List<Change<Proxy, Subject>> changes);
+
+	}
+
+	private final Recorder<Proxy, Subject> recorder;
+
+	/**
+	 * Creates a new {@code ObservableProxySet} which encapsulates a given set of subjects by the help of a
+	 * {@link Mapper}.
+	 *
+	 * @param subjects the set of subjects
+	 * @param mapper a mapper mapping subjects to proxies
+	 */
+	public ObservableProxySet(Set<Subject> subjects, Mapper<Proxy, Subject> mapper) {
+		this(new Recorder<Proxy, Subject>(subjects, mapper), mapper);
+	}
+
+	private ObservableProxySet(Recorder<Proxy, Subject> recorder, Mapper<Proxy, Subject> mapper) {
+		super(recorder, mapper);
+		this.recorder = recorder;
+	}
+
+	/**
+	 * Adds a listener which is told about all further changes.
+	 *
+	 * @param listener the listener
+	 */
+	public void addListener(Listener<Proxy, Subject> listener) {
+		if (listener == null)
+			throw new IllegalArgumentException("listener == null");
+
+		recorder.listeners.add(listener);
+	}
+
+	/**
+	 * Removes a listener.
+	 *
+	 * @param listener the listener
+	 * @return if the listener was registered
+	 */
+	public boolean removeListener(Listener<Proxy, Subject> listener) {
+		return recorder.listeners.remove(listener);
+	}
+
+	/**
+	 * Runs the given action and delivers all changes it makes through this set as a single batch. Batches can be
+	 * nested; the changes are delivered when the outermost batch ends, even if the action throws an exception.
+	 *
+	 * @param action the action which modifies this set
+	 */
+	public void batch(Runnable action) {
+		if (action == null)
+			throw new IllegalArgumentException("action == null");
+
+		recorder.depth++;
+		try {
+			action.run();
+		} finally {
+			recorder.end();
+		}
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: This method reports the change to the listeners.
+	 */
+	@Override
+	public boolean add(Proxy e) {
+		recorder.depth++;
+		try {
+			return super.add(e);
+		} finally {
+			recorder.end();
+		}
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: This method reports all changes to the listeners in a single batch.
+	 */
+	@Override
+	public boolean addAll(Collection<? extends Proxy> c) {
+		recorder.depth++;
+		try {
+			return super.addAll(c);
+		} finally {
+			recorder.end();
+		}
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: This method reports a {@link Type#CLEARED} change to the listeners.
+	 */
+	@Override
+	public void clear() {
+		recorder.depth++;
+		try {
+			super.clear();
+		} finally {
+			recorder.end();
+		}
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: This method reports the change to the listeners.
+	 */
+	@Override
+	public boolean remove(Object o) {
+		recorder.depth++;
+		try {
+			return super.remove(o);
+		} finally {
+			recorder.end();
+		}
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: This method reports all changes to the listeners in a single batch.
+	 */
+	@Override
+	public boolean removeAll(Collection<?> c) {
+		recorder.depth++;
+		try {
+			return super.removeAll(c);
+		} finally {
+			recorder.end();
+		}
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: This method reports all changes to the listeners in a single batch.
+	 */
+	@Override
+	public boolean removeIf(Predicate<? super Proxy> filter) {
+		recorder.depth++;
+		try {
+			return super.removeIf(filter);
+		} finally {
+			recorder.end();
+		}
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: This method reports all changes to the listeners in a single batch.
+	 */
+	@Override
+	public boolean retainAll(Collection<?> c) {
+		recorder.depth++;
+		try {
+			return super.retainAll(c);
+		} finally {
+			recorder.end();
+		}
+	}
+
+	/**
+	 * A {@code Recorder} decorates the set of subjects and records every change made to it. Because all modifications
+	 * of a {@link ProxySet} - including those through its iterator - end up in its set of subjects, the recorder sees
+	 * every change made through the proxy set.
+	 *
+	 * @param <Proxy> the type of the proxy
+	 * @param <Subject> the type of the subject
+	 */
+	private static final class Recorder<Proxy, Subject> extends AbstractSet<Subject> {
+
+		private final Set<Subject> subjects;
+		private final Mapper<Proxy, Subject> mapper;
+		private final List<Listener<Proxy, Subject>> listeners = new ArrayList<>();
+
+		private final Map<Subject, Type> pending = new LinkedHashMap<>();
+		private boolean cleared;
+		private int depth;
+
+		private Recorder(Set<Subject> subjects, Mapper<Proxy, Subject> mapper) {
+			if (subjects == null)
+				throw new IllegalArgumentException("subjects == null");
+
+			this.subjects = subjects;
+			this.mapper = mapper;
+		}
+
+		@Override
+		public boolean add(Subject s) {
+			boolean result = subjects.add(s);
+			if (result)
+				record(s, Type.ADDED);
+			return result;
+		}
+
+		@Override
+		public boolean remove(Object o) {
+			boolean result = subjects.remove(o);
+			if (result) {
+				@SuppressWarnings("unchecked")
+				Subject s = (Subject) o;                                 // safe because o was contained
+				record(s, Type.REMOVED);
+			}
+			return result;
+		}
+
+		@Override
+		public void clear() {
+			subjects.clear();
+			pending.clear();
+			cleared = true;
+			if (depth == 0)
+				deliver();
+		}
+
+		@Override
+		public boolean contains(Object o) {
+			return subjects.contains(o);
+		}
+
+		@Override
+		public int size() {
+			return subjects.size();
+		}
+
+		@Override
+		public boolean isEmpty() {
+			return subjects.isEmpty();
+		}
+
+		@Override
+		public Iterator<Subject> iterator() {
+			Iterator<Subject> it = subjects.iterator();
+
+			return new Iterator<Subject>() {
+
+				private Subject current;
+
+				@Override
+				public boolean hasNext() {
+					return it.hasNext();
+				}
+
+				@Override
+				public Subject next() {
+					current = it.next();
+					return current;
+				}
+
+				@Override
+				public void remove() {
+					it.remove();
+					record(current, Type.REMOVED);
+				}
+
+			};
+		}
+
+		@Override
+		public Spliterator<Subject> spliterator() {
+			return subjects.spliterator();                          // read-only traversal
+		}
+
+		private void record(Subject s, Type type) {
+			Type previous = pending.remove(s);
+			if (previous == null)
+				pending.put(s, type);                               // otherwise the changes cancel each other out
+			if (depth == 0)
+				deliver();
+		}
+
+		private void end() {
+			if (--depth == 0)
+				deliver();
+		}
+
+		private void deliver() {
+			if (!cleared && pending.isEmpty())
+				return;
+
+			List<Change<Proxy, Subject>> changes = new ArrayList<>(pending.size() + 1);
+			if (cleared)
+				changes.add(new Change<Proxy, Subject>(Type.CLEARED, null, mapper));
+			for (Map.Entry<Subject, Type> e : pending.entrySet())
+				changes.add(new Change<Proxy, Subject>(e.getValue(), e.getKey(), mapper));
+			pending.clear();
+			cleared = false;
+
+			List<Change<Proxy, Subject>> batch = Collections.unmodifiableList(changes);
+			for (Listener<Proxy, Subject> l : new ArrayList<>(listeners))
+				l.changed(batch);
+		}
+
+	}
+
+}
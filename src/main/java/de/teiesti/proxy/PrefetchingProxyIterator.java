@@ -0,0 +1,171 @@
+package de.teiesti.proxy;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * A {@code PrefetchingProxyIterator} is a variant of the {@link ProxyIterator} which maps ahead: It takes up to a
+ * given number of subjects (the look-ahead) from the underlying iterator in advance and maps them to their proxies on
+ * an {@link Executor}. Therefore the consumer of the proxies overlaps its own work with the mapping, and a slow
+ * {@link Mapper#getProxy(Object)} (e.g. one which does I/O) is called concurrently for up to look-ahead subjects. The
+ * proxies are returned in the order of the subjects.<br /><br />
+ *
+ * Because the underlying iterator is usually beyond the current subject, {@link #remove()} cannot always be
+ * forwarded to it. In this case the subject is removed from the underlying collection when the iteration is complete,
+ * i.e. when {@link #hasNext()} returns {@code false} for the first time, or when the iterator is closed. Therefore
+ * close an iterator which is abandoned early, e.g. with a try-with-resources statement. Removals can be deferred only
+ * if the underlying collection is a {@link Set}: In other collections, an equal subject may occur more than
+ * once, and removing it by equality could remove another occurrence.<br /><br />
+ *
+ * The subjects are taken from the underlying iterator on the thread which uses this iterator; only the mapper is
+ * called on the executor and therefore must be thread-safe. This class itself is not thread-safe.
+ *
+ * @param <Proxy> the type of the proxy
+ * @param <Subject> the type of the subject
+ */
+public class PrefetchingProxyIterator<Proxy, Subject> implements Iterator<Proxy>, AutoCloseable {
+
+	private final Collection<Subject> source;
+	private final Iterator<Subject> subjects;
+	private final Mapper<Proxy, Subject> mapper;
+	private final Executor executor;
+	private final int lookahead;
+
+	private final Deque<Subject> pendingSubjects = new ArrayDeque<>();
+	private final Deque<CompletableFuture<Proxy>> pendingProxies = new ArrayDeque<>();
+	private final List<Subject> removed = new ArrayList<>();
+
+	private Subject current;
+	private boolean currentIsLast;                  // the underlying iterator returned the current subject last
+	private boolean removable;
+
+	/**
+	 * Creates a {@code PrefetchingProxyIterator} over the subjects of the given collection.
+	 *
+	 * @param source the collection of subjects
+	 * @param mapper a thread-safe mapper which maps the subjects to the proxies
+	 * @param executor the executor which maps the subjects
+	 * @param lookahead the maximum number of subjects which are mapped in advance
+	 */
+	public PrefetchingProxyIterator(Collection<Subject> source, Mapper<Proxy, Subject> mapper, Executor executor,
+			int lookahead) {
+		if (source == null)
+			throw new IllegalArgumentException("source == null");
+		if (mapper == null)
+			throw new IllegalArgumentException("mapper == null");
+		if (executor == null)
+			throw new IllegalArgumentException("executor == null");
+		if (lookahead <= 0)
+			throw new IllegalArgumentException("lookahead <= 0");
+
+		this.source = source;
+		this.subjects = source.iterator();
+		this.mapper = mapper;
+		this.executor = executor;
+		this.lookahead = lookahead;
+	}
+
+	/**
+	 * Returns if this iterator has a next proxy. If it has not, deferred removals are applied to the underlying
+	 * collection (see {@link #remove()}).
+	 *
+	 * @return if this iterator has a next proxy
+	 */
+	@Override
+	public boolean hasNext() {
+		if (!pendingSubjects.isEmpty() || subjects.hasNext())
+			return true;
+
+		flush();
+		return false;
+	}
+
+	/**
+	 * Returns the next proxy in this iterator. The look-ahead is refilled before the method waits for the mapping of
+	 * the next subject to complete. If the mapper failed, the exception is rethrown.
+	 *
+	 * @return the next proxy
+	 */
+	@Override
+	public Proxy next() {
+		prefetch();
+		if (pendingSubjects.isEmpty())
+			throw new NoSuchElementException();
+
+		current = pendingSubjects.poll();
+		CompletableFuture<Proxy> proxy = pendingProxies.poll();
+		prefetch();                                             // keep the executor busy while the consumer works
+		currentIsLast = pendingSubjects.isEmpty();
+		removable = true;
+
+		try {
+			return proxy.join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException)
+				throw (RuntimeException) e.getCause();
+			if (e.getCause() instanceof Error)
+				throw (Error) e.getCause();
+			throw e;
+		}
+	}
+
+	/**
+	 * Removes the subject of the last returned proxy from the underlying collection. If the underlying iterator did
+	 * not advance beyond this subject, the removal is forwarded to it. Otherwise the removal is deferred until the
+	 * iteration is complete or this iterator is closed; if neither happens, the removal is lost.
+	 *
+	 * @throws IllegalStateException if {@link #next()} was not called before, if the subject was removed already or
+	 *         if the removal would be deferred but the underlying collection is not a {@link Set}
+	 */
+	@Override
+	public void remove() {
+		if (!removable)
+			throw new IllegalStateException();
+
+		if (currentIsLast)
+			subjects.remove();
+		else if (source instanceof Set)
+			removed.add(current);
+		else
+			throw new IllegalStateException("cannot defer the removal from a collection which is not a set");
+		removable = false;
+	}
+
+	/**
+	 * Applies the deferred removals to the underlying collection (see {@link #remove()}). Mappings which are still in
+	 * progress are not cancelled, but their results are discarded.
+	 */
+	@Override
+	public void close() {
+		pendingSubjects.clear();
+		pendingProxies.clear();
+		removable = false;
+		flush();
+	}
+
+	private void prefetch() {
+		while (pendingSubjects.size() < lookahead && subjects.hasNext()) {
+			Subject s = subjects.next();
+			pendingSubjects.add(s);
+			pendingProxies.add(CompletableFuture.supplyAsync(() -> mapper.getProxy(s), executor));
+		}
+	}
+
+	private void flush() {
+		if (!removed.isEmpty()) {
+			for (Subject s : removed)
+				source.remove(s);
+			removed.clear();
+		}
+	}
+
+}
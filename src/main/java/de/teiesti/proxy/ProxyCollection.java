@@ -0,0 +1,220 @@
+package de.teiesti.proxy;
+
+import java.lang.reflect.Array;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Spliterator;
+
+/**
+ * A {@code ProxyCollection} provides a "proxy view" to a whole collection of subjects. It is the counterpart of the
+ * {@link ProxySet} for collections which are neither sets nor lists, e.g. the values of a map (see
+ * {@link ProxyMap#values()}). A proxy is only mapped to a subject if needed.<br /><br />
+ *
+ * Be careful: The {@code ProxyCollection} is transparent to changes which means that changing this collection changes
+ * the underlying collection of subjects and vice versa.
+ *
+ * @param <Proxy> the type of the proxy
+ * @param <Subject> the type of the subject
+ */
+public class ProxyCollection<Proxy, Subject> implements Collection<Proxy> {
+
+	private Collection<Subject> subjects;
+	private Mapper<Proxy, Subject> mapper;
+
+	/**
+	 * Creates a new {@code ProxyCollection} which encapsulates a given collection of subjects by the help of a
+	 * {@link Mapper}.
+	 *
+	 * @param subjects the collection of subjects
+	 * @param mapper a mapper mapping subjects to proxies
+	 */
+	public ProxyCollection(Collection<Subject> subjects, Mapper<Proxy, Subject> mapper) {
+		if (subjects == null)
+			throw new IllegalArgumentException("subjects == null");
+		if (mapper == null)
+			throw new IllegalArgumentException("mapper == null");
+
+		this.subjects = subjects;
+		this.mapper = mapper;
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: This method modifies the underlying collection of subjects.
+	 */
+	@Override
+	public boolean add(Proxy e) {
+		return subjects.add(mapper.getSubject(e));
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: This method modifies the underlying collection of subjects.
+	 */
+	@Override
+	public boolean addAll(Collection<? extends Proxy> c) {
+		boolean result = false;
+		for (Proxy p : c) {
+			result |= add(p);
+		}
+		return result;
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: This method modifies the underlying collection of subjects.
+	 */
+	@Override
+	public void clear() {
+		subjects.clear();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean contains(Object o) {
+		if (o == null || mapper.getProxyClass().isInstance(o)) {
+			// black magic: see ProxySet#contains(Object)
+			@SuppressWarnings("unchecked")
+			Proxy p = (Proxy) o;
+
+			return subjects.contains(mapper.getSubject(p));
+		} else return false;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean containsAll(Collection<?> c) {
+		for (Object o : c)
+			if (!contains(o)) return false;
+		return true;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean isEmpty() {
+		return subjects.isEmpty();
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: Invoking the {@link Iterator#remove()}-method affects the underlying collection of subjects, too.
+	 */
+	@Override
+	public Iterator<Proxy> iterator() {
+		return new ProxyIterator<Proxy, Subject>(subjects.iterator(), mapper);
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: The returned spliterator splits like the spliterator of the underlying collection of subjects (see
+	 * {@link ProxySpliterator}).
+	 */
+	@Override
+	public Spliterator<Proxy> spliterator() {
+		return new ProxySpliterator<Proxy, Subject>(subjects.spliterator(), mapper);
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: This method modifies the underlying collection of subjects.
+	 */
+	@Override
+	public boolean remove(Object o) {
+		if (o == null || mapper.getProxyClass().isInstance(o)) {
+			// black magic: see ProxySet#contains(Object)
+			@SuppressWarnings("unchecked")
+			Proxy p = (Proxy) o;
+
+			return subjects.remove(mapper.getSubject(p));
+		} else return false;
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: This method modifies the underlying collection of subjects. The proxies within the given collection are
+	 * mapped with a single call to {@link Mapper#getSubjects(Collection)}, and the subjects are removed from the
+	 * underlying collection of subjects.
+	 */
+	@Override
+	public boolean removeAll(Collection<?> c) {
+		return subjects.removeAll(ProxySet.subjectsIn(c, mapper));
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: This method modifies the underlying collection of subjects.
+	 */
+	@Override
+	public boolean retainAll(Collection<?> c) {
+		return subjects.removeIf(s -> !c.contains(mapper.getProxy(s)));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int size() {
+		return subjects.size();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Object[] toArray() {
+		Object[] result = new Object[size()];
+		int i = 0;
+		for (Subject s : subjects) {
+			result[i++] = mapper.getProxy(s);
+		}
+		return result;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public <T> T[] toArray(T[] a) {
+		if (!a.getClass().getComponentType().isAssignableFrom(mapper.getProxyClass())) {    // black magic
+			throw new ArrayStoreException();
+		}
+
+		if (a.length < size())
+			a = (T[]) Array.newInstance(a.getClass().getComponentType(), size());
+
+		int i = 0;
+		for (Subject s : subjects) {
+			a[i++] = (T) mapper.getProxy(s);
+		}
+		return a;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		StringBuilder result = new StringBuilder();
+
+		result.append("[");
+
+		Iterator<Proxy> it = this.iterator();
+		if (it.hasNext()) result.append(it.next());
+		while (it.hasNext()) {
+			result.append(", ");
+			result.append(it.next());
+		}
+
+		result.append("]");
+
+		return result.toString();
+	}
+
+}
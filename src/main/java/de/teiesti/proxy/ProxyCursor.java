@@ -0,0 +1,136 @@
+package de.teiesti.proxy;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+
+/**
+ * A {@code ProxyCursor} iterates over the associated proxies of some subjects like a {@link ProxyIterator}, but it
+ * does not hand out a new proxy per subject. If the mapper is a {@link RebindingMapper}, the cursor creates a single
+ * flyweight and binds it to one subject after the other; therefore a scan which only reads the proxies does not
+ * allocate anything per subject. Otherwise, the cursor falls back to {@link Mapper#getProxy(Object)}.<br /><br />
+ *
+ * A proxy returned by {@link #get()} or passed to the action of {@link #forEachRemaining(Consumer)} is valid only
+ * until the cursor is advanced, i.e. until the next call to {@link #next()} or until the action returns. It must not
+ * be stored or compared with later proxies; use {@link Mapper#getProxy(Object)} on {@link #getSubject()} to obtain a
+ * proxy which can be kept.<br /><br />
+ *
+ * Usage:
+ *
+ * <pre>{@code
+ * ProxyCursor<Proxy, Subject> cursor = set.cursor();
+ * while (cursor.next())
+ *    process(cursor.get());
+ * }</pre>
+ *
+ * A cursor is not thread-safe.
+ *
+ * @param <Proxy> the type of the proxy
+ * @param <Subject> the type of the subject
+ */
+public class ProxyCursor<Proxy, Subject> {
+
+	private Iterator<Subject> subjects;
+	private Mapper<Proxy, Subject> mapper;
+	private RebindingMapper<Proxy, Subject> rebinding;
+
+	private Proxy proxy;
+	private Subject subject;
+	private boolean positioned;
+	private boolean bound;
+
+	/**
+	 * Creates a {@code ProxyCursor} from a given subject iterator with the help of a {@link Mapper}. If the mapper is
+	 * a {@link RebindingMapper}, a single flyweight is used for all subjects.
+	 *
+	 * @param subjects an iterator over some subjects
+	 * @param mapper a mapper which maps the subjects to the proxies
+	 */
+	public ProxyCursor(Iterator<Subject> subjects, Mapper<Proxy, Subject> mapper) {
+		if (subjects == null)
+			throw new IllegalArgumentException("subjects == null");
+		if (mapper == null)
+			throw new IllegalArgumentException("mapper == null");
+
+		this.subjects = subjects;
+		this.mapper = mapper;
+		if (mapper instanceof RebindingMapper<?, ?>) {
+			this.rebinding = (RebindingMapper<Proxy, Subject>) mapper;
+			this.proxy = rebinding.createFlyweight();
+		}
+	}
+
+	/**
+	 * Advances this cursor to the next subject. The subject is not mapped until {@link #get()} is called.
+	 *
+	 * @return {@code true} if the cursor was advanced, {@code false} if there is no further subject
+	 */
+	public boolean next() {
+		if (!subjects.hasNext()) {
+			positioned = false;
+			return false;
+		}
+		subject = subjects.next();
+		positioned = true;
+		bound = false;
+		return true;
+	}
+
+	/**
+	 * Returns the proxy of the current subject. If the mapper is a {@link RebindingMapper}, the returned proxy is the
+	 * flyweight of this cursor which is rebound to the next subject when the cursor is advanced.
+	 *
+	 * @return the proxy of the current subject, valid until this cursor is advanced
+	 * @throws NoSuchElementException if the cursor is not positioned on a subject
+	 */
+	public Proxy get() {
+		if (!positioned)
+			throw new NoSuchElementException();
+
+		if (!bound) {
+			if (rebinding != null)
+				rebinding.rebind(proxy, subject);
+			else
+				proxy = mapper.getProxy(subject);
+			bound = true;
+		}
+		return proxy;
+	}
+
+	/**
+	 * Returns the current subject. Nothing is mapped.
+	 *
+	 * @return the current subject
+	 * @throws NoSuchElementException if the cursor is not positioned on a subject
+	 */
+	public Subject getSubject() {
+		if (!positioned)
+			throw new NoSuchElementException();
+
+		return subject;
+	}
+
+	/**
+	 * Performs the given action for the proxy of each remaining subject. The proxy passed to the action is valid only
+	 * during the call of the action.
+	 *
+	 * @param action the action to be performed for each proxy
+	 */
+	public void forEachRemaining(Consumer<? super Proxy> action) {
+		if (action == null)
+			throw new NullPointerException("action == null");
+
+		while (next())
+			action.accept(get());
+	}
+
+	/**
+	 * Removes - if supported - the current subject from the underlying collection (see {@link Iterator#remove()}).
+	 * The cursor is not positioned on a subject afterwards.
+	 */
+	public void remove() {
+		subjects.remove();
+		positioned = false;
+	}
+
+}
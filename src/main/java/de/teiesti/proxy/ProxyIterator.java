@@ -1,6 +1,9 @@
 package de.teiesti.proxy;
 
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * A {@code ProxyIterator} iterates over the associated proxies in the same order as a given other iterator iterates
@@ -15,8 +18,15 @@ import java.util.Iterator;
  */
 public class ProxyIterator<Proxy, Subject> implements Iterator<Proxy> {
 
+	/**
+	 * The maximum number of subjects which are converted with a single call to
+	 * {@link Mapper#getProxies(java.util.Collection)}.
+	 */
+	public static final int BATCH_SIZE = 1024;
+
 	private Iterator<Subject> subjects;
 	private Mapper<Proxy, Subject> mapper;
+	private boolean identity;
 
 	/**
 	 * Creates a {@code ProxyIterator} from a given subject iterator with the help of a {@link Mapper}. The mapper is
@@ -33,6 +43,7 @@ public class ProxyIterator<Proxy, Subject> implements Iterator<Proxy> {
 
 		this.subjects = subjects;
 		this.mapper = mapper;
+		this.identity = mapper.hasCharacteristics(Mapper.IDENTITY);
 	}
 
 	/**
@@ -49,14 +60,55 @@ public class ProxyIterator<Proxy, Subject> implements Iterator<Proxy> {
 	/**
 	 * Returns the next proxy in this iterator. This is done in two steps: First the next subject is taken from the
 	 * underlying iterator. Second the taken subject is converted to a proxy using the
-	 * {@link Mapper#getProxy(Object) }-method.
+	 * {@link Mapper#getProxy(Object) }-method. If the mapper is the {@link Mapper#IDENTITY}, the second step is
+	 * skipped.
 	 * @return the next proxy
 	 */
 	@Override
 	public Proxy next() {
+		if (identity) {
+			@SuppressWarnings("unchecked")
+			Proxy result = (Proxy) subjects.next();                 // safe because proxies are subjects
+			return result;
+		}
 		return mapper.getProxy(subjects.next());
 	}
 
+	/**
+	 * Performs the given action for each remaining proxy. In contrast to calling {@link #next()} repeatedly, the
+	 * subjects are taken from the underlying iterator in batches of up to {@value #BATCH_SIZE} subjects, and each
+	 * batch is converted with a single call to {@link Mapper#getProxies(java.util.Collection)}. Therefore mappers with
+	 * a high fixed cost per call are called only once per batch. If the mapper is the {@link Mapper#IDENTITY}, the
+	 * subjects are passed to the action directly.<br /><br />
+	 *
+	 * Note: If the action throws an exception, the underlying iterator may already be advanced beyond the proxy the
+	 * action failed on.
+	 *
+	 * @param action the action to be performed for each proxy
+	 */
+	@Override
+	public void forEachRemaining(Consumer<? super Proxy> action) {
+		if (action == null)
+			throw new NullPointerException("action == null");
+
+		if (identity) {
+			@SuppressWarnings("unchecked")
+			Consumer<? super Subject> direct = (Consumer<? super Subject>) action;    // safe because proxies are subjects
+			subjects.forEachRemaining(direct);
+			return;
+		}
+
+		List<Subject> batch = new ArrayList<>();
+		while (subjects.hasNext()) {
+			batch.add(subjects.next());
+			if (batch.size() == BATCH_SIZE || !subjects.hasNext()) {
+				for (Proxy p : mapper.getProxies(batch))
+					action.accept(p);
+				batch.clear();
+			}
+		}
+	}
+
 	/**
 	 * Removes - if supported - the current proxy from the associated collection. This method is transparent which
 	 * means that calling this method removes the subject from the collection which is associated to the underlying
@@ -0,0 +1,421 @@
+package de.teiesti.proxy;
+
+import java.lang.reflect.Array;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+
+/**
+ * A {@code ProxyList} provides a "proxy view" to a whole list of subjects. It is the counterpart of the
+ * {@link ProxySet} for lists: The proxy list has the same order as the underlying list of subjects, and a proxy is only
+ * mapped to a subject if needed. In particular, {@link #get(int)} costs a single call to
+ * {@link Mapper#getProxy(Object)}.<br /><br />
+ *
+ * Use {@link #of(List, Mapper)} to create a proxy list which implements {@link RandomAccess} if (and only if) the
+ * underlying list of subjects does.<br /><br />
+ *
+ * Be careful: The {@code ProxyList} is transparent to changes which means that changing this list changes the
+ * underlying list of subjects and vice versa.
+ *
+ * @param <Proxy> the type of the proxy
+ * @param <Subject> the type of the subject
+ */
+public class ProxyList<Proxy, Subject> implements List<Proxy> {
+
+	private List<Subject> subjects;
+	private Mapper<Proxy, Subject> mapper;
+
+	/**
+	 * Creates a new {@code ProxyList} which encapsulates a given list of subjects by the help of a {@link Mapper}.
+	 * The created list does not implement {@link RandomAccess}; use {@link #of(List, Mapper)} if this is needed.
+	 *
+	 * @param subjects the list of subjects
+	 * @param mapper a mapper mapping subjects to proxies
+	 */
+	public ProxyList(List<Subject> subjects, Mapper<Proxy, Subject> mapper) {
+		if (subjects == null)
+			throw new IllegalArgumentException("subjects == null");
+		if (mapper == null)
+			throw new IllegalArgumentException("mapper == null");
+
+		this.subjects = subjects;
+		this.mapper = mapper;
+	}
+
+	/**
+	 * Creates a new {@code ProxyList} which encapsulates a given list of subjects by the help of a {@link Mapper}.
+	 * The created list implements {@link RandomAccess} if the given list of subjects does.
+	 *
+	 * @param subjects the list of subjects
+	 * @param mapper a mapper mapping subjects to proxies
+	 * @param <Proxy> the type of the proxy
+	 * @param <Subject> the type of the subject
+	 * @return a proxy list which encapsulates the given list of subjects
+	 */
+	public static <Proxy, Subject> ProxyList<Proxy, Subject> of(List<Subject> subjects, Mapper<Proxy, Subject> mapper) {
+		if (subjects instanceof RandomAccess)
+			return new RandomAccessProxyList<>(subjects, mapper);
+		else
+			return new ProxyList<>(subjects, mapper);
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: This method modifies the underlying list of subjects.
+	 */
+	@Override
+	public boolean add(Proxy e) {
+		return subjects.add(mapper.getSubject(e));
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: This method modifies the underlying list of subjects.
+	 */
+	@Override
+	public void add(int index, Proxy element) {
+		subjects.add(index, mapper.getSubject(element));
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: This method modifies the underlying list of subjects. If the given collection is a {@code ProxyList}
+	 * sharing the mapper of this list, the subjects are added directly without mapping anything.
+	 */
+	@Override
+	public boolean addAll(Collection<? extends Proxy> c) {
+		List<Subject> shared = sharedSubjects(c);
+		if (shared != null)
+			return subjects.addAll(shared);
+
+		boolean result = false;
+		for (Proxy p : c) {
+			result |= add(p);
+		}
+		return result;
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: This method modifies the underlying list of subjects. If the given collection is a {@code ProxyList}
+	 * sharing the mapper of this list, the subjects are inserted directly without mapping anything.
+	 */
+	@Override
+	public boolean addAll(int index, Collection<? extends Proxy> c) {
+		List<Subject> shared = sharedSubjects(c);
+		if (shared != null)
+			return subjects.addAll(index, shared);
+
+		ListIterator<Proxy> it = listIterator(index);
+		for (Proxy p : c) {
+			it.add(p);
+		}
+		return !c.isEmpty();
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: This method modifies the underlying list of subjects.
+	 */
+	@Override
+	public void clear() {
+		subjects.clear();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean contains(Object o) {
+		return indexOf(o) >= 0;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean containsAll(Collection<?> c) {
+		for (Object o : c)
+			if (!contains(o)) return false;
+		return true;
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: This method costs a single call to {@link Mapper#getProxy(Object)}.
+	 */
+	@Override
+	public Proxy get(int index) {
+		return mapper.getProxy(subjects.get(index));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int indexOf(Object o) {
+		if (o == null || mapper.getProxyClass().isInstance(o)) {
+			// black magic: see ProxySet#contains(Object)
+			@SuppressWarnings("unchecked")
+			Proxy p = (Proxy) o;
+
+			return subjects.indexOf(mapper.getSubject(p));
+		} else return -1;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean isEmpty() {
+		return subjects.isEmpty();
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: Invoking the {@link Iterator#remove()}-method affects the underlying list of subjects, too.
+	 */
+	@Override
+	public Iterator<Proxy> iterator() {
+		return new ProxyIterator<Proxy, Subject>(subjects.iterator(), mapper);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int lastIndexOf(Object o) {
+		if (o == null || mapper.getProxyClass().isInstance(o)) {
+			// black magic: see ProxySet#contains(Object)
+			@SuppressWarnings("unchecked")
+			Proxy p = (Proxy) o;
+
+			return subjects.lastIndexOf(mapper.getSubject(p));
+		} else return -1;
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: Modifying the list by the help of the returned iterator affects the underlying list of subjects, too.
+	 */
+	@Override
+	public ListIterator<Proxy> listIterator() {
+		return new ProxyListIterator<Proxy, Subject>(subjects.listIterator(), mapper);
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: Modifying the list by the help of the returned iterator affects the underlying list of subjects, too.
+	 */
+	@Override
+	public ListIterator<Proxy> listIterator(int index) {
+		return new ProxyListIterator<Proxy, Subject>(subjects.listIterator(index), mapper);
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: This method modifies the underlying list of subjects.
+	 */
+	@Override
+	public boolean remove(Object o) {
+		int index = indexOf(o);
+		if (index >= 0) {
+			subjects.remove(index);
+			return true;
+		} else return false;
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: This method modifies the underlying list of subjects.
+	 */
+	@Override
+	public Proxy remove(int index) {
+		return mapper.getProxy(subjects.remove(index));
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: This method modifies the underlying list of subjects.
+	 */
+	@Override
+	public boolean removeAll(Collection<?> c) {
+		boolean result = false;
+		Iterator<Proxy> it = iterator();
+		while (it.hasNext()) {
+			if (c.contains(it.next())) {
+				result = true;
+				it.remove();
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: This method modifies the underlying list of subjects.
+	 */
+	@Override
+	public boolean retainAll(Collection<?> c) {
+		Iterator<Proxy> it = iterator();
+		boolean result = false;
+		while (it.hasNext()) {
+			if (!c.contains(it.next())) {
+				result = true;
+				it.remove();
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: This method modifies the underlying list of subjects.
+	 */
+	@Override
+	public Proxy set(int index, Proxy element) {
+		return mapper.getProxy(subjects.set(index, mapper.getSubject(element)));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int size() {
+		return subjects.size();
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: The returned spliterator splits like the spliterator of the underlying list of subjects (see
+	 * {@link ProxySpliterator}).
+	 */
+	@Override
+	public Spliterator<Proxy> spliterator() {
+		return new ProxySpliterator<Proxy, Subject>(subjects.spliterator(), mapper);
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: The returned list is a {@code ProxyList} over the corresponding sub list of subjects. Therefore it
+	 * implements {@link RandomAccess} if the sub list of subjects does, and changing it changes the underlying list of
+	 * subjects.
+	 */
+	@Override
+	public List<Proxy> subList(int fromIndex, int toIndex) {
+		return of(subjects.subList(fromIndex, toIndex), mapper);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Object[] toArray() {
+		Object[] result = new Object[size()];
+		int i = 0;
+		for (Subject s : subjects) {
+			result[i++] = mapper.getProxy(s);
+		}
+		return result;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public <T> T[] toArray(T[] a) {
+		if (!a.getClass().getComponentType().isAssignableFrom(mapper.getProxyClass())) {    // black magic
+			throw new ArrayStoreException();
+		}
+
+		if (a.length < size())
+			a = (T[]) Array.newInstance(a.getClass().getComponentType(), size());
+
+		int i = 0;
+		for (Subject s : subjects) {
+			a[i++] = (T) mapper.getProxy(s);
+		}
+		return a;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		StringBuilder result = new StringBuilder();
+
+		result.append("[");
+
+		Iterator<Proxy> it = this.iterator();
+		if (it.hasNext()) result.append(it.next());
+		while (it.hasNext()) {
+			result.append(", ");
+			result.append(it.next());
+		}
+
+		result.append("]");
+
+		return result.toString();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int hashCode() {
+		int result = 1;
+		for (Proxy p : this)
+			result = 31 * result + (p == null ? 0 : p.hashCode());
+		return result;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj instanceof List<?>) {
+			List<?> other = (List<?>) obj;
+			if (this.size() != other.size())
+				return false;
+
+			Iterator<Proxy> it = this.iterator();
+			Iterator<?> otherIt = other.iterator();
+			while (it.hasNext() && otherIt.hasNext()) {
+				Proxy p = it.next();
+				Object o = otherIt.next();
+				if (!(p == null ? o == null : p.equals(o)))
+					return false;
+			}
+			return !(it.hasNext() || otherIt.hasNext());
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the underlying list of subjects of the given collection if it is a {@code ProxyList} sharing the mapper
+	 * of this list (see {@link ProxySet}). Otherwise, this method returns {@code null}.
+	 *
+	 * @param c a collection
+	 * @return the underlying list of subjects of {@code c} or {@code null} if {@code c} does not share the mapper
+	 */
+	private List<Subject> sharedSubjects(Collection<?> c) {
+		if (c instanceof ProxyList<?, ?>) {
+			ProxyList<?, ?> other = (ProxyList<?, ?>) c;
+			if (mapper.equals(other.mapper)) {
+				@SuppressWarnings("unchecked")
+				List<Subject> result = (List<Subject>) other.subjects;    // safe because the mappers are equal
+				return result;
+			}
+		}
+		return null;
+	}
+
+}
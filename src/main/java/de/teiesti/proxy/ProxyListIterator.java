@@ -0,0 +1,117 @@
+package de.teiesti.proxy;
+
+import java.util.ListIterator;
+
+/**
+ * A {@code ProxyListIterator} is the {@link ListIterator} counterpart of the {@link ProxyIterator}: It traverses the
+ * associated proxies in both directions in the same way as a given other list iterator traverses the subjects.
+ * Modifications ({@link #remove()}, {@link #set(Object)} and {@link #add(Object)}) are passed to the underlying list
+ * iterator and therefore affect the underlying list of subjects.
+ *
+ * @param <Proxy> the type of the proxy
+ * @param <Subject> the type of the subject
+ */
+public class ProxyListIterator<Proxy, Subject> implements ListIterator<Proxy> {
+
+	private ListIterator<Subject> subjects;
+	private Mapper<Proxy, Subject> mapper;
+
+	/**
+	 * Creates a {@code ProxyListIterator} from a given subject list iterator with the help of a {@link Mapper}. The
+	 * mapper is used to create a proxy for each subject (which is needed).
+	 *
+	 * @param subjects a list iterator over some subjects
+	 * @param mapper a mapper which maps the subjects to the proxies
+	 */
+	public ProxyListIterator(ListIterator<Subject> subjects, Mapper<Proxy, Subject> mapper) {
+		if (subjects == null)
+			throw new IllegalArgumentException("subjects == null");
+		if (mapper == null)
+			throw new IllegalArgumentException("mapper == null");
+
+		this.subjects = subjects;
+		this.mapper = mapper;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean hasNext() {
+		return subjects.hasNext();
+	}
+
+	/**
+	 * Returns the next proxy in this iterator. The next subject is taken from the underlying iterator and converted
+	 * to a proxy using the {@link Mapper#getProxy(Object)}-method.
+	 *
+	 * @return the next proxy
+	 */
+	@Override
+	public Proxy next() {
+		return mapper.getProxy(subjects.next());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean hasPrevious() {
+		return subjects.hasPrevious();
+	}
+
+	/**
+	 * Returns the previous proxy in this iterator. The previous subject is taken from the underlying iterator and
+	 * converted to a proxy using the {@link Mapper#getProxy(Object)}-method.
+	 *
+	 * @return the previous proxy
+	 */
+	@Override
+	public Proxy previous() {
+		return mapper.getProxy(subjects.previous());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int nextIndex() {
+		return subjects.nextIndex();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int previousIndex() {
+		return subjects.previousIndex();
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: This method removes the subject from the list which is associated to the underlying iterator.
+	 */
+	@Override
+	public void remove() {
+		subjects.remove();
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: This method replaces the subject within the list which is associated to the underlying iterator.
+	 */
+	@Override
+	public void set(Proxy e) {
+		subjects.set(mapper.getSubject(e));
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: This method inserts the subject into the list which is associated to the underlying iterator.
+	 */
+	@Override
+	public void add(Proxy e) {
+		subjects.add(mapper.getSubject(e));
+	}
+
+}
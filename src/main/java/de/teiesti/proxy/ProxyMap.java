@@ -0,0 +1,405 @@
+package de.teiesti.proxy;
+
+import java.util.AbstractMap;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A {@code ProxyMap} provides a "proxy view" to a whole map of subjects. Keys and values are mapped separately: The
+ * keys by the help of a key {@link Mapper} and the values by the help of a value {@link Mapper}. A proxy map provides
+ * almost the same functionality as a trivial map of proxies which is generated in the following manner:<br /><br />
+ *
+ * <pre>{@code
+ * Map<ProxyKey, ProxyValue> proxies = new ...;
+ * for (Map.Entry<SubjectKey, SubjectValue> e : subjects.entrySet())
+ *    proxies.put(keyMapper.getProxy(e.getKey()), valueMapper.getProxy(e.getValue()));
+ * }</pre>
+ *
+ * But a proxy map never copies the map of subjects: A lookup (e.g. {@link #get(Object)}) converts the given key into
+ * its subject with a single call to {@link Mapper#getSubject(Object)}, and the views {@link #keySet()},
+ * {@link #values()} and {@link #entrySet()} map their elements lazily.<br /><br />
+ *
+ * Be careful: The {@code ProxyMap} is transparent to changes which means that changing this map or one of its views
+ * changes the underlying map of subjects and vice versa.<br /><br />
+ *
+ * Note: A {@code null} value subject is always represented by a {@code null} value proxy.
+ *
+ * @param <ProxyKey> the type of the proxy keys
+ * @param <ProxyValue> the type of the proxy values
+ * @param <SubjectKey> the type of the subject keys
+ * @param <SubjectValue> the type of the subject values
+ */
+public class ProxyMap<ProxyKey, ProxyValue, SubjectKey, SubjectValue> implements Map<ProxyKey, ProxyValue> {
+
+	private Map<SubjectKey, SubjectValue> subjects;
+	private Mapper<ProxyKey, SubjectKey> keyMapper;
+	private Mapper<ProxyValue, SubjectValue> valueMapper;
+	private Mapper<ProxyValue, SubjectValue> nullSafeValueMapper;
+	private Mapper<Map.Entry<ProxyKey, ProxyValue>, Map.Entry<SubjectKey, SubjectValue>> entryMapper;
+
+	/**
+	 * Creates a new {@code ProxyMap} which encapsulates a given map of subjects by the help of a key {@link Mapper}
+	 * and a value {@link Mapper}.
+	 *
+	 * @param subjects the map of subjects
+	 * @param keyMapper a mapper mapping subject keys to proxy keys
+	 * @param valueMapper a mapper mapping subject values to proxy values
+	 */
+	public ProxyMap(Map<SubjectKey, SubjectValue> subjects, Mapper<ProxyKey, SubjectKey> keyMapper,
+			Mapper<ProxyValue, SubjectValue> valueMapper) {
+		if (subjects == null)
+			throw new IllegalArgumentException("subjects == null");
+		if (keyMapper == null)
+			throw new IllegalArgumentException("keyMapper == null");
+		if (valueMapper == null)
+			throw new IllegalArgumentException("valueMapper == null");
+
+		this.subjects = subjects;
+		this.keyMapper = keyMapper;
+		this.valueMapper = valueMapper;
+		this.nullSafeValueMapper = new ValueMapper();
+		this.entryMapper = new EntryMapper();
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: This method modifies the underlying map of subjects.
+	 */
+	@Override
+	public void clear() {
+		subjects.clear();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean containsKey(Object key) {
+		if (isProxyKey(key)) {
+			@SuppressWarnings("unchecked")
+			ProxyKey k = (ProxyKey) key;
+
+			return subjects.containsKey(keyMapper.getSubject(k));
+		} else return false;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean containsValue(Object value) {
+		if (value == null)
+			return subjects.containsValue(null);
+		if (isProxyValue(value)) {
+			@SuppressWarnings("unchecked")
+			ProxyValue v = (ProxyValue) value;
+
+			return subjects.containsValue(valueMapper.getSubject(v));
+		} else return false;
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: Changing the returned set changes the underlying map of subjects, too.
+	 */
+	@Override
+	public Set<Map.Entry<ProxyKey, ProxyValue>> entrySet() {
+		return new EntrySet();
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: The given key is converted into its subject with a single call to {@link Mapper#getSubject(Object)}.
+	 */
+	@Override
+	public ProxyValue get(Object key) {
+		if (isProxyKey(key)) {
+			@SuppressWarnings("unchecked")
+			ProxyKey k = (ProxyKey) key;
+
+			return toProxyValue(subjects.get(keyMapper.getSubject(k)));
+		} else return null;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean isEmpty() {
+		return subjects.isEmpty();
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: Changing the returned set changes the underlying map of subjects, too.
+	 */
+	@Override
+	public Set<ProxyKey> keySet() {
+		return new ProxySet<>(subjects.keySet(), keyMapper);
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: This method modifies the underlying map of subjects.
+	 */
+	@Override
+	public ProxyValue put(ProxyKey key, ProxyValue value) {
+		return toProxyValue(subjects.put(keyMapper.getSubject(key), toSubjectValue(value)));
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: This method modifies the underlying map of subjects. If the given map is a {@code ProxyMap} sharing both
+	 * mappers of this map, the underlying map of subjects is copied directly without mapping anything.
+	 */
+	@Override
+	public void putAll(Map<? extends ProxyKey, ? extends ProxyValue> m) {
+		if (m instanceof ProxyMap<?, ?, ?, ?>) {
+			ProxyMap<?, ?, ?, ?> other = (ProxyMap<?, ?, ?, ?>) m;
+			if (keyMapper.equals(other.keyMapper) && valueMapper.equals(other.valueMapper)) {
+				@SuppressWarnings("unchecked")
+				Map<SubjectKey, SubjectValue> shared = (Map<SubjectKey, SubjectValue>) other.subjects;
+				subjects.putAll(shared);
+				return;
+			}
+		}
+
+		for (Map.Entry<? extends ProxyKey, ? extends ProxyValue> e : m.entrySet())
+			put(e.getKey(), e.getValue());
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: This method modifies the underlying map of subjects.
+	 */
+	@Override
+	public ProxyValue remove(Object key) {
+		if (isProxyKey(key)) {
+			@SuppressWarnings("unchecked")
+			ProxyKey k = (ProxyKey) key;
+
+			return toProxyValue(subjects.remove(keyMapper.getSubject(k)));
+		} else return null;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int size() {
+		return subjects.size();
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: Changing the returned collection changes the underlying map of subjects, too. A {@code null} value subject
+	 * is represented by a {@code null} value proxy like in {@link #get(Object)}.
+	 */
+	@Override
+	public Collection<ProxyValue> values() {
+		return new ProxyCollection<>(subjects.values(), nullSafeValueMapper);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		StringBuilder result = new StringBuilder();
+
+		result.append("{");
+
+		Iterator<Map.Entry<ProxyKey, ProxyValue>> it = entrySet().iterator();
+		if (it.hasNext()) result.append(it.next());
+		while (it.hasNext()) {
+			result.append(", ");
+			result.append(it.next());
+		}
+
+		result.append("}");
+
+		return result.toString();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int hashCode() {
+		return entrySet().hashCode();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj instanceof Map<?, ?>) {
+			Map<?, ?> other = (Map<?, ?>) obj;
+			return this.size() == other.size() && this.entrySet().containsAll(other.entrySet());
+		}
+		return false;
+	}
+
+	private boolean isProxyKey(Object key) {
+		// black magic: see ProxySet#contains(Object)
+		return key == null || keyMapper.getProxyClass().isInstance(key);
+	}
+
+	private boolean isProxyValue(Object value) {
+		// black magic: see ProxySet#contains(Object)
+		return value == null || valueMapper.getProxyClass().isInstance(value);
+	}
+
+	private ProxyValue toProxyValue(SubjectValue value) {
+		return value == null ? null : valueMapper.getProxy(value);
+	}
+
+	private SubjectValue toSubjectValue(ProxyValue value) {
+		return value == null ? null : valueMapper.getSubject(value);
+	}
+
+	/**
+	 * A {@code ProxyEntry} is the proxy of an entry of the underlying map of subjects. Its key and value are mapped
+	 * lazily and {@link #setValue(Object)} writes through.
+	 */
+	private class ProxyEntry implements Map.Entry<ProxyKey, ProxyValue> {
+
+		private Map.Entry<SubjectKey, SubjectValue> subject;
+
+		private ProxyEntry(Map.Entry<SubjectKey, SubjectValue> subject) {
+			this.subject = subject;
+		}
+
+		@Override
+		public ProxyKey getKey() {
+			return keyMapper.getProxy(subject.getKey());
+		}
+
+		@Override
+		public ProxyValue getValue() {
+			return toProxyValue(subject.getValue());
+		}
+
+		@Override
+		public ProxyValue setValue(ProxyValue value) {
+			return toProxyValue(subject.setValue(toSubjectValue(value)));
+		}
+
+		@Override
+		public int hashCode() {
+			ProxyKey key = getKey();
+			ProxyValue value = getValue();
+			return (key == null ? 0 : key.hashCode()) ^ (value == null ? 0 : value.hashCode());
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			if (obj instanceof Map.Entry<?, ?>) {
+				Map.Entry<?, ?> other = (Map.Entry<?, ?>) obj;
+				ProxyKey key = getKey();
+				ProxyValue value = getValue();
+				return (key == null ? other.getKey() == null : key.equals(other.getKey()))
+						&& (value == null ? other.getValue() == null : value.equals(other.getValue()));
+			}
+			return false;
+		}
+
+		@Override
+		public String toString() {
+			return getKey() + "=" + getValue();
+		}
+
+	}
+
+	/**
+	 * An {@code EntrySet} is the set of {@link ProxyEntry}s of this map. In contrast to a plain {@link ProxySet}, it
+	 * checks the key and the value of an entry before mapping it: An entry whose key or value is not a proxy is not
+	 * contained.
+	 */
+	private class EntrySet extends ProxySet<Map.Entry<ProxyKey, ProxyValue>, Map.Entry<SubjectKey, SubjectValue>> {
+
+		private EntrySet() {
+			super(subjects.entrySet(), entryMapper);
+		}
+
+		@Override
+		protected boolean isProxy(Object o) {
+			if (!(o instanceof Map.Entry<?, ?>))
+				return false;
+			Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+			return isProxyKey(e.getKey()) && isProxyValue(e.getValue());
+		}
+
+	}
+
+	/**
+	 * A {@code ValueMapper} maps the values of the underlying map of subjects with the value mapper, but maps
+	 * {@code null} to {@code null} (see {@link ProxyMap#values()}).
+	 */
+	private class ValueMapper implements Mapper<ProxyValue, SubjectValue> {
+
+		@Override
+		public ProxyValue getProxy(SubjectValue subject) {
+			return toProxyValue(subject);
+		}
+
+		@Override
+		public SubjectValue getSubject(ProxyValue proxy) {
+			return toSubjectValue(proxy);
+		}
+
+		@Override
+		public int characteristics() {
+			return valueMapper.characteristics();
+		}
+
+		@Override
+		public Class<?> getProxyClass() {
+			return valueMapper.getProxyClass();
+		}
+
+		@Override
+		public Class<?> getSubjectClass() {
+			return valueMapper.getSubjectClass();
+		}
+
+	}
+
+	/**
+	 * An {@code EntryMapper} maps the entries of the underlying map of subjects to {@link ProxyEntry}s and vice
+	 * versa. It is used to implement {@link ProxyMap#entrySet()} as a {@link ProxySet}. An entry is only mapped to its
+	 * subject if its key and value are proxies (see {@link EntrySet}).
+	 */
+	private class EntryMapper implements Mapper<Map.Entry<ProxyKey, ProxyValue>, Map.Entry<SubjectKey, SubjectValue>> {
+
+		@Override
+		public Map.Entry<ProxyKey, ProxyValue> getProxy(Map.Entry<SubjectKey, SubjectValue> subject) {
+			return new ProxyEntry(subject);
+		}
+
+		@Override
+		public Map.Entry<SubjectKey, SubjectValue> getSubject(Map.Entry<ProxyKey, ProxyValue> proxy) {
+			return new AbstractMap.SimpleImmutableEntry<>(keyMapper.getSubject(proxy.getKey()),
+					toSubjectValue(proxy.getValue()));
+		}
+
+		@Override
+		public Class<?> getProxyClass() {
+			return Map.Entry.class;
+		}
+
+		@Override
+		public Class<?> getSubjectClass() {
+			return Map.Entry.class;
+		}
+
+	}
+
+}
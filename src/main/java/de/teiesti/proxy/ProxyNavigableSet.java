@@ -0,0 +1,173 @@
+package de.teiesti.proxy;
+
+import java.util.Iterator;
+import java.util.NavigableSet;
+
+/**
+ * A {@code ProxyNavigableSet} is a {@link ProxySortedSet} which encapsulates a {@link NavigableSet} of subjects. Like
+ * the {@link ProxySortedSet} it requires an order-preserving {@link Mapper}. Closest matches
+ * ({@link #lower(Object)}, {@link #floor(Object)}, {@link #ceiling(Object)} and {@link #higher(Object)}), range views
+ * and descending iteration are delegated to the underlying navigable set. Therefore they cost as much as on the
+ * underlying set plus a single call to {@link Mapper#getSubject(Object)} per bound and a single call to
+ * {@link Mapper#getProxy(Object)} per result.<br /><br />
+ *
+ * Note: A {@code null} subject returned by the underlying set (which means that there is no such element) is returned
+ * as a {@code null} proxy.
+ *
+ * @param <Proxy> the type of the proxy
+ * @param <Subject> the type of the subject
+ */
+public class ProxyNavigableSet<Proxy, Subject> extends ProxySortedSet<Proxy, Subject> implements NavigableSet<Proxy> {
+
+	/**
+	 * Creates a new {@code ProxyNavigableSet} which encapsulates a given navigable set of subjects by the help of an
+	 * order-preserving {@link Mapper}.
+	 *
+	 * @param subjects the navigable set of subjects
+	 * @param mapper an order-preserving mapper mapping subjects to proxies
+	 * @throws IllegalArgumentException if the mapper is not {@link Mapper#ORDER_PRESERVING}
+	 */
+	public ProxyNavigableSet(NavigableSet<Subject> subjects, Mapper<Proxy, Subject> mapper) {
+		super(subjects, mapper);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Proxy lower(Proxy e) {
+		return toProxy(navigableSubjects().lower(mapper().getSubject(e)));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Proxy floor(Proxy e) {
+		return toProxy(navigableSubjects().floor(mapper().getSubject(e)));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Proxy ceiling(Proxy e) {
+		return toProxy(navigableSubjects().ceiling(mapper().getSubject(e)));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Proxy higher(Proxy e) {
+		return toProxy(navigableSubjects().higher(mapper().getSubject(e)));
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: This method modifies the underlying set of subjects.
+	 */
+	@Override
+	public Proxy pollFirst() {
+		return toProxy(navigableSubjects().pollFirst());
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: This method modifies the underlying set of subjects.
+	 */
+	@Override
+	public Proxy pollLast() {
+		return toProxy(navigableSubjects().pollLast());
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: Changing the returned set changes the underlying set of subjects, too.
+	 */
+	@Override
+	public NavigableSet<Proxy> descendingSet() {
+		return new ProxyNavigableSet<>(navigableSubjects().descendingSet(), mapper());
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: Invoking the {@link Iterator#remove()}-method affects the underlying set of subjects, too.
+	 */
+	@Override
+	public Iterator<Proxy> descendingIterator() {
+		return new ProxyIterator<Proxy, Subject>(navigableSubjects().descendingIterator(), mapper());
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: Changing the returned set changes the underlying set of subjects, too.
+	 */
+	@Override
+	public NavigableSet<Proxy> subSet(Proxy fromElement, boolean fromInclusive, Proxy toElement,
+			boolean toInclusive) {
+		return new ProxyNavigableSet<>(navigableSubjects().subSet(mapper().getSubject(fromElement), fromInclusive,
+				mapper().getSubject(toElement), toInclusive), mapper());
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: Changing the returned set changes the underlying set of subjects, too.
+	 */
+	@Override
+	public NavigableSet<Proxy> headSet(Proxy toElement, boolean inclusive) {
+		return new ProxyNavigableSet<>(navigableSubjects().headSet(mapper().getSubject(toElement), inclusive),
+				mapper());
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: Changing the returned set changes the underlying set of subjects, too.
+	 */
+	@Override
+	public NavigableSet<Proxy> tailSet(Proxy fromElement, boolean inclusive) {
+		return new ProxyNavigableSet<>(navigableSubjects().tailSet(mapper().getSubject(fromElement), inclusive),
+				mapper());
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: Changing the returned set changes the underlying set of subjects, too.
+	 */
+	@Override
+	public NavigableSet<Proxy> subSet(Proxy fromElement, Proxy toElement) {
+		return subSet(fromElement, true, toElement, false);
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: Changing the returned set changes the underlying set of subjects, too.
+	 */
+	@Override
+	public NavigableSet<Proxy> headSet(Proxy toElement) {
+		return headSet(toElement, false);
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: Changing the returned set changes the underlying set of subjects, too.
+	 */
+	@Override
+	public NavigableSet<Proxy> tailSet(Proxy fromElement) {
+		return tailSet(fromElement, true);
+	}
+
+	private Proxy toProxy(Subject subject) {
+		return subject == null ? null : mapper().getProxy(subject);
+	}
+
+	/**
+	 * Returns the underlying navigable set of subjects.
+	 *
+	 * @return the underlying navigable set of subjects
+	 */
+	private NavigableSet<Subject> navigableSubjects() {
+		return (NavigableSet<Subject>) subjects();              // the constructor only accepts navigable sets
+	}
+
+}
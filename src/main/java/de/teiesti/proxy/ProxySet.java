@@ -1,9 +1,17 @@
 package de.teiesti.proxy;
 
 import java.lang.reflect.Array;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
 
 /**
  * A {@code ProxySet} provides a "proxy view" to a whole set of subjects. That means that a proxy set which
@@ -21,15 +29,27 @@ import java.util.Set;
  *
  * Be careful: The {@code ProxySet} is - in contrast to the trivial alternative above - transparent to changes which
  * means that
- * changing this set changes the underlying set of subjects and vice versa.
+ * changing this set changes the underlying set of subjects and vice versa.<br /><br />
+ *
+ * A proxy set takes the characteristics of its mapper into account (see {@link Mapper#characteristics()}): If the
+ * mapper is the {@link Mapper#IDENTITY}, nothing is mapped at all, and if the mapper is
+ * {@link Mapper#HASH_PRESERVING}, {@link #hashCode()} is delegated to the underlying set of subjects.<br /><br />
+ *
+ * Bulk operations on large sets can be executed in parallel (see {@link #setParallelThreshold(int)}).
  *
  * @param <Proxy> the type of the proxy
  * @param <Subject> the type of the subject
  */
 public class ProxySet<Proxy, Subject> implements Set<Proxy> {
 
-	private Set<Subject> subjects;
-	private Mapper<Proxy, Subject> mapper;
+	private final Set<Subject> subjects;
+	private final Mapper<Proxy, Subject> mapper;
+
+	// both are constant for a mapper; caching them keeps the hot paths free of calls to the mapper
+	private final Class<?> proxyClass;
+	private final boolean identity;
+
+	private volatile int parallelThreshold = Integer.MAX_VALUE;       // may be changed while the set is shared
 
 	/**
 	 * Creates a new {@code ProxySet} which encapsulates a given set of subjects by the help of a {@link Mapper}.
@@ -45,6 +65,37 @@ public class ProxySet<Proxy, Subject> implements Set<Proxy> {
 
 		this.subjects = subjects;
 		this.mapper = mapper;
+		this.proxyClass = mapper.getProxyClass();
+		this.identity = mapper.hasCharacteristics(Mapper.IDENTITY);
+	}
+
+	/**
+	 * Returns a proxy set which maps the proxies of the given proxy set with another mapper. In contrast to
+	 * {@code new ProxySet<>(inner, outer)}, the two views are collapsed if possible: The returned set encapsulates the
+	 * set of subjects of the given proxy set directly, and its mapper is the composition of both mappers (see
+	 * {@link Mappers#compose(Mapper, Mapper)}). Therefore stacked views cost a single layer of indirection. The views
+	 * are not collapsed if the given set is an instance of a subclass, which may add behavior.<br /><br />
+	 *
+	 * The subjects of the returned set are the subjects of the given set if the views are collapsed and its proxies
+	 * otherwise, thus the type of the subjects is unknown.
+	 *
+	 * @param inner the proxy set whose proxies are the subjects of the returned set
+	 * @param outer a mapper mapping the proxies of the given set to the proxies of the returned set
+	 * @param <Proxy> the type of the proxy
+	 * @param <Intermediate> the type of the proxies of the given set
+	 * @param <Subject> the type of the subjects of the given set
+	 * @return a proxy set of the proxies of {@code outer}
+	 */
+	public static <Proxy, Intermediate, Subject> ProxySet<Proxy, ?> of(ProxySet<Intermediate, Subject> inner,
+			Mapper<Proxy, Intermediate> outer) {
+		if (inner == null)
+			throw new IllegalArgumentException("inner == null");
+		if (outer == null)
+			throw new IllegalArgumentException("outer == null");
+
+		if (inner.getClass() != ProxySet.class)
+			return new ProxySet<Proxy, Intermediate>(inner, outer);
+		return new ProxySet<Proxy, Subject>(inner.subjects, Mappers.compose(outer, inner.mapper));
 	}
 
 	/**
@@ -58,14 +109,19 @@ public class ProxySet<Proxy, Subject> implements Set<Proxy> {
 
 	/**
 	 * {@inheritDoc}<br /><br />
-	 * Note: This method modifies the underlying set of subjects.
+	 * Note: This method modifies the underlying set of subjects. If the given collection is a {@code ProxySet} whose
+	 * mapper equals the mapper of this set - even if it is not {@link Mapper#INJECTIVE} - this method works directly
+	 * on the two underlying sets of subjects and does not map anything.
 	 */
 	@Override
 	public boolean addAll(Collection<? extends Proxy> c) {
-		// TODO you could possibly check whether this given collection is a proxy collection and be faster
+		Set<Subject> shared = subjectsWithSameMapper(c);
+		if (shared != null)
+			return subjects.addAll(shared);
+
 		boolean result = false;
-		for (Proxy p : c) {
-			result |= add(p);
+		for (Subject s : subjectsOf(c)) {
+			result |= subjects.add(s);
 		}
 		return result;
 	}
@@ -84,28 +140,47 @@ public class ProxySet<Proxy, Subject> implements Set<Proxy> {
 	 */
 	@Override
 	public boolean contains(Object o) {
-		if (o == null || mapper.getProxyClass().isAssignableFrom(o.getClass())) {
-			/*
-			 * Attention: Black magic! The if-condition checks, if the given parameter can be assigned to a variable of
-			 * type Proxy. Therefore the parameter must be null or an instance of Proxy. We must suppress the warning
-			 * before the allocation, because this cast check is not ordinary.
-			 */
-
+		if (isProxy(o)) {
 			@SuppressWarnings("unchecked")
 			Proxy p = (Proxy) o;
 
-			return subjects.contains(mapper.getSubject(p));
+			return subjects.contains(isIdentity() ? o : mapper.getSubject(p));
 		} else return false;
 	}
 
 	/**
-	 * {@inheritDoc}
+	 * {@inheritDoc}<br /><br />
+	 * Note: If the given collection is a {@code ProxySet} sharing the mapper of this set, this method works directly
+	 * on the two underlying sets of subjects and does not map anything. Otherwise the proxies are mapped in batches of
+	 * up to {@value ProxyIterator#BATCH_SIZE} proxies (see {@link Mapper#getSubjects(Collection)}), and this method
+	 * returns after the first batch which contains a missing proxy. The proxies are looked up in parallel if the given
+	 * collection is large enough (see {@link #setParallelThreshold(int)}).
 	 */
 	@Override
 	public boolean containsAll(Collection<?> c) {
-		// TODO there is possibly a more performant solution
-		for (Object o : c)
-			if (!contains(o)) return false;
+		Set<Subject> shared = sharedSubjects(c);
+		if (shared != null)
+			return subjects.containsAll(shared);
+
+		if (isParallel(c.size()))
+			return c.parallelStream().allMatch(this::contains);
+
+		List<Proxy> batch = new ArrayList<>(Math.min(c.size(), ProxyIterator.BATCH_SIZE));
+		Iterator<?> it = c.iterator();
+		while (it.hasNext()) {
+			Object o = it.next();
+			if (!isProxy(o))
+				return false;                                   // c contains an object which is not a proxy
+			@SuppressWarnings("unchecked")
+			Proxy p = (Proxy) o;
+			batch.add(p);
+
+			if (batch.size() == ProxyIterator.BATCH_SIZE || !it.hasNext()) {
+				for (Subject s : subjectsOf(batch))
+					if (!subjects.contains(s)) return false;    // stop at the first batch with a miss
+				batch.clear();
+			}
+		}
 		return true;
 	}
 
@@ -126,47 +201,149 @@ public class ProxySet<Proxy, Subject> implements Set<Proxy> {
 		return new ProxyIterator<Proxy, Subject>(subjects.iterator(), mapper);
 	}
 
+	/**
+	 * Returns a cursor over the proxies in this set (see {@link ProxyCursor}). If the mapper is a
+	 * {@link RebindingMapper}, the cursor binds a single flyweight to one subject after the other and does not
+	 * allocate a proxy per subject. A proxy obtained from the cursor is valid only until the cursor is advanced.<br />
+	 * <br />
+	 *
+	 * Note: Invoking the {@link ProxyCursor#remove()}-method affects the underlying set of subjects, too.
+	 *
+	 * @return a cursor over the proxies in this set
+	 */
+	public ProxyCursor<Proxy, Subject> cursor() {
+		return new ProxyCursor<Proxy, Subject>(subjects.iterator(), mapper);
+	}
+
+	/**
+	 * Returns a lazy view of the proxies in this set which match the given predicate (see {@link FilteredProxySet}).
+	 * Every subject is mapped before it is tested; use {@link #filterSubjects(Predicate)} if the predicate can be
+	 * answered from the subject alone.
+	 *
+	 * @param filter a predicate on proxies
+	 * @return a filtered view of this set
+	 */
+	public FilteredProxySet<Proxy, Subject> filter(Predicate<? super Proxy> filter) {
+		if (filter == null)
+			throw new IllegalArgumentException("filter == null");
+
+		return new FilteredProxySet<Proxy, Subject>(subjects, mapper, null, filter);
+	}
+
+	/**
+	 * Returns a lazy view of the proxies in this set whose subjects match the given predicate (see
+	 * {@link FilteredProxySet}). Subjects which do not match are never mapped.
+	 *
+	 * @param filter a predicate on subjects
+	 * @return a filtered view of this set
+	 */
+	public FilteredProxySet<Proxy, Subject> filterSubjects(Predicate<? super Subject> filter) {
+		if (filter == null)
+			throw new IllegalArgumentException("filter == null");
+
+		return new FilteredProxySet<Proxy, Subject>(subjects, mapper, filter, null);
+	}
+
+	/**
+	 * Returns an immutable copy of this set which contains the current proxies (see {@link ImmutableCompactSet}).
+	 * Every subject is mapped exactly once. Reading the snapshot neither maps nor allocates anything, therefore
+	 * prefer a snapshot if a set is read much more often than it is changed. The snapshot is not transparent to
+	 * changes; see {@link SnapshotProxySet} for a proxy set which refreshes its snapshot automatically.
+	 *
+	 * @return an immutable snapshot of this set
+	 */
+	public ImmutableCompactSet<Proxy> snapshot() {
+		List<Proxy> proxies = new ArrayList<>(subjects.size());
+		new ProxyIterator<Proxy, Subject>(subjects.iterator(), mapper).forEachRemaining(proxies::add);
+		return new ImmutableCompactSet<Proxy>(proxies);
+	}
+
+	/**
+	 * Returns an iterator over the proxies in this set which maps up to {@code lookahead} subjects in advance on the
+	 * given executor (see {@link PrefetchingProxyIterator}). Use this iterator if the mapper is slow and the proxies
+	 * are consumed by slow code, too, and close it if it is abandoned before the iteration is complete.
+	 *
+	 * @param executor the executor which maps the subjects
+	 * @param lookahead the maximum number of subjects which are mapped in advance
+	 * @return a prefetching iterator over the proxies in this set
+	 */
+	public PrefetchingProxyIterator<Proxy, Subject> iterator(Executor executor, int lookahead) {
+		return new PrefetchingProxyIterator<Proxy, Subject>(subjects, mapper, executor, lookahead);
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: The returned spliterator splits like the spliterator of the underlying set of subjects and retains its
+	 * characteristics (see {@link ProxySpliterator}). Therefore parallel streams over this set scale as well as
+	 * parallel streams over the underlying set.
+	 */
+	@Override
+	public Spliterator<Proxy> spliterator() {
+		return new ProxySpliterator<Proxy, Subject>(subjects.spliterator(), mapper);
+	}
+
 	/**
 	 * {@inheritDoc}<br /><br />
 	 * Note: This method modifies the underlying set of subjects.
 	 */
 	@Override
 	public boolean remove(Object o) {
-		if (o == null || mapper.getProxyClass().isAssignableFrom(o.getClass())) {
-			/*
-			 * Attention: Black magic! The if-condition checks, if the given parameter can be assigned to a variable of
-			 * type Proxy. Therefore the parameter must be null or an instance of Proxy. We must suppress the warning
-			 * before the allocation, because this cast check is not ordinary.
-			 */
-
+		if (isProxy(o)) {
 			@SuppressWarnings("unchecked")
 			Proxy p = (Proxy) o;
 
-			return subjects.remove(mapper.getSubject(p));
+			return subjects.remove(isIdentity() ? o : mapper.getSubject(p));
 		} else return false;
 	}
 
 	/**
 	 * {@inheritDoc}<br /><br />
-	 * Note: This method modifies the underlying set of subjects.
+	 * Note: This method modifies the underlying set of subjects. If the given collection is a {@code ProxySet}
+	 * sharing the mapper of this set, this method works directly on the two underlying sets of subjects and does not
+	 * map anything. Otherwise the proxies are mapped in parallel if the given collection is large enough (see
+	 * {@link #setParallelThreshold(int)}), but the subjects are removed sequentially.
 	 */
 	@Override
 	public boolean removeAll(Collection<?> c) {
-		// TODO there is possibly a more performant solution
+		Set<Subject> shared = sharedSubjects(c);
+		if (shared != null)
+			return subjects.removeAll(shared);
+
+		List<Proxy> proxies = proxiesIn(c);
+		Collection<Subject> removed = isParallel(proxies.size())
+				? proxies.parallelStream().map(mapper::getSubject).collect(Collectors.toList())
+				: subjectsOf(proxies);
+
 		boolean result = false;
-		for (Object p : c) {
-			result |= remove(p);
+		for (Subject s : removed) {
+			result |= subjects.remove(s);                       // the subjects are not thread-safe
 		}
 		return result;
 	}
 
 	/**
 	 * {@inheritDoc}<br /><br />
-	 * Note: This method modifies the underlying set of subjects.
+	 * Note: This method modifies the underlying set of subjects. If the given collection is a {@code ProxySet}
+	 * sharing the mapper of this set, this method works directly on the two underlying sets of subjects and does not
+	 * map anything. Otherwise the proxies which are not contained in the given collection are searched in parallel if
+	 * this set is large enough (see {@link #setParallelThreshold(int)}); in this case the given collection must
+	 * support concurrent reads.
 	 */
 	@Override
 	public boolean retainAll(Collection<?> c) {
-		// TODO there is possibly a more performant solution
+		Set<Subject> shared = sharedSubjects(c);
+		if (shared != null)
+			return subjects.retainAll(shared);
+
+		if (isParallel(size())) {
+			List<Subject> removed = StreamSupport.stream(subjects.spliterator(), true)
+					.filter(s -> !c.contains(mapper.getProxy(s)))
+					.collect(Collectors.toList());
+			for (Subject s : removed)
+				subjects.remove(s);                             // the subjects are not thread-safe
+			return !removed.isEmpty();
+		}
+
 		Iterator<Proxy> it = iterator();
 		boolean result = false;
 		while (it.hasNext()) {
@@ -187,36 +364,237 @@ public class ProxySet<Proxy, Subject> implements Set<Proxy> {
 	}
 
 	/**
-	 * {@inheritDoc}
+	 * {@inheritDoc}<br /><br />
+	 * Note: If the mapper is the {@link Mapper#IDENTITY}, this method is delegated to the underlying set of subjects.
+	 * Otherwise the subjects are mapped in parallel if this set is large enough (see
+	 * {@link #setParallelThreshold(int)}).
 	 */
 	@Override
 	public Object[] toArray() {
+		if (isIdentity())
+			return subjects.toArray();
+		if (isParallel(size()))
+			return parallelStream().toArray();
+
 		Object[] result = new Object[size()];
-		int i = 0;
-		for (Subject s : subjects) {
-			result[i++] = mapper.getProxy(s);
-		}
+		int[] i = new int[1];
+		forEach(p -> result[i[0]++] = p);
 		return result;
 	}
 
 	/**
-	 * {@inheritDoc}
+	 * {@inheritDoc}<br /><br />
+	 * Note: If the mapper is the {@link Mapper#IDENTITY}, this method is delegated to the underlying set of subjects.
+	 * Otherwise the subjects are mapped in parallel if this set is large enough (see
+	 * {@link #setParallelThreshold(int)}).
 	 */
 	@Override
 	@SuppressWarnings("unchecked")
 	public <T> T[] toArray(T[] a) {
-		if (!a.getClass().getComponentType().isAssignableFrom(mapper.getProxyClass())) {    // black magic
+		if (!a.getClass().getComponentType().isAssignableFrom(proxyClass)) {                // black magic
 			throw new ArrayStoreException();
 		}
 
 		if (a.length < size())
 			a = (T[]) Array.newInstance(a.getClass().getComponentType(), size());            // needed two hours to resolve a bug
 
-		int i = 0;
-		for (Subject s : subjects) {
-			a[i++] = (T) mapper.getProxy(s);
+		if (isIdentity())
+			return subjects.toArray(a);
+		if (isParallel(size())) {
+			Object[] proxies = parallelStream().toArray();
+			System.arraycopy(proxies, 0, a, 0, proxies.length);
+			return a;
+		}
+
+		T[] result = a;
+		int[] i = new int[1];
+		forEach(p -> result[i[0]++] = (T) p);
+		return result;
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: The subjects are converted in batches using {@link Mapper#getProxies(java.util.Collection)} (see
+	 * {@link ProxyIterator#forEachRemaining(Consumer)}).
+	 */
+	@Override
+	public void forEach(Consumer<? super Proxy> action) {
+		iterator().forEachRemaining(action);
+	}
+
+	/**
+	 * Returns if the given object can be assigned to a variable of type {@code Proxy}, i.e. if it is {@code null} or
+	 * an instance of the proxy class of the mapper. Objects which are not proxies are neither contained in nor
+	 * removed from this set. Subclasses may override this method to observe the type check or to narrow it (e.g. if the
+	 * proxy class is generic) but must not accept objects which this implementation rejects.
+	 *
+	 * @param o an object
+	 * @return if {@code o} is {@code null} or an instance of {@code Proxy}
+	 */
+	protected boolean isProxy(Object o) {
+		/*
+		 * Attention: Black magic! This method checks, if the given parameter can be assigned to a variable of type
+		 * Proxy. Therefore the parameter must be null or an instance of Proxy. Callers must suppress the warning before
+		 * the allocation, because this cast check is not ordinary.
+		 */
+		return o == null || proxyClass.isInstance(o);
+	}
+
+	/**
+	 * Returns the minimum size from which bulk operations are executed in parallel.
+	 *
+	 * @return the parallel threshold
+	 */
+	public int getParallelThreshold() {
+		return parallelThreshold;
+	}
+
+	/**
+	 * Sets the minimum size from which bulk operations are executed in parallel. The size is the size of this set for
+	 * {@link #toArray()}, {@link #toArray(Object[])}, {@link #hashCode()} and {@link #retainAll(Collection)} and the
+	 * size of the given collection for {@link #containsAll(Collection)} and {@link #removeAll(Collection)}. Parallel
+	 * operations split the underlying set of subjects like a parallel stream (see {@link #spliterator()}), map the
+	 * parts on the common {@link java.util.concurrent.ForkJoinPool} and combine the results, which are identical to
+	 * the results of the sequential operations. Modifications of the underlying set of subjects are never done in
+	 * parallel.<br /><br />
+	 *
+	 * The mapper must be thread-safe if a parallel threshold is set. By default, the threshold is
+	 * {@link Integer#MAX_VALUE}, i.e. bulk operations are sequential, and {@code 0} makes all bulk operations
+	 * parallel.
+	 *
+	 * @param parallelThreshold the minimum size for parallel bulk operations
+	 */
+	public void setParallelThreshold(int parallelThreshold) {
+		if (parallelThreshold < 0)
+			throw new IllegalArgumentException("parallelThreshold < 0");
+
+		this.parallelThreshold = parallelThreshold;
+	}
+
+	private boolean isParallel(int size) {
+		return size >= parallelThreshold;
+	}
+
+	/**
+	 * Returns if the mapper is the {@link Mapper#IDENTITY}, i.e. if proxies and subjects are the same objects.
+	 *
+	 * @return if the mapper is the identity
+	 */
+	private boolean isIdentity() {
+		return identity;
+	}
+
+	/**
+	 * Returns the underlying set of subjects. Other views in this package use it to work on the subjects directly.
+	 *
+	 * @return the underlying set of subjects
+	 */
+	Set<Subject> subjects() {
+		return subjects;
+	}
+
+	/**
+	 * Returns the mapper of this set.
+	 *
+	 * @return the mapper
+	 */
+	Mapper<Proxy, Subject> mapper() {
+		return mapper;
+	}
+
+	/**
+	 * Returns the subjects of the given proxies (see {@link Mapper#getSubjects(Collection)}). If the mapper is the
+	 * {@link Mapper#IDENTITY}, the proxies are the subjects and nothing is mapped.
+	 *
+	 * @param proxies some proxies
+	 * @return the subjects of {@code proxies}
+	 */
+	private Collection<Subject> subjectsOf(Collection<? extends Proxy> proxies) {
+		if (isIdentity()) {
+			@SuppressWarnings("unchecked")
+			Collection<Subject> result = (Collection<Subject>) proxies;    // safe because proxies are subjects
+			return result;
+		}
+		return mapper.getSubjects(proxies);
+	}
+
+	/**
+	 * Returns the proxies within the given collection. Objects which are not proxies (see {@link #isProxy(Object)})
+	 * are skipped.
+	 *
+	 * @param c a collection
+	 * @return the proxies within {@code c} in iteration order
+	 */
+	private List<Proxy> proxiesIn(Collection<?> c) {
+		List<Proxy> result = new ArrayList<>(c.size());
+		for (Object o : c) {
+			if (isProxy(o)) {
+				@SuppressWarnings("unchecked")
+				Proxy p = (Proxy) o;
+				result.add(p);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the subjects of the proxies within the given collection. Objects which are not proxies (i.e. which are
+	 * neither {@code null} nor instances of the proxy class of the mapper) are skipped, and the proxies are mapped
+	 * with a single call to {@link Mapper#getSubjects(Collection)}. Other views in this package use this method to
+	 * implement their bulk operations.
+	 *
+	 * @param c a collection
+	 * @param mapper a mapper
+	 * @param <Proxy> the type of the proxy
+	 * @param <Subject> the type of the subject
+	 * @return the subjects of the proxies within {@code c} in iteration order
+	 */
+	static <Proxy, Subject> List<Subject> subjectsIn(Collection<?> c, Mapper<Proxy, Subject> mapper) {
+		Class<?> proxyClass = mapper.getProxyClass();
+		List<Proxy> proxies = new ArrayList<>(c.size());
+		for (Object o : c) {
+			if (o == null || proxyClass.isInstance(o)) {                // black magic: see ProxySet#isProxy(Object)
+				@SuppressWarnings("unchecked")
+				Proxy p = (Proxy) o;
+				proxies.add(p);
+			}
+		}
+		return mapper.getSubjects(proxies);
+	}
+
+	/**
+	 * Returns the underlying set of subjects of the given collection if it is a {@code ProxySet} with the same mapper
+	 * as this set, i.e. their mappers are equal (see {@link Object#equals(Object)}). Equal mappers map in the same way,
+	 * hence the subjects of the other set can be added to this set directly.
+	 *
+	 * @param c a collection
+	 * @return the underlying set of subjects of {@code c} or {@code null} if {@code c} has another mapper
+	 */
+	private Set<Subject> subjectsWithSameMapper(Collection<?> c) {
+		if (c instanceof ProxySet<?, ?>) {
+			ProxySet<?, ?> other = (ProxySet<?, ?>) c;
+			if (mapper.equals(other.mapper)) {
+				@SuppressWarnings("unchecked")
+				Set<Subject> result = (Set<Subject>) other.subjects;    // safe because the mappers are equal
+				return result;
+			}
 		}
-		return a;
+		return null;
+	}
+
+	/**
+	 * Returns the underlying set of subjects of the given collection if it is a {@code ProxySet} sharing the mapper of
+	 * this set. Two proxy sets share a mapper if their mappers are equal (see {@link Object#equals(Object)}) and
+	 * {@link Mapper#INJECTIVE}. Because shared mappers map in the same way and map equal proxies to equal subjects,
+	 * queries and removals on such proxy sets can be done on the subjects directly. A mapper which is not injective
+	 * may map different subjects to equal proxies, hence comparing subjects would give a different result than
+	 * comparing proxies.
+	 *
+	 * @param c a collection
+	 * @return the underlying set of subjects of {@code c} or {@code null} if {@code c} does not share the mapper
+	 */
+	private Set<Subject> sharedSubjects(Collection<?> c) {
+		return mapper.hasCharacteristics(Mapper.INJECTIVE) ? subjectsWithSameMapper(c) : null;
 	}
 
 	/**
@@ -241,24 +619,40 @@ public class ProxySet<Proxy, Subject> implements Set<Proxy> {
 	}
 
 	/**
-	 * {@inheritDoc}
+	 * {@inheritDoc}<br /><br />
+	 * Note: If the mapper is {@link Mapper#HASH_PRESERVING}, the hash code of the underlying set of subjects is
+	 * returned and nothing is mapped. Otherwise the partial sums of the hash codes are computed in parallel if this
+	 * set is large enough (see {@link #setParallelThreshold(int)}).
 	 */
 	@Override
 	public int hashCode() {
-		int result = 0;
-		for (Proxy p : this)
-			result += p == null ? 0 : p.hashCode();
-		return result;
+		if (mapper.hasCharacteristics(Mapper.HASH_PRESERVING))
+			return subjects.hashCode();
+		if (isParallel(size()))
+			return parallelStream().mapToInt(p -> p == null ? 0 : p.hashCode()).sum();
+
+		int[] result = new int[1];
+		forEach(p -> result[0] += p == null ? 0 : p.hashCode());
+		return result[0];
 	}
 
 	/**
-	 * {@inheritDoc}
+	 * {@inheritDoc}<br /><br />
+	 * Note: If the given object is a {@code ProxySet} sharing the mapper of this set and the mapper is
+	 * {@link Mapper#INJECTIVE}, this method is delegated to the two underlying sets of subjects. If the mapper is the
+	 * {@link Mapper#IDENTITY}, this method is delegated to the underlying set of subjects, too.
 	 */
 	@Override
 	public boolean equals(Object obj) {
 		if (this == obj)
 			return true;
 		if (obj instanceof Set<?>) {
+			Set<Subject> shared = sharedSubjects((Set<?>) obj);         // requires an injective mapper
+			if (shared != null)
+				return subjects.equals(shared);
+			if (isIdentity())
+				return subjects.equals(obj);
+
 			Set<?> other = (Set<?>) obj;
 			return this.size() == other.size() && this.containsAll(other);
 		}
@@ -0,0 +1,284 @@
+package de.teiesti.proxy;
+
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * This class consists of static methods which operate on or return sets of proxies. The set-algebra views
+ * ({@link #union(Set, Set)}, {@link #intersection(Set, Set)} and {@link #difference(Set, Set)}) are lazy: They neither
+ * copy their operands nor compute anything in advance, but reflect the current content of their operands. If both
+ * operands are {@link ProxySet}s sharing an {@link Mapper#INJECTIVE} mapper (i.e. their mappers are equal), a view
+ * works on the two underlying sets of subjects and maps only the subjects it returns.
+ */
+public final class ProxySets {
+
+	private ProxySets() {
+		// no instances
+	}
+
+	/**
+	 * A {@code SetView} is an unmodifiable, lazy view of the result of a set operation. Every call to {@link #size()}
+	 * computes the size from the operands; {@link #sizeUpperBound()} is a cheap estimate which is computed from the
+	 * sizes of the operands only.
+	 *
+	 * @param <E> the type of the elements
+	 */
+	public static abstract class SetView<E> extends AbstractSet<E> {
+
+		private SetView() {
+			// only the views in this class
+		}
+
+		/**
+		 * Returns an upper bound of the size of this view. In contrast to {@link #size()} this method does not iterate
+		 * over the operands.
+		 *
+		 * @return an upper bound of the size
+		 */
+		public abstract int sizeUpperBound();
+
+		/**
+		 * {@inheritDoc}<br /><br />
+		 * Note: This method does not compute the size.
+		 */
+		@Override
+		public boolean isEmpty() {
+			return !iterator().hasNext();
+		}
+
+	}
+
+	/**
+	 * Returns a lazy view of the union of two sets. The view iterates over the larger set and the elements of the
+	 * smaller set which are not contained in the larger set.
+	 *
+	 * @param a a set
+	 * @param b another set
+	 * @param <E> the type of the elements
+	 * @return the union of both sets
+	 */
+	public static <E> SetView<E> union(Set<? extends E> a, Set<? extends E> b) {
+		check(a, b);
+
+		SetView<E> shared = shared(a, b, ProxySets::union);
+		if (shared != null)
+			return shared;
+
+		return new SetView<E>() {
+
+			@Override
+			public Iterator<E> iterator() {
+				Set<? extends E> larger = a.size() >= b.size() ? a : b;
+				Set<? extends E> smaller = larger == a ? b : a;
+				return Stream.<E>concat(larger.stream(), smaller.stream().filter(e -> !larger.contains(e))).iterator();
+			}
+
+			@Override
+			public int size() {
+				Set<? extends E> larger = a.size() >= b.size() ? a : b;
+				Set<? extends E> smaller = larger == a ? b : a;
+				long result = larger.size() + smaller.stream().filter(e -> !larger.contains(e)).count();
+				return (int) Math.min(result, Integer.MAX_VALUE);
+			}
+
+			@Override
+			public int sizeUpperBound() {
+				return (int) Math.min((long) a.size() + b.size(), Integer.MAX_VALUE);
+			}
+
+			@Override
+			public boolean isEmpty() {
+				return a.isEmpty() && b.isEmpty();
+			}
+
+			@Override
+			public boolean contains(Object o) {
+				return a.contains(o) || b.contains(o);
+			}
+
+		};
+	}
+
+	/**
+	 * Returns a lazy view of the intersection of two sets. The view iterates over the smaller set and probes the
+	 * larger set.
+	 *
+	 * @param a a set
+	 * @param b another set
+	 * @param <E> the type of the elements
+	 * @return the intersection of both sets
+	 */
+	public static <E> SetView<E> intersection(Set<? extends E> a, Set<? extends E> b) {
+		check(a, b);
+
+		SetView<E> shared = shared(a, b, ProxySets::intersection);
+		if (shared != null)
+			return shared;
+
+		return new SetView<E>() {
+
+			@Override
+			public Iterator<E> iterator() {
+				Set<? extends E> smaller = a.size() <= b.size() ? a : b;
+				Set<? extends E> larger = smaller == a ? b : a;
+				return smaller.stream().<E>map(e -> e).filter(larger::contains).iterator();
+			}
+
+			@Override
+			public int size() {
+				Set<? extends E> smaller = a.size() <= b.size() ? a : b;
+				Set<? extends E> larger = smaller == a ? b : a;
+				return (int) smaller.stream().filter(larger::contains).count();
+			}
+
+			@Override
+			public int sizeUpperBound() {
+				return Math.min(a.size(), b.size());
+			}
+
+			@Override
+			public boolean contains(Object o) {
+				return a.contains(o) && b.contains(o);
+			}
+
+		};
+	}
+
+	/**
+	 * Returns a lazy view of the difference of two sets, i.e. of the elements of the first set which are not
+	 * contained in the second set. The view iterates over the first set and probes the second set; its size is
+	 * computed by walking the smaller set.
+	 *
+	 * @param a the set to subtract from
+	 * @param b the set to subtract
+	 * @param <E> the type of the elements
+	 * @return the difference of both sets
+	 */
+	public static <E> SetView<E> difference(Set<? extends E> a, Set<? extends E> b) {
+		check(a, b);
+
+		SetView<E> shared = shared(a, b, ProxySets::difference);
+		if (shared != null)
+			return shared;
+
+		return new SetView<E>() {
+
+			@Override
+			public Iterator<E> iterator() {
+				return a.stream().<E>map(e -> e).filter(e -> !b.contains(e)).iterator();
+			}
+
+			@Override
+			public int size() {
+				if (a.size() <= b.size())
+					return (int) a.stream().filter(e -> !b.contains(e)).count();
+				return a.size() - (int) b.stream().filter(a::contains).count();
+			}
+
+			@Override
+			public int sizeUpperBound() {
+				return a.size();
+			}
+
+			@Override
+			public boolean contains(Object o) {
+				return a.contains(o) && !b.contains(o);
+			}
+
+		};
+	}
+
+	/**
+	 * A set operation on two sets.
+	 */
+	private interface Operation {
+
+		<E> SetView<E> apply(Set<? extends E> a, Set<? extends E> b);
+
+	}
+
+	/**
+	 * Applies the given operation to the underlying sets of subjects if both sets are {@link ProxySet}s sharing a
+	 * mapper.
+	 *
+	 * @param a a set
+	 * @param b another set
+	 * @param operation the operation
+	 * @param <E> the type of the elements
+	 * @return a view of the mapped result or {@code null} if the sets do not share a mapper
+	 */
+	private static <E> SetView<E> shared(Set<? extends E> a, Set<? extends E> b, Operation operation) {
+		if (a instanceof ProxySet<?, ?> && b instanceof ProxySet<?, ?>) {
+			ProxySet<?, ?> first = (ProxySet<?, ?>) a;
+			ProxySet<?, ?> second = (ProxySet<?, ?>) b;
+			if (first.mapper().hasCharacteristics(Mapper.INJECTIVE) && first.mapper().equals(second.mapper())) {
+				@SuppressWarnings("unchecked")
+				Mapper<E, Object> mapper = (Mapper<E, Object>) first.mapper();           // safe because a contains E
+				@SuppressWarnings("unchecked")
+				Set<Object> subjects = (Set<Object>) first.subjects();
+				@SuppressWarnings("unchecked")
+				Set<Object> others = (Set<Object>) second.subjects();       // safe because the mappers are equal
+				return new MappedView<E, Object>(operation.apply(subjects, others), mapper);
+			}
+		}
+		return null;
+	}
+
+	private static void check(Set<?> a, Set<?> b) {
+		if (a == null)
+			throw new IllegalArgumentException("a == null");
+		if (b == null)
+			throw new IllegalArgumentException("b == null");
+	}
+
+	/**
+	 * A view of the result of a set operation on subjects which maps the subjects to proxies.
+	 *
+	 * @param <Proxy> the type of the proxy
+	 * @param <Subject> the type of the subject
+	 */
+	private static final class MappedView<Proxy, Subject> extends SetView<Proxy> {
+
+		private final SetView<Subject> subjects;
+		private final Mapper<Proxy, Subject> mapper;
+
+		private MappedView(SetView<Subject> subjects, Mapper<Proxy, Subject> mapper) {
+			this.subjects = subjects;
+			this.mapper = mapper;
+		}
+
+		@Override
+		public Iterator<Proxy> iterator() {
+			return new ProxyIterator<Proxy, Subject>(subjects.iterator(), mapper);
+		}
+
+		@Override
+		public int size() {
+			return subjects.size();
+		}
+
+		@Override
+		public int sizeUpperBound() {
+			return subjects.sizeUpperBound();
+		}
+
+		@Override
+		public boolean isEmpty() {
+			return subjects.isEmpty();
+		}
+
+		@Override
+		public boolean contains(Object o) {
+			if (o != null && !mapper.getProxyClass().isInstance(o))        // black magic: o is not a proxy
+				return false;
+
+			@SuppressWarnings("unchecked")
+			Proxy p = (Proxy) o;
+			return subjects.contains(mapper.getSubject(p));
+		}
+
+	}
+
+}
@@ -0,0 +1,101 @@
+package de.teiesti.proxy;
+
+import java.util.Comparator;
+import java.util.SortedSet;
+
+/**
+ * A {@code ProxySortedSet} is a {@link ProxySet} which encapsulates a {@link SortedSet} of subjects. It requires an
+ * order-preserving {@link Mapper} (see {@link Mapper#ORDER_PRESERVING}): The order of two proxies must be the same
+ * as the order of their subjects. Under this assumption, range views ({@link #subSet(Object, Object)},
+ * {@link #headSet(Object)} and {@link #tailSet(Object)}) are obtained by converting the bounds into subjects and
+ * delegating to the underlying sorted set. Therefore they cost as much as on the underlying set and do not copy
+ * anything.
+ *
+ * @param <Proxy> the type of the proxy
+ * @param <Subject> the type of the subject
+ */
+public class ProxySortedSet<Proxy, Subject> extends ProxySet<Proxy, Subject> implements SortedSet<Proxy> {
+
+	/**
+	 * Creates a new {@code ProxySortedSet} which encapsulates a given sorted set of subjects by the help of an
+	 * order-preserving {@link Mapper}.
+	 *
+	 * @param subjects the sorted set of subjects
+	 * @param mapper an order-preserving mapper mapping subjects to proxies
+	 * @throws IllegalArgumentException if the mapper is not {@link Mapper#ORDER_PRESERVING}
+	 */
+	public ProxySortedSet(SortedSet<Subject> subjects, Mapper<Proxy, Subject> mapper) {
+		super(subjects, mapper);
+
+		if (!mapper.hasCharacteristics(Mapper.ORDER_PRESERVING))
+			throw new IllegalArgumentException("mapper is not order-preserving");
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: If the underlying set of subjects uses the natural ordering, this method returns {@code null} and assumes
+	 * that the natural ordering of the proxies is the same. Otherwise, the returned comparator converts the proxies
+	 * into their subjects and compares them with the comparator of the underlying set.
+	 */
+	@Override
+	public Comparator<? super Proxy> comparator() {
+		final Comparator<? super Subject> comparator = sortedSubjects().comparator();
+		if (comparator == null)
+			return null;
+		return (a, b) -> comparator.compare(mapper().getSubject(a), mapper().getSubject(b));
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: Changing the returned set changes the underlying set of subjects, too.
+	 */
+	@Override
+	public SortedSet<Proxy> subSet(Proxy fromElement, Proxy toElement) {
+		return new ProxySortedSet<>(sortedSubjects().subSet(mapper().getSubject(fromElement),
+				mapper().getSubject(toElement)), mapper());
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: Changing the returned set changes the underlying set of subjects, too.
+	 */
+	@Override
+	public SortedSet<Proxy> headSet(Proxy toElement) {
+		return new ProxySortedSet<>(sortedSubjects().headSet(mapper().getSubject(toElement)), mapper());
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: Changing the returned set changes the underlying set of subjects, too.
+	 */
+	@Override
+	public SortedSet<Proxy> tailSet(Proxy fromElement) {
+		return new ProxySortedSet<>(sortedSubjects().tailSet(mapper().getSubject(fromElement)), mapper());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Proxy first() {
+		return mapper().getProxy(sortedSubjects().first());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Proxy last() {
+		return mapper().getProxy(sortedSubjects().last());
+	}
+
+	/**
+	 * Returns the underlying sorted set of subjects.
+	 *
+	 * @return the underlying sorted set of subjects
+	 */
+	private SortedSet<Subject> sortedSubjects() {
+		return (SortedSet<Subject>) subjects();                 // the constructor only accepts sorted sets
+	}
+
+}
@@ -0,0 +1,169 @@
+package de.teiesti.proxy;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * A {@code ProxySpliterator} traverses and partitions the associated proxies in the same way as a given other
+ * spliterator traverses and partitions the subjects. It is the {@link Spliterator} counterpart of the
+ * {@link ProxyIterator}: Splitting is entirely done by the underlying spliterator, and a subject is not mapped to its
+ * proxy until it is passed to an action. Therefore a parallel stream over a {@link ProxySet} splits as well as a
+ * stream over the underlying set of subjects does.<br /><br />
+ *
+ * The characteristics of the underlying spliterator are retained except {@link Spliterator#SORTED}, because the order
+ * of the proxies is not known, and {@link Spliterator#NONNULL}, because a {@link Mapper} may map a subject to
+ * {@code null}. Both are retained if the mapper guarantees them (see {@link Mapper#ORDER_PRESERVING} and
+ * {@link Mapper#IDENTITY}).
+ *
+ * @param <Proxy> the type of the proxy
+ * @param <Subject> the type of the subject
+ */
+public class ProxySpliterator<Proxy, Subject> implements Spliterator<Proxy> {
+
+	private Spliterator<Subject> subjects;
+	private Mapper<Proxy, Subject> mapper;
+	private boolean identity;
+
+	/**
+	 * Creates a {@code ProxySpliterator} from a given subject spliterator with the help of a {@link Mapper}. The
+	 * mapper is used to create a proxy for each subject (which is needed).
+	 *
+	 * @param subjects a spliterator over some subjects
+	 * @param mapper a mapper which maps the subjects to the proxies
+	 */
+	public ProxySpliterator(Spliterator<Subject> subjects, Mapper<Proxy, Subject> mapper) {
+		if (subjects == null)
+			throw new IllegalArgumentException("subjects == null");
+		if (mapper == null)
+			throw new IllegalArgumentException("mapper == null");
+
+		this.subjects = subjects;
+		this.mapper = mapper;
+		this.identity = mapper.hasCharacteristics(Mapper.IDENTITY);
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: The next subject is taken from the underlying spliterator and converted to a proxy using the
+	 * {@link Mapper#getProxy(Object)}-method.
+	 */
+	@Override
+	public boolean tryAdvance(Consumer<? super Proxy> action) {
+		if (action == null)
+			throw new NullPointerException("action == null");
+
+		if (identity)
+			return subjects.tryAdvance(direct(action));
+		return subjects.tryAdvance(s -> action.accept(mapper.getProxy(s)));
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: The remaining subjects are taken from the underlying spliterator in batches of up to
+	 * {@value ProxyIterator#BATCH_SIZE} subjects, and each batch is converted with a single call to
+	 * {@link Mapper#getProxies(java.util.Collection)}.
+	 */
+	@Override
+	public void forEachRemaining(Consumer<? super Proxy> action) {
+		if (action == null)
+			throw new NullPointerException("action == null");
+
+		if (identity) {
+			subjects.forEachRemaining(direct(action));
+			return;
+		}
+
+		List<Subject> batch = new ArrayList<>();
+		subjects.forEachRemaining(s -> {
+			batch.add(s);
+			if (batch.size() == ProxyIterator.BATCH_SIZE) {
+				for (Proxy p : mapper.getProxies(batch))
+					action.accept(p);
+				batch.clear();
+			}
+		});
+		if (!batch.isEmpty())
+			for (Proxy p : mapper.getProxies(batch))
+				action.accept(p);
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: This method splits the underlying spliterator and encapsulates the split-off part within a new
+	 * {@code ProxySpliterator}.
+	 */
+	@Override
+	public Spliterator<Proxy> trySplit() {
+		Spliterator<Subject> split = subjects.trySplit();
+		return split == null ? null : new ProxySpliterator<>(split, mapper);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long estimateSize() {
+		return subjects.estimateSize();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long getExactSizeIfKnown() {
+		return subjects.getExactSizeIfKnown();
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: These are the characteristics of the underlying spliterator without {@link Spliterator#SORTED} (unless
+	 * the mapper is {@link Mapper#ORDER_PRESERVING}), {@link Spliterator#DISTINCT} (unless the mapper is
+	 * {@link Mapper#INJECTIVE}) and {@link Spliterator#NONNULL} (unless the mapper is the {@link Mapper#IDENTITY}).
+	 */
+	@Override
+	public int characteristics() {
+		int result = subjects.characteristics();
+		if (!mapper.hasCharacteristics(Mapper.ORDER_PRESERVING))
+			result &= ~SORTED;
+		if (!mapper.hasCharacteristics(Mapper.INJECTIVE))
+			result &= ~DISTINCT;
+		if (!identity)
+			result &= ~NONNULL;
+		return result;
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: If the proxies are sorted, the comparator of the underlying spliterator is applied to the subjects of the
+	 * proxies.
+	 */
+	@Override
+	public Comparator<? super Proxy> getComparator() {
+		if (!hasCharacteristics(SORTED))
+			throw new IllegalStateException();
+
+		Comparator<? super Subject> comparator = subjects.getComparator();
+		if (comparator == null || identity) {
+			@SuppressWarnings("unchecked")
+			Comparator<? super Proxy> result = (Comparator<? super Proxy>) comparator;    // null: natural ordering
+			return result;
+		}
+		return (a, b) -> comparator.compare(mapper.getSubject(a), mapper.getSubject(b));
+	}
+
+	/**
+	 * Returns the given action as an action on subjects. This is only safe if the mapper is the
+	 * {@link Mapper#IDENTITY}.
+	 *
+	 * @param action an action on proxies
+	 * @return the same action on subjects
+	 */
+	@SuppressWarnings("unchecked")
+	private Consumer<? super Subject> direct(Consumer<? super Proxy> action) {
+		return (Consumer<? super Subject>) action;
+	}
+
+}
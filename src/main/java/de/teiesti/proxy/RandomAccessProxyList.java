@@ -0,0 +1,31 @@
+package de.teiesti.proxy;
+
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * A {@code RandomAccessProxyList} is a {@link ProxyList} which implements {@link RandomAccess}. It must only
+ * encapsulate lists of subjects which implement {@link RandomAccess}, too, because {@link #get(int)} costs as much as
+ * {@link List#get(int)} on the underlying list of subjects plus a single call to {@link Mapper#getProxy(Object)}.
+ * Usually, an instance is obtained with {@link ProxyList#of(List, Mapper)}.
+ *
+ * @param <Proxy> the type of the proxy
+ * @param <Subject> the type of the subject
+ */
+public class RandomAccessProxyList<Proxy, Subject> extends ProxyList<Proxy, Subject> implements RandomAccess {
+
+	/**
+	 * Creates a new {@code RandomAccessProxyList} which encapsulates a given list of subjects by the help of a
+	 * {@link Mapper}.
+	 *
+	 * @param subjects the list of subjects which must implement {@link RandomAccess}
+	 * @param mapper a mapper mapping subjects to proxies
+	 */
+	public RandomAccessProxyList(List<Subject> subjects, Mapper<Proxy, Subject> mapper) {
+		super(subjects, mapper);
+
+		if (!(subjects instanceof RandomAccess))
+			throw new IllegalArgumentException("subjects is not RandomAccess");
+	}
+
+}
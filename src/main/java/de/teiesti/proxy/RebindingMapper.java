@@ -0,0 +1,35 @@
+package de.teiesti.proxy;
+
+/**
+ * A {@code RebindingMapper} is a {@link Mapper} whose proxies are mutable: A single proxy instance - the flyweight -
+ * can be bound to one subject after the other. A {@link ProxyCursor} uses this to iterate over a {@link ProxySet}
+ * without allocating a proxy per subject.<br /><br />
+ *
+ * A flyweight must behave exactly like a proxy returned by {@link #getProxy(Object)} for the subject it is currently
+ * bound to, i.e. {@link #getSubject(Object)} must return that subject. Because it changes with every rebind, a
+ * flyweight must not be stored in a collection or be kept for later use; use {@link #getProxy(Object)} for this
+ * purpose.
+ *
+ * @param <Proxy> the type of the proxy
+ * @param <Subject> the type of the subject
+ */
+public interface RebindingMapper<Proxy, Subject> extends Mapper<Proxy, Subject> {
+
+	/**
+	 * Returns a new flyweight which is not bound to any subject yet. The flyweight must not be used before it was
+	 * bound with {@link #rebind(Object, Object)}.
+	 *
+	 * @return a new flyweight
+	 */
+	public Proxy createFlyweight();
+
+	/**
+	 * Binds the given flyweight to the given subject. The flyweight must have been created by this mapper (see
+	 * {@link #createFlyweight()}). This method should not allocate anything.
+	 *
+	 * @param flyweight the flyweight to bind
+	 * @param subject the subject to bind the flyweight to
+	 */
+	public void rebind(Proxy flyweight, Subject subject);
+
+}
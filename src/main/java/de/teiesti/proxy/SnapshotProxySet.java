@@ -0,0 +1,232 @@
+package de.teiesti.proxy;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * A {@code SnapshotProxySet} is a {@link ProxySet} which reads from a snapshot (see {@link ProxySet#snapshot()}): The
+ * first read maps all subjects into an {@link ImmutableCompactSet}, and all further reads use it until the set is
+ * modified. Therefore reading a set which is read much more often than it is changed neither maps nor allocates
+ * anything. Modifying the set through this view discards the snapshot, and the next read creates a new one.<br /><br />
+ *
+ * Be careful: Changes which are made directly to the underlying set of subjects are not detected. Call
+ * {@link #refresh()} after such a change.<br /><br />
+ *
+ * Reads which use the snapshot compare proxies by {@link Object#equals(Object)} instead of mapping them to their
+ * subjects. Both are equivalent if the mapper is {@link Mapper#INJECTIVE}. This class is not thread-safe.
+ *
+ * @param <Proxy> the type of the proxy
+ * @param <Subject> the type of the subject
+ */
+public class SnapshotProxySet<Proxy, Subject> extends ProxySet<Proxy, Subject> {
+
+	private ImmutableCompactSet<Proxy> snapshot;
+
+	/**
+	 * Creates a new {@code SnapshotProxySet} which encapsulates a given set of subjects by the help of a
+	 * {@link Mapper}.
+	 *
+	 * @param subjects the set of subjects
+	 * @param mapper a mapper mapping subjects to proxies
+	 */
+	public SnapshotProxySet(Set<Subject> subjects, Mapper<Proxy, Subject> mapper) {
+		super(subjects, mapper);
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: The returned snapshot is the snapshot this set reads from. It is created if needed.
+	 */
+	@Override
+	public ImmutableCompactSet<Proxy> snapshot() {
+		if (snapshot == null)
+			snapshot = super.snapshot();
+		return snapshot;
+	}
+
+	/**
+	 * Discards the current snapshot. The next read creates a new one. Call this method after the underlying set of
+	 * subjects was modified directly.
+	 */
+	public void refresh() {
+		snapshot = null;
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: This method discards the snapshot.
+	 */
+	@Override
+	public boolean add(Proxy e) {
+		refresh();
+		return super.add(e);
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: This method discards the snapshot.
+	 */
+	@Override
+	public boolean addAll(Collection<? extends Proxy> c) {
+		refresh();
+		return super.addAll(c);
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: This method discards the snapshot.
+	 */
+	@Override
+	public void clear() {
+		refresh();
+		super.clear();
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: This method reads the snapshot.
+	 */
+	@Override
+	public boolean contains(Object o) {
+		return snapshot().contains(o);
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: This method reads the snapshot.
+	 */
+	@Override
+	public boolean containsAll(Collection<?> c) {
+		return snapshot().containsAll(c);
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: This method iterates the snapshot. Invoking the {@link Iterator#remove()}-method removes the subject of
+	 * the current proxy from the underlying set of subjects and discards the snapshot, but the iteration continues
+	 * over the former snapshot.
+	 */
+	@Override
+	public Iterator<Proxy> iterator() {
+		Iterator<Proxy> proxies = snapshot().iterator();
+
+		return new Iterator<Proxy>() {
+
+			private Proxy current;
+			private boolean removable;
+
+			@Override
+			public boolean hasNext() {
+				return proxies.hasNext();
+			}
+
+			@Override
+			public Proxy next() {
+				current = proxies.next();
+				removable = true;
+				return current;
+			}
+
+			@Override
+			public void remove() {
+				if (!removable)
+					throw new IllegalStateException();
+
+				SnapshotProxySet.this.remove(current);
+				removable = false;
+			}
+
+		};
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: The returned spliterator traverses the snapshot.
+	 */
+	@Override
+	public Spliterator<Proxy> spliterator() {
+		return snapshot().spliterator();
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: This method iterates the snapshot.
+	 */
+	@Override
+	public void forEach(Consumer<? super Proxy> action) {
+		snapshot().forEach(action);
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: This method discards the snapshot.
+	 */
+	@Override
+	public boolean remove(Object o) {
+		refresh();
+		return super.remove(o);
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: This method discards the snapshot.
+	 */
+	@Override
+	public boolean removeAll(Collection<?> c) {
+		refresh();
+		return super.removeAll(c);
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: This method discards the snapshot.
+	 */
+	@Override
+	public boolean retainAll(Collection<?> c) {
+		boolean result = super.retainAll(c);
+		refresh();
+		return result;
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: This method copies the snapshot.
+	 */
+	@Override
+	public Object[] toArray() {
+		return snapshot().toArray();
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: This method copies the snapshot.
+	 */
+	@Override
+	public <T> T[] toArray(T[] a) {
+		return snapshot().toArray(a);
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: The hash code of the snapshot is precomputed.
+	 */
+	@Override
+	public int hashCode() {
+		return snapshot().hashCode();
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: This method compares the snapshot.
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		if (obj instanceof SnapshotProxySet<?, ?>)
+			obj = ((SnapshotProxySet<?, ?>) obj).snapshot();
+		return snapshot().equals(obj);
+	}
+
+}
@@ -0,0 +1,244 @@
+package de.teiesti.proxy.mapped;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SelectableChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+
+/**
+ * An {@code EncodedSet} is an immutable set of subjects which are encoded in a {@link ByteBuffer} by a
+ * {@link SubjectCodec}. The subjects are decoded lazily while they are iterated; the buffer is neither copied nor
+ * decoded in advance. Therefore an {@code EncodedSet} which maps a file (see {@link #map(Path, SubjectCodec)}) can be
+ * passed to a {@link de.teiesti.proxy.ProxySet} right after a process started or received the file.<br /><br />
+ *
+ * The format is a stream of encoded subjects preceded by a header which holds the number of subjects. Use
+ * {@link #write(Collection, SubjectCodec, WritableByteChannel)} to write the underlying set of subjects of a proxy set
+ * instead of the proxies themselves. If the subjects are written in ascending order (e.g. from a
+ * {@link java.util.SortedSet}), delta codecs like {@link SubjectCodec#INT} need a single byte for dense ids.<br /><br />
+ *
+ * Because the subjects are not indexed, {@link #contains(Object)} decodes the subjects until it finds the given one.
+ * Copy the set into a hash-based set if it is queried often. This class is thread-safe.
+ *
+ * @param <Subject> the type of the subject
+ */
+public final class EncodedSet<Subject> extends AbstractSet<Subject> {
+
+	private static final int MAGIC = 0x50585331;                  // "PXS1"
+	private static final int HEADER = 12;
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	private final ByteBuffer buffer;
+	private final SubjectCodec<Subject> codec;
+	private final int size;
+
+	/**
+	 * Creates a new {@code EncodedSet} which decodes the subjects in the given buffer. The subjects are expected
+	 * between the position and the limit of the buffer, which are not changed by this set.
+	 *
+	 * @param buffer the buffer which contains the set as written by
+	 * {@link #write(Collection, SubjectCodec, WritableByteChannel)}
+	 * @param codec the codec of the subjects
+	 * @throws IllegalArgumentException if the buffer does not contain an encoded set
+	 */
+	public EncodedSet(ByteBuffer buffer, SubjectCodec<Subject> codec) {
+		if (buffer == null)
+			throw new IllegalArgumentException("buffer == null");
+		if (codec == null)
+			throw new IllegalArgumentException("codec == null");
+		if (buffer.remaining() < HEADER || buffer.getInt(buffer.position()) != MAGIC)
+			throw new IllegalArgumentException("buffer does not contain an encoded set");
+
+		long size = buffer.getLong(buffer.position() + 4);
+		if (size < 0 || size > Integer.MAX_VALUE)
+			throw new IllegalArgumentException("buffer contains an invalid size");
+
+		this.buffer = buffer.slice().asReadOnlyBuffer();
+		this.codec = codec;
+		this.size = (int) size;
+	}
+
+	/**
+	 * Maps the given file and returns the set it contains. The file is mapped read-only and is not read until the
+	 * set is iterated. Because a {@link ByteBuffer} is indexed by {@code int}, the file must not be larger than
+	 * {@link Integer#MAX_VALUE} bytes.
+	 *
+	 * @param file the file which contains the set
+	 * @param codec the codec of the subjects
+	 * @param <Subject> the type of the subject
+	 * @return the set stored in the file
+	 * @throws IOException if the file cannot be mapped
+	 * @throws IllegalArgumentException if the file is larger than {@link Integer#MAX_VALUE} bytes
+	 */
+	public static <Subject> EncodedSet<Subject> map(Path file, SubjectCodec<Subject> codec) throws IOException {
+		if (file == null)
+			throw new IllegalArgumentException("file == null");
+
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			if (channel.size() > Integer.MAX_VALUE)
+				throw new IllegalArgumentException("file is larger than " + Integer.MAX_VALUE + " bytes: " + file);
+			return new EncodedSet<>(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), codec);
+		}
+	}
+
+	/**
+	 * Reads a set from the given channel. The channel is read until its end into a direct buffer; the subjects are
+	 * decoded when the set is iterated. Unlike {@link #map(Path, SubjectCodec)}, this copies the data, and the buffer
+	 * is copied again whenever it grows. Prefer {@link #map(Path, SubjectCodec)} to read a file.<br /><br />
+	 *
+	 * The channel must be blocking: A non-blocking channel would be polled in a busy loop until its end. At most
+	 * {@link Integer#MAX_VALUE} bytes can be read.
+	 *
+	 * @param channel the channel which provides the set
+	 * @param codec the codec of the subjects
+	 * @param <Subject> the type of the subject
+	 * @return the set read from the channel
+	 * @throws IOException if the channel cannot be read
+	 * @throws IllegalArgumentException if the channel is non-blocking or provides more than
+	 *         {@link Integer#MAX_VALUE} bytes
+	 */
+	public static <Subject> EncodedSet<Subject> read(ReadableByteChannel channel, SubjectCodec<Subject> codec)
+			throws IOException {
+		if (channel == null)
+			throw new IllegalArgumentException("channel == null");
+		if (channel instanceof SelectableChannel && !((SelectableChannel) channel).isBlocking())
+			throw new IllegalArgumentException("channel is non-blocking");
+
+		ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+		while (channel.read(buffer) >= 0) {
+			if (!buffer.hasRemaining()) {
+				if (buffer.capacity() == Integer.MAX_VALUE)
+					throw new IllegalArgumentException("channel provides more than " + Integer.MAX_VALUE + " bytes");
+				ByteBuffer larger = ByteBuffer.allocateDirect(
+						(int) Math.min((long) buffer.capacity() * 2, Integer.MAX_VALUE));
+				buffer.flip();
+				larger.put(buffer);
+				buffer = larger;
+			}
+		}
+		buffer.flip();
+		return new EncodedSet<>(buffer, codec);
+	}
+
+	/**
+	 * Writes the given subjects to the given channel in the format which is read by this class. Only the subjects are
+	 * written; to store a {@link de.teiesti.proxy.ProxySet}, write its underlying set of subjects. The subjects are
+	 * encoded in their iteration order. The channel is not closed.
+	 *
+	 * @param subjects the subjects to write, which must not contain {@code null}
+	 * @param codec the codec of the subjects
+	 * @param channel the channel to write to
+	 * @param <Subject> the type of the subject
+	 * @throws IOException if the channel cannot be written
+	 * @throws ConcurrentModificationException if the number of subjects changed while they were written
+	 */
+	public static <Subject> void write(Collection<? extends Subject> subjects, SubjectCodec<Subject> codec,
+			WritableByteChannel channel) throws IOException {
+		if (subjects == null)
+			throw new IllegalArgumentException("subjects == null");
+		if (codec == null)
+			throw new IllegalArgumentException("codec == null");
+		if (channel == null)
+			throw new IllegalArgumentException("channel == null");
+
+		ByteBuffer buffer = ByteBuffer.allocate(Math.max(BUFFER_SIZE, HEADER + codec.getMaximumSize()));
+		int size = subjects.size();
+		buffer.putInt(MAGIC);
+		buffer.putLong(size);
+
+		int written = 0;
+		Subject previous = null;
+		for (Subject s : subjects) {
+			if (s == null)
+				throw new NullPointerException("subjects contains null");
+			if (buffer.remaining() < codec.getMaximumSize())
+				drain(buffer, channel);
+			codec.encode(s, previous, buffer);
+			previous = s;
+			written++;
+		}
+		drain(buffer, channel);
+
+		if (written != size)
+			throw new ConcurrentModificationException("subjects changed while they were written");
+	}
+
+	private static void drain(ByteBuffer buffer, WritableByteChannel channel) throws IOException {
+		buffer.flip();
+		while (buffer.hasRemaining())
+			channel.write(buffer);
+		buffer.clear();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: This method decodes the subjects until it finds the given one.
+	 */
+	@Override
+	public boolean contains(Object o) {
+		if (o == null || !codec.getType().isInstance(o))
+			return false;
+		return super.contains(o);
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: The subjects are decoded while they are iterated. The returned iterator does not support
+	 * {@link Iterator#remove()}.
+	 */
+	@Override
+	public Iterator<Subject> iterator() {
+		ByteBuffer encoded = buffer.duplicate();                // an own position, but no copy
+		encoded.position(HEADER);
+
+		return new Iterator<Subject>() {
+
+			private int remaining = size;
+			private Subject previous;
+
+			@Override
+			public boolean hasNext() {
+				return remaining > 0;
+			}
+
+			@Override
+			public Subject next() {
+				if (remaining == 0)
+					throw new NoSuchElementException();
+
+				previous = codec.decode(previous, encoded);
+				remaining--;
+				return previous;
+			}
+
+		};
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Spliterator<Subject> spliterator() {
+		return Spliterators.spliterator(iterator(), size,
+				Spliterator.DISTINCT | Spliterator.IMMUTABLE | Spliterator.NONNULL | Spliterator.ORDERED);
+	}
+
+}
@@ -0,0 +1,129 @@
+package de.teiesti.proxy.mapped;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A {@code FixedWidthSerializer} writes values of a given type into a {@link ByteBuffer} and reads them back. Every
+ * value needs the same number of bytes, its width. Therefore values can be stored in slots of a fixed size, e.g. in a
+ * {@link MappedSet}.<br /><br />
+ *
+ * All methods use absolute positions and do not change the position of the buffer. Serializers for {@code int} and
+ * {@code long} values are provided as {@link #INT} and {@link #LONG}.<br /><br />
+ *
+ * Be careful: A {@link MappedSet} finds a value by its {@link Object#hashCode()}, and the slots it stores in a file
+ * depend on it. Therefore the hash code of the values must be stable across JVMs, i.e. it must be computed from the
+ * value alone like the hash codes of {@link Integer}, {@link Long} and {@link String}, and not from the identity of
+ * the object (see {@link System#identityHashCode(Object)}). Otherwise a reopened set does not find its values.
+ *
+ * @param <T> the type of the values
+ */
+public interface FixedWidthSerializer<T> {
+
+	/**
+	 * A serializer for {@link Integer}s which needs 4 bytes per value.
+	 */
+	public static final FixedWidthSerializer<Integer> INT = new FixedWidthSerializer<Integer>() {
+		@Override
+		public int getWidth() {
+			return Integer.BYTES;
+		}
+
+		@Override
+		public Class<?> getType() {
+			return Integer.class;
+		}
+
+		@Override
+		public void write(Integer value, ByteBuffer buffer, int offset) {
+			buffer.putInt(offset, value);
+		}
+
+		@Override
+		public Integer read(ByteBuffer buffer, int offset) {
+			return buffer.getInt(offset);
+		}
+
+		@Override
+		public boolean matches(Integer value, ByteBuffer buffer, int offset) {
+			return buffer.getInt(offset) == value;
+		}
+	};
+
+	/**
+	 * A serializer for {@link Long}s which needs 8 bytes per value.
+	 */
+	public static final FixedWidthSerializer<Long> LONG = new FixedWidthSerializer<Long>() {
+		@Override
+		public int getWidth() {
+			return Long.BYTES;
+		}
+
+		@Override
+		public Class<?> getType() {
+			return Long.class;
+		}
+
+		@Override
+		public void write(Long value, ByteBuffer buffer, int offset) {
+			buffer.putLong(offset, value);
+		}
+
+		@Override
+		public Long read(ByteBuffer buffer, int offset) {
+			return buffer.getLong(offset);
+		}
+
+		@Override
+		public boolean matches(Long value, ByteBuffer buffer, int offset) {
+			return buffer.getLong(offset) == value;
+		}
+	};
+
+	/**
+	 * Returns the number of bytes which are needed to store a value.
+	 *
+	 * @return the width of a value in bytes
+	 */
+	public int getWidth();
+
+	/**
+	 * Returns the class of the values this serializer works with. This method is needed by some algorithms because
+	 * one cannot obtain the class of a generic type.
+	 *
+	 * @return the class of the values this serializer works with
+	 */
+	public Class<?> getType();
+
+	/**
+	 * Writes the given value into the given buffer at the given offset.
+	 *
+	 * @param value the value to write, never {@code null}
+	 * @param buffer the buffer to write into
+	 * @param offset the offset of the first byte
+	 */
+	public void write(T value, ByteBuffer buffer, int offset);
+
+	/**
+	 * Reads a value from the given buffer at the given offset.
+	 *
+	 * @param buffer the buffer to read from
+	 * @param offset the offset of the first byte
+	 * @return the value
+	 */
+	public T read(ByteBuffer buffer, int offset);
+
+	/**
+	 * Returns if the value stored in the given buffer at the given offset equals the given value (see
+	 * {@link Object#equals(Object)}). The default implementation reads the stored value; implementations should
+	 * compare without creating an object.
+	 *
+	 * @param value the value to compare, never {@code null}
+	 * @param buffer the buffer to read from
+	 * @param offset the offset of the first byte
+	 * @return if the stored value equals {@code value}
+	 */
+	public default boolean matches(T value, ByteBuffer buffer, int offset) {
+		return value.equals(read(buffer, offset));
+	}
+
+}
@@ -0,0 +1,429 @@
+package de.teiesti.proxy.mapped;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractSet;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A {@code MappedSet} is a set of fixed-width subjects which lives in a memory-mapped file instead of the heap. The
+ * subjects are stored by a {@link FixedWidthSerializer} in a hash table with open addressing and linear probing.
+ * Therefore opening a set maps the file instead of loading it, and neither the heap nor garbage collection pauses grow
+ * with the number of subjects. A {@code MappedSet} can be passed to a {@link de.teiesti.proxy.ProxySet} which creates
+ * the proxies lazily as usual.<br /><br />
+ *
+ * The file starts with a header followed by the slots of the hash table. Every slot consists of a state byte (free,
+ * used or removed) and the serialized subject. Because a single {@link MappedByteBuffer} is limited to 2 GB, the slots
+ * are mapped in segments. The capacity of the table (the number of slots) is fixed when the set is created. At most
+ * three quarters of the slots are used (see {@link #getMaximumSize()}), which bounds the length of the probe
+ * sequences; choose the capacity to be about twice the expected number of subjects. Adding fails with an
+ * {@link IllegalStateException} if the set holds the maximum number of subjects.<br /><br />
+ *
+ * Removed subjects leave a tombstone which is reused by a later {@link #add(Object)}. If subjects and tombstones
+ * together occupy the maximum number of slots, the table is rehashed in place: The tombstones are freed and the
+ * subjects are moved to their shortest probe sequences. Therefore adding and removing subjects repeatedly never fills
+ * the table with tombstones.<br /><br />
+ *
+ * {@code null} is not permitted. Iterators are fail-fast. This class is not thread-safe. Changes are written back to
+ * the file by the operating system; call {@link #force()} to write them immediately.
+ *
+ * @param <Subject> the type of the subject
+ */
+public final class MappedSet<Subject> extends AbstractSet<Subject> implements Closeable {
+
+	private static final long MAGIC = 0x50524f58594d5331L;        // "PROXYMS1"
+	private static final int HEADER = 64;
+	private static final int MAGIC_OFFSET = 0;
+	private static final int WIDTH_OFFSET = 8;
+	private static final int CAPACITY_OFFSET = 16;
+	private static final int SIZE_OFFSET = 24;
+	private static final int USED_OFFSET = 32;
+
+	private static final byte FREE = 0;
+	private static final byte FULL = 1;
+	private static final byte REMOVED = 2;
+
+	private final FileChannel channel;
+	private final FixedWidthSerializer<Subject> serializer;
+	private final MappedByteBuffer header;
+	private final MappedByteBuffer[] segments;
+
+	private final int slotSize;
+	private final int segmentShift;
+	private final long segmentMask;
+	private final long capacity;
+	private final long mask;
+	private final long maximumUsed;                 // at most 3/4 of the slots, and at least one slot stays free
+
+	private long size;
+	private long used;                              // occupied slots including tombstones
+	private int modCount;
+
+	private MappedSet(FileChannel channel, FixedWidthSerializer<Subject> serializer, long capacity) throws IOException {
+		this.channel = channel;
+		this.serializer = serializer;
+		this.slotSize = 1 + serializer.getWidth();
+		this.capacity = capacity;
+		this.mask = capacity - 1;
+		this.maximumUsed = Math.min(capacity - capacity / 4, capacity - 1);
+
+		long slotsPerSegment = Long.highestOneBit(Integer.MAX_VALUE / slotSize);
+		if (slotsPerSegment > capacity)
+			slotsPerSegment = capacity;
+		this.segmentShift = Long.numberOfTrailingZeros(slotsPerSegment);
+		this.segmentMask = slotsPerSegment - 1;
+
+		this.header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER);
+		this.segments = new MappedByteBuffer[(int) (capacity / slotsPerSegment)];
+		long segmentBytes = slotsPerSegment * slotSize;
+		for (int i = 0; i < segments.length; i++)
+			segments[i] = channel.map(FileChannel.MapMode.READ_WRITE, HEADER + i * segmentBytes, segmentBytes);
+	}
+
+	/**
+	 * Creates a new and empty {@code MappedSet} in the given file. If the file exists, it is overwritten.
+	 *
+	 * @param file the file
+	 * @param serializer the serializer of the subjects
+	 * @param capacity the number of slots, which is rounded up to a power of two
+	 * @param <Subject> the type of the subject
+	 * @return the new set
+	 * @throws IOException if the file cannot be created or mapped
+	 */
+	public static <Subject> MappedSet<Subject> create(Path file, FixedWidthSerializer<Subject> serializer,
+			long capacity) throws IOException {
+		if (file == null)
+			throw new IllegalArgumentException("file == null");
+		if (serializer == null)
+			throw new IllegalArgumentException("serializer == null");
+		if (capacity < 2)
+			throw new IllegalArgumentException("capacity < 2");
+		if (capacity > 1L << 40)
+			throw new IllegalArgumentException("capacity > 2^40");
+
+		long slots = Long.highestOneBit(capacity - 1) << 1;
+		FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+				StandardOpenOption.READ, StandardOpenOption.WRITE);
+		try {
+			MappedSet<Subject> result = new MappedSet<>(channel, serializer, slots);
+			result.header.putLong(MAGIC_OFFSET, MAGIC);
+			result.header.putInt(WIDTH_OFFSET, serializer.getWidth());
+			result.header.putLong(CAPACITY_OFFSET, slots);
+			result.writeCounts();
+			return result;
+		} catch (IOException | RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Opens a {@code MappedSet} which was created with {@link #create(Path, FixedWidthSerializer, long)}.
+	 *
+	 * @param file the file
+	 * @param serializer the serializer of the subjects, which must have the width the set was created with
+	 * @param <Subject> the type of the subject
+	 * @return the set stored in the file
+	 * @throws IOException if the file cannot be opened or mapped, or if it does not contain a set
+	 */
+	public static <Subject> MappedSet<Subject> open(Path file, FixedWidthSerializer<Subject> serializer)
+			throws IOException {
+		if (file == null)
+			throw new IllegalArgumentException("file == null");
+		if (serializer == null)
+			throw new IllegalArgumentException("serializer == null");
+
+		FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		try {
+			MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER);
+			if (header.getLong(MAGIC_OFFSET) != MAGIC)
+				throw new IOException(file + " does not contain a mapped set");
+			if (header.getInt(WIDTH_OFFSET) != serializer.getWidth())
+				throw new IOException(file + " contains subjects of width " + header.getInt(WIDTH_OFFSET));
+
+			MappedSet<Subject> result = new MappedSet<>(channel, serializer, header.getLong(CAPACITY_OFFSET));
+			result.size = header.getLong(SIZE_OFFSET);
+			result.used = header.getLong(USED_OFFSET);
+			return result;
+		} catch (IOException | RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @throws NullPointerException if the given subject is {@code null}
+	 * @throws IllegalStateException if this set holds the maximum number of subjects
+	 */
+	@Override
+	public boolean add(Subject e) {
+		if (e == null)
+			throw new NullPointerException("e == null");
+
+		long i = index(e);
+		long tombstone = -1;
+		for (byte state = state(i); state != FREE; state = state(i = (i + 1) & mask)) {
+			if (state == FULL && matches(e, i))
+				return false;
+			if (state == REMOVED && tombstone < 0)
+				tombstone = i;
+		}
+
+		if (size >= maximumUsed)
+			throw new IllegalStateException("capacity exceeded");
+		if (tombstone >= 0) {
+			i = tombstone;
+		} else {
+			if (used >= maximumUsed) {                          // size < used: there are tombstones to free
+				rehash();
+				i = index(e);
+				while (state(i) != FREE)
+					i = (i + 1) & mask;
+			}
+			used++;
+		}
+		serializer.write(e, segment(i), offset(i) + 1);
+		segment(i).put(offset(i), FULL);
+		size++;
+		modCount++;
+		writeCounts();
+		return true;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean contains(Object o) {
+		return find(o) >= 0;
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: The slot of the subject becomes a tombstone.
+	 */
+	@Override
+	public boolean remove(Object o) {
+		long i = find(o);
+		if (i < 0)
+			return false;
+
+		removeAt(i);
+		return true;
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: This method clears every slot and therefore takes time proportional to the capacity.
+	 */
+	@Override
+	public void clear() {
+		for (MappedByteBuffer segment : segments)
+			for (int i = 0; i < segment.capacity(); i += slotSize)
+				segment.put(i, FREE);
+		size = 0;
+		used = 0;
+		modCount++;
+		writeCounts();
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: Sets with more than {@link Integer#MAX_VALUE} subjects return {@link Integer#MAX_VALUE} (see
+	 * {@link #longSize()}).
+	 */
+	@Override
+	public int size() {
+		return (int) Math.min(size, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Returns the number of subjects in this set.
+	 *
+	 * @return the number of subjects
+	 */
+	public long longSize() {
+		return size;
+	}
+
+	/**
+	 * Returns the maximum number of subjects in this set, i.e. three quarters of the capacity.
+	 *
+	 * @return the maximum number of subjects
+	 */
+	public long getMaximumSize() {
+		return maximumUsed;
+	}
+
+	/**
+	 * Returns the number of slots in this set, i.e. the capacity which was given on creation rounded up to a power of
+	 * two.
+	 *
+	 * @return the capacity
+	 */
+	public long getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: The subjects are returned in the order of their slots. The returned iterator is fail-fast: Modifying this
+	 * set during the iteration (except through the iterator) causes a {@link ConcurrentModificationException}.
+	 */
+	@Override
+	public Iterator<Subject> iterator() {
+		return new Iterator<Subject>() {
+
+			private int expectedModCount = modCount;
+			private long next = advance(0);
+			private long last = -1;
+
+			private long advance(long i) {
+				while (i < capacity && state(i) != FULL)
+					i++;
+				return i;
+			}
+
+			@Override
+			public boolean hasNext() {
+				return next < capacity;
+			}
+
+			@Override
+			public Subject next() {
+				if (modCount != expectedModCount)
+					throw new ConcurrentModificationException();
+				if (next >= capacity)
+					throw new NoSuchElementException();
+
+				last = next;
+				next = advance(next + 1);
+				return serializer.read(segment(last), offset(last) + 1);
+			}
+
+			@Override
+			public void remove() {
+				if (last < 0)
+					throw new IllegalStateException();
+				if (modCount != expectedModCount)
+					throw new ConcurrentModificationException();
+
+				removeAt(last);
+				last = -1;
+				expectedModCount = modCount;
+			}
+
+		};
+	}
+
+	/**
+	 * Writes all changes to the file.
+	 */
+	public void force() {
+		header.force();
+		for (MappedByteBuffer segment : segments)
+			segment.force();
+	}
+
+	/**
+	 * Writes all changes to the file and closes it. The mapping itself is released by the garbage collector; the set
+	 * must not be used after it was closed.
+	 *
+	 * @throws IOException if the file cannot be closed
+	 */
+	@Override
+	public void close() throws IOException {
+		force();
+		channel.close();
+	}
+
+	private long find(Object o) {
+		if (o == null || !serializer.getType().isInstance(o))
+			return -1;
+		@SuppressWarnings("unchecked")
+		Subject s = (Subject) o;                                // safe because of the type check above
+
+		long i = index(s);
+		for (byte state = state(i); state != FREE; state = state(i = (i + 1) & mask))
+			if (state == FULL && matches(s, i))
+				return i;
+		return -1;
+	}
+
+	private void removeAt(long i) {
+		segment(i).put(offset(i), REMOVED);
+		size--;
+		modCount++;
+		writeCounts();
+	}
+
+	/**
+	 * Rehashes the table in place: All tombstones are freed, and every subject is moved to the first free slot of its
+	 * probe sequence. The slots are visited in probe order starting after a slot which was free before, thus no
+	 * probe sequence wraps around the start, and every subject which is visited can be moved to its own slot or to a
+	 * slot before it.
+	 */
+	private void rehash() {
+		long start = 0;
+		while (state(start) != FREE)                            // exists because used < capacity
+			start++;
+
+		for (long i = 0; i < capacity; i++)
+			if (state(i) == REMOVED)
+				segment(i).put(offset(i), FREE);
+
+		for (long k = 1; k <= capacity; k++) {
+			long i = (start + k) & mask;
+			if (state(i) != FULL)
+				continue;
+
+			Subject s = serializer.read(segment(i), offset(i) + 1);
+			segment(i).put(offset(i), FREE);
+			long j = index(s);
+			while (state(j) != FREE)
+				j = (j + 1) & mask;
+			if (j != i)
+				serializer.write(s, segment(j), offset(j) + 1);
+			segment(j).put(offset(j), FULL);
+		}
+
+		used = size;
+		modCount++;
+		writeCounts();
+	}
+
+	private boolean matches(Subject s, long i) {
+		return serializer.matches(s, segment(i), offset(i) + 1);
+	}
+
+	private long index(Object o) {
+		long h = o.hashCode() * 0x9E3779B97F4A7C15L;           // Fibonacci hashing spreads consecutive ids
+		return (h ^ (h >>> 32)) & mask;
+	}
+
+	private byte state(long i) {
+		return segment(i).get(offset(i));
+	}
+
+	private MappedByteBuffer segment(long i) {
+		return segments[(int) (i >>> segmentShift)];
+	}
+
+	private int offset(long i) {
+		return (int) (i & segmentMask) * slotSize;
+	}
+
+	private void writeCounts() {
+		header.putLong(SIZE_OFFSET, size);
+		header.putLong(USED_OFFSET, used);
+	}
+
+}
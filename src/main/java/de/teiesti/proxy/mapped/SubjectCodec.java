@@ -0,0 +1,132 @@
+package de.teiesti.proxy.mapped;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A {@code SubjectCodec} encodes subjects into a {@link ByteBuffer} and decodes them back. In contrast to a
+ * {@link FixedWidthSerializer}, an encoded subject may need a variable number of bytes, and every subject is encoded
+ * relative to its predecessor in the stream. Therefore numeric subjects can be stored as the difference to the
+ * previous subject, which needs a single byte for dense sorted ids (see {@link #INT} and {@link #LONG}).<br /><br />
+ *
+ * All methods use and advance the position of the buffer.
+ *
+ * @param <Subject> the type of the subject
+ */
+public interface SubjectCodec<Subject> {
+
+	/**
+	 * A codec for {@link Integer}s which stores the zigzag-encoded difference to the previous subject as a varint,
+	 * i.e. 7 bits per byte. A subject needs between 1 and 5 bytes.
+	 */
+	public static final SubjectCodec<Integer> INT = new SubjectCodec<Integer>() {
+		@Override
+		public int getMaximumSize() {
+			return 5;
+		}
+
+		@Override
+		public Class<?> getType() {
+			return Integer.class;
+		}
+
+		@Override
+		public void encode(Integer subject, Integer previous, ByteBuffer buffer) {
+			int delta = subject - (previous == null ? 0 : previous);
+			int zigzag = (delta << 1) ^ (delta >> 31);
+			while ((zigzag & ~0x7F) != 0) {
+				buffer.put((byte) ((zigzag & 0x7F) | 0x80));
+				zigzag >>>= 7;
+			}
+			buffer.put((byte) zigzag);
+		}
+
+		@Override
+		public Integer decode(Integer previous, ByteBuffer buffer) {
+			int zigzag = 0;
+			int shift = 0;
+			byte b;
+			do {
+				b = buffer.get();
+				zigzag |= (b & 0x7F) << shift;
+				shift += 7;
+			} while (b < 0);
+			int delta = (zigzag >>> 1) ^ -(zigzag & 1);
+			return (previous == null ? 0 : previous) + delta;
+		}
+	};
+
+	/**
+	 * A codec for {@link Long}s which stores the zigzag-encoded difference to the previous subject as a varint, i.e. 7
+	 * bits per byte. A subject needs between 1 and 10 bytes.
+	 */
+	public static final SubjectCodec<Long> LONG = new SubjectCodec<Long>() {
+		@Override
+		public int getMaximumSize() {
+			return 10;
+		}
+
+		@Override
+		public Class<?> getType() {
+			return Long.class;
+		}
+
+		@Override
+		public void encode(Long subject, Long previous, ByteBuffer buffer) {
+			long delta = subject - (previous == null ? 0 : previous);
+			long zigzag = (delta << 1) ^ (delta >> 63);
+			while ((zigzag & ~0x7FL) != 0) {
+				buffer.put((byte) ((zigzag & 0x7F) | 0x80));
+				zigzag >>>= 7;
+			}
+			buffer.put((byte) zigzag);
+		}
+
+		@Override
+		public Long decode(Long previous, ByteBuffer buffer) {
+			long zigzag = 0;
+			int shift = 0;
+			byte b;
+			do {
+				b = buffer.get();
+				zigzag |= (b & 0x7FL) << shift;
+				shift += 7;
+			} while (b < 0);
+			long delta = (zigzag >>> 1) ^ -(zigzag & 1);
+			return (previous == null ? 0 : previous) + delta;
+		}
+	};
+
+	/**
+	 * Returns the maximum number of bytes which are needed to encode a single subject.
+	 *
+	 * @return the maximum size of an encoded subject in bytes
+	 */
+	public int getMaximumSize();
+
+	/**
+	 * Returns the class of the subjects this codec works with. This method is needed by some algorithms because one
+	 * cannot obtain the class of a generic type.
+	 *
+	 * @return the class of the subjects this codec works with
+	 */
+	public Class<?> getType();
+
+	/**
+	 * Encodes the given subject into the given buffer.
+	 *
+	 * @param subject the subject to encode, never {@code null}
+	 * @param previous the subject which was encoded before or {@code null} if this is the first subject
+	 * @param buffer the buffer which has at least {@link #getMaximumSize()} bytes remaining
+	 */
+	public void encode(Subject subject, Subject previous, ByteBuffer buffer);
+
+	/**
+	 * Decodes the next subject from the given buffer.
+	 *
+	 * @param previous the subject which was decoded before or {@code null} if this is the first subject
+	 * @param buffer the buffer
+	 * @return the subject
+	 */
+	public Subject decode(Subject previous, ByteBuffer buffer);
+
+}
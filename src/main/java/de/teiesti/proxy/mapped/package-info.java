@@ -0,0 +1,6 @@
+/**
+ * This package provides sets of subjects which live outside of the heap, e.g. in memory-mapped files, and a compact
+ * format to store and ship sets of subjects. They are plain {@link java.util.Set}s and can be passed to a
+ * {@link de.teiesti.proxy.ProxySet} directly.
+ */
+package de.teiesti.proxy.mapped;
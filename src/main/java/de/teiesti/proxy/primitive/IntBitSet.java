@@ -0,0 +1,207 @@
+package de.teiesti.proxy.primitive;
+
+import java.util.BitSet;
+import java.util.ConcurrentModificationException;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * An {@code IntBitSet} is an {@link IntSet} which stores its values as bits of a {@link BitSet}. It can only hold
+ * non-negative values and needs one bit per value between zero and the largest value. Therefore it is the most compact
+ * representation of a dense range of ids, e.g. database keys: 50 million ids out of the range from 0 to 64 million need
+ * 8 MB.<br /><br />
+ *
+ * This class is not thread-safe.
+ */
+public class IntBitSet implements IntSet {
+
+	private BitSet bits;
+	private int size;
+
+	private int modCount;
+
+	/**
+	 * Creates a new and empty {@code IntBitSet}.
+	 */
+	public IntBitSet() {
+		this.bits = new BitSet();
+	}
+
+	/**
+	 * Creates a new and empty {@code IntBitSet} which can hold the values from {@code 0} (inclusive) to
+	 * {@code range} (exclusive) without growing.
+	 *
+	 * @param range the expected range of values
+	 */
+	public IntBitSet(int range) {
+		if (range < 0)
+			throw new IllegalArgumentException("range < 0");
+
+		this.bits = new BitSet(range);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @throws IllegalArgumentException if the given value is negative
+	 */
+	@Override
+	public boolean add(int value) {
+		if (value < 0)
+			throw new IllegalArgumentException("value < 0");
+
+		if (bits.get(value))
+			return false;
+		bits.set(value);
+		size++;
+		modCount++;
+		return true;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean remove(int value) {
+		if (value < 0 || !bits.get(value))
+			return false;
+		bits.clear(value);
+		size--;
+		modCount++;
+		return true;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean contains(int value) {
+		return value >= 0 && bits.get(value);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void clear() {
+		bits.clear();
+		size = 0;
+		modCount++;
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: The values are returned in ascending order. The returned iterator is fail-fast: Modifying this set during
+	 * the iteration (except through the iterator) causes a {@link ConcurrentModificationException}.
+	 */
+	@Override
+	public PrimitiveIterator.OfInt iterator() {
+		return new PrimitiveIterator.OfInt() {
+
+			private int expectedModCount = modCount;
+			private int next = bits.nextSetBit(0);
+			private int last = -1;
+
+			@Override
+			public boolean hasNext() {
+				return next >= 0;
+			}
+
+			@Override
+			public int nextInt() {
+				if (modCount != expectedModCount)
+					throw new ConcurrentModificationException();
+				if (next < 0)
+					throw new NoSuchElementException();
+
+				last = next;
+				next = next == Integer.MAX_VALUE ? -1 : bits.nextSetBit(next + 1);
+				return last;
+			}
+
+			@Override
+			public void remove() {
+				if (last < 0)
+					throw new IllegalStateException();
+				if (modCount != expectedModCount)
+					throw new ConcurrentModificationException();
+
+				bits.clear(last);
+				size--;
+				last = -1;
+				expectedModCount = ++modCount;
+			}
+
+		};
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int hashCode() {
+		int result = 0;
+		for (int i = bits.nextSetBit(0); i >= 0; i = i == Integer.MAX_VALUE ? -1 : bits.nextSetBit(i + 1))
+			result += i;
+		return result;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj instanceof IntBitSet)
+			return bits.equals(((IntBitSet) obj).bits);
+		if (obj instanceof IntSet) {
+			IntSet other = (IntSet) obj;
+			if (size != other.size())
+				return false;
+			PrimitiveIterator.OfInt it = other.iterator();
+			while (it.hasNext())
+				if (!contains(it.nextInt())) return false;
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		StringBuilder result = new StringBuilder();
+
+		result.append("[");
+
+		PrimitiveIterator.OfInt it = iterator();
+		if (it.hasNext()) result.append(it.nextInt());
+		while (it.hasNext()) {
+			result.append(", ");
+			result.append(it.nextInt());
+		}
+
+		result.append("]");
+
+		return result.toString();
+	}
+
+}
@@ -0,0 +1,338 @@
+package de.teiesti.proxy.primitive;
+
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * An {@code IntHashSet} is an {@link IntSet} which stores its values in a single {@code int} array using open
+ * addressing with linear probing. In contrast to a {@code HashSet<Integer>} which needs about 40 bytes per element
+ * (a boxed value plus a node), an {@code IntHashSet} needs between 4 and 8 bytes per element, and neither
+ * {@link #contains(int)} nor {@link #add(int)} allocate (except for growing the table).<br /><br />
+ *
+ * Removed values are marked by a tombstone which is dropped when the table is rebuilt. Therefore removing a value
+ * while iterating never moves any other value.<br /><br />
+ *
+ * This class is not thread-safe.
+ */
+public class IntHashSet implements IntSet {
+
+	private static final int FREE = 0;
+	private static final int REMOVED = Integer.MIN_VALUE;
+
+	private static final int MINIMUM_CAPACITY = 16;
+	private static final int MAXIMUM_CAPACITY = 1 << 30;
+	private static final float LOAD_FACTOR = 0.75f;
+
+	private int[] table;
+	private int mask;
+	private int maxUsed;
+
+	private int size;
+	private int used;                           // occupied slots including tombstones
+	private boolean containsFree;               // FREE and REMOVED are stored outside of the table
+	private boolean containsRemoved;
+
+	private int modCount;
+
+	/**
+	 * Creates a new and empty {@code IntHashSet}.
+	 */
+	public IntHashSet() {
+		this(MINIMUM_CAPACITY);
+	}
+
+	/**
+	 * Creates a new and empty {@code IntHashSet} which can hold the given number of values without growing.
+	 *
+	 * @param expectedSize the expected number of values
+	 */
+	public IntHashSet(int expectedSize) {
+		if (expectedSize < 0)
+			throw new IllegalArgumentException("expectedSize < 0");
+
+		allocate(capacityFor(expectedSize));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean add(int value) {
+		if (value == FREE) {
+			if (containsFree) return false;
+			containsFree = true;
+			size++;
+			modCount++;
+			return true;
+		}
+		if (value == REMOVED) {
+			if (containsRemoved) return false;
+			containsRemoved = true;
+			size++;
+			modCount++;
+			return true;
+		}
+
+		int i = index(value);
+		int tombstone = -1;
+		for (int current = table[i]; current != FREE; current = table[i = (i + 1) & mask]) {
+			if (current == value)
+				return false;
+			if (current == REMOVED && tombstone < 0)
+				tombstone = i;
+		}
+
+		if (tombstone >= 0) {
+			table[tombstone] = value;
+		} else {
+			table[i] = value;
+			if (++used > maxUsed)
+				rehash();
+		}
+		size++;
+		modCount++;
+		return true;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean remove(int value) {
+		if (value == FREE) {
+			if (!containsFree) return false;
+			containsFree = false;
+			size--;
+			modCount++;
+			return true;
+		}
+		if (value == REMOVED) {
+			if (!containsRemoved) return false;
+			containsRemoved = false;
+			size--;
+			modCount++;
+			return true;
+		}
+
+		int i = find(value);
+		if (i < 0)
+			return false;
+
+		table[i] = REMOVED;
+		size--;
+		modCount++;
+		return true;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean contains(int value) {
+		if (value == FREE)
+			return containsFree;
+		if (value == REMOVED)
+			return containsRemoved;
+		return find(value) >= 0;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: The capacity of this set is retained.
+	 */
+	@Override
+	public void clear() {
+		Arrays.fill(table, FREE);
+		size = 0;
+		used = 0;
+		containsFree = false;
+		containsRemoved = false;
+		modCount++;
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: The returned iterator is fail-fast: Modifying this set during the iteration (except through the iterator)
+	 * causes a {@link ConcurrentModificationException}.
+	 */
+	@Override
+	public PrimitiveIterator.OfInt iterator() {
+		return new Iter();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int hashCode() {
+		int result = 0;
+		PrimitiveIterator.OfInt it = iterator();
+		while (it.hasNext())
+			result += it.nextInt();
+		return result;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj instanceof IntSet) {
+			IntSet other = (IntSet) obj;
+			if (size != other.size())
+				return false;
+			PrimitiveIterator.OfInt it = other.iterator();
+			while (it.hasNext())
+				if (!contains(it.nextInt())) return false;
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		StringBuilder result = new StringBuilder();
+
+		result.append("[");
+
+		PrimitiveIterator.OfInt it = iterator();
+		if (it.hasNext()) result.append(it.nextInt());
+		while (it.hasNext()) {
+			result.append(", ");
+			result.append(it.nextInt());
+		}
+
+		result.append("]");
+
+		return result.toString();
+	}
+
+	private int find(int value) {
+		int i = index(value);
+		for (int current = table[i]; current != FREE; current = table[i = (i + 1) & mask])
+			if (current == value)
+				return i;
+		return -1;
+	}
+
+	private int index(int value) {
+		int h = value * 0x9E3779B9;             // Fibonacci hashing spreads consecutive ids
+		return (h ^ (h >>> 16)) & mask;
+	}
+
+	private void rehash() {
+		int[] old = table;
+
+		// grow if the live values need it, otherwise just drop the tombstones
+		allocate(Math.max(capacityFor(size), old.length));
+
+		for (int value : old) {
+			if (value != FREE && value != REMOVED) {
+				int i = index(value);
+				while (table[i] != FREE)
+					i = (i + 1) & mask;
+				table[i] = value;
+				used++;
+			}
+		}
+	}
+
+	private void allocate(int capacity) {
+		table = new int[capacity];
+		mask = capacity - 1;
+		maxUsed = Math.min((int) (capacity * LOAD_FACTOR), capacity - 1);
+		used = 0;
+	}
+
+	private static int capacityFor(int expectedSize) {
+		long needed = (long) Math.ceil(expectedSize / (double) LOAD_FACTOR) + 1;
+		if (needed > MAXIMUM_CAPACITY)
+			throw new IllegalStateException("too many values");
+
+		int capacity = MINIMUM_CAPACITY;
+		while (capacity < needed)
+			capacity <<= 1;
+		return capacity;
+	}
+
+	private class Iter implements PrimitiveIterator.OfInt {
+
+		private int expectedModCount = modCount;
+		private int next = -3;                  // -2: FREE value, -1: REMOVED value, otherwise table index
+		private int last = Integer.MIN_VALUE;   // position of the last returned value or MIN_VALUE
+
+		private Iter() {
+			advance();
+		}
+
+		private void advance() {
+			next++;
+			if (next == -2 && !containsFree) next++;
+			if (next == -1 && !containsRemoved) next++;
+			if (next < 0) return;
+			while (next < table.length && (table[next] == FREE || table[next] == REMOVED))
+				next++;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return next < table.length;
+		}
+
+		@Override
+		public int nextInt() {
+			if (modCount != expectedModCount)
+				throw new ConcurrentModificationException();
+			if (!hasNext())
+				throw new NoSuchElementException();
+
+			last = next;
+			int result = next == -2 ? FREE : next == -1 ? REMOVED : table[next];
+			advance();
+			return result;
+		}
+
+		@Override
+		public void remove() {
+			if (last == Integer.MIN_VALUE)
+				throw new IllegalStateException();
+			if (modCount != expectedModCount)
+				throw new ConcurrentModificationException();
+
+			if (last == -2)
+				containsFree = false;
+			else if (last == -1)
+				containsRemoved = false;
+			else
+				table[last] = REMOVED;
+			size--;
+			last = Integer.MIN_VALUE;
+			expectedModCount = ++modCount;
+		}
+
+	}
+
+}
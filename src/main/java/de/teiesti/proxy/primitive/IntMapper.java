@@ -0,0 +1,40 @@
+package de.teiesti.proxy.primitive;
+
+import de.teiesti.proxy.Mapper;
+
+/**
+ * An {@code IntMapper} is the {@code int} specialization of a {@link Mapper}: It converts a generic proxy object into
+ * its {@code int} subject and vice-versa without boxing the subject.
+ *
+ * @param <Proxy> the type of the proxy
+ */
+public interface IntMapper<Proxy> {
+
+	/**
+	 * Returns a proxy object associated to the given subject. Among multiple method calls with the same subject the
+	 * returned proxy need not be the same. However, different proxies for the same subject must be equal (see
+	 * {@link Object#equals(Object)}).
+	 *
+	 * @param subject the subject to convert into its proxy
+	 * @return a proxy object associated to the given subject
+	 */
+	public Proxy getProxy(int subject);
+
+	/**
+	 * Returns the subject the given proxy is associated to. Because one proxy always points to a single subject,
+	 * this method returns the same value among different method calls with the same (or an equal) proxy.
+	 *
+	 * @param proxy the proxy to convert into its subject
+	 * @return the subject the given proxy is associated to
+	 */
+	public int getSubject(Proxy proxy);
+
+	/**
+	 * Returns the class of the proxies this mapper works with. This method is needed by some algorithms because one
+	 * cannot obtain the class of a generic type.
+	 *
+	 * @return the class of the proxies this mapper works with
+	 */
+	public Class<?> getProxyClass();
+
+}
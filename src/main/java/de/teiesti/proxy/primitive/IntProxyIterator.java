@@ -0,0 +1,70 @@
+package de.teiesti.proxy.primitive;
+
+import java.util.Iterator;
+import java.util.PrimitiveIterator;
+
+import de.teiesti.proxy.ProxyIterator;
+
+/**
+ * An {@code IntProxyIterator} is the {@code int} specialization of a {@link ProxyIterator}: It iterates over the
+ * associated proxies in the same order as a given {@link PrimitiveIterator.OfInt} iterates over the subjects. The
+ * subjects are never boxed.
+ *
+ * @param <Proxy> the type of the proxy
+ */
+public class IntProxyIterator<Proxy> implements Iterator<Proxy> {
+
+	private PrimitiveIterator.OfInt subjects;
+	private IntMapper<Proxy> mapper;
+
+	/**
+	 * Creates an {@code IntProxyIterator} from a given subject iterator with the help of an {@link IntMapper}. The
+	 * mapper is used to create a proxy for each subject (which is needed).
+	 *
+	 * @param subjects an iterator over some subjects
+	 * @param mapper a mapper which maps the subjects to the proxies
+	 */
+	public IntProxyIterator(PrimitiveIterator.OfInt subjects, IntMapper<Proxy> mapper) {
+		if (subjects == null)
+			throw new IllegalArgumentException("subjects == null");
+		if (mapper == null)
+			throw new IllegalArgumentException("mapper == null");
+
+		this.subjects = subjects;
+		this.mapper = mapper;
+	}
+
+	/**
+	 * Returns if this iterator has a next proxy. This method return {@code true} if and only if the underlying
+	 * iterator has a next subject.
+	 *
+	 * @return if this iterator has a next proxy
+	 */
+	@Override
+	public boolean hasNext() {
+		return subjects.hasNext();
+	}
+
+	/**
+	 * Returns the next proxy in this iterator. This is done in two steps: First the next subject is taken from the
+	 * underlying iterator. Second the taken subject is converted to a proxy using the
+	 * {@link IntMapper#getProxy(int)}-method.
+	 *
+	 * @return the next proxy
+	 */
+	@Override
+	public Proxy next() {
+		return mapper.getProxy(subjects.nextInt());
+	}
+
+	/**
+	 * Removes - if supported - the current proxy from the associated set. This method is transparent which means
+	 * that calling this method removes the subject from the set which is associated to the underlying subject
+	 * iterator.
+	 */
+	@Override
+	public void remove() {
+		subjects.remove();
+	}
+
+}
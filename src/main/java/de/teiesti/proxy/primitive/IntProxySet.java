@@ -0,0 +1,316 @@
+package de.teiesti.proxy.primitive;
+
+import java.lang.reflect.Array;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.PrimitiveIterator;
+import java.util.Set;
+
+import de.teiesti.proxy.ProxySet;
+
+/**
+ * An {@code IntProxySet} is the {@code int} specialization of a {@link ProxySet}: It provides a "proxy view" to a set
+ * of {@code int} subjects by the help of an {@link IntMapper}. The subjects are stored in an {@link IntSet} (e.g. an
+ * {@link IntHashSet} or, for dense ranges of ids, an {@link IntBitSet}) and are never boxed. Therefore
+ * {@link #contains(Object)}, {@link #add(Object)} and {@link #remove(Object)} do not allocate anything except what the
+ * mapper allocates.<br /><br />
+ *
+ * Be careful: The {@code IntProxySet} is transparent to changes which means that changing this set changes the
+ * underlying set of subjects and vice versa.
+ *
+ * @param <Proxy> the type of the proxy
+ */
+public class IntProxySet<Proxy> implements Set<Proxy> {
+
+	private IntSet subjects;
+	private IntMapper<Proxy> mapper;
+
+	/**
+	 * Creates a new {@code IntProxySet} which encapsulates a given set of subjects by the help of an
+	 * {@link IntMapper}.
+	 *
+	 * @param subjects the set of subjects
+	 * @param mapper a mapper mapping subjects to proxies
+	 */
+	public IntProxySet(IntSet subjects, IntMapper<Proxy> mapper) {
+		if (subjects == null)
+			throw new IllegalArgumentException("subjects == null");
+		if (mapper == null)
+			throw new IllegalArgumentException("mapper == null");
+
+		this.subjects = subjects;
+		this.mapper = mapper;
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: This method modifies the underlying set of subjects.
+	 */
+	@Override
+	public boolean add(Proxy e) {
+		return subjects.add(mapper.getSubject(e));
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: This method modifies the underlying set of subjects. If the given collection is an {@code IntProxySet}
+	 * sharing the mapper of this set, the subjects are added directly without mapping anything.
+	 */
+	@Override
+	public boolean addAll(Collection<? extends Proxy> c) {
+		IntSet shared = sharedSubjects(c);
+		if (shared != null) {
+			boolean result = false;
+			PrimitiveIterator.OfInt it = shared.iterator();
+			while (it.hasNext())
+				result |= subjects.add(it.nextInt());
+			return result;
+		}
+
+		boolean result = false;
+		for (Proxy p : c) {
+			result |= add(p);
+		}
+		return result;
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: This method modifies the underlying set of subjects.
+	 */
+	@Override
+	public void clear() {
+		subjects.clear();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean contains(Object o) {
+		if (o != null && mapper.getProxyClass().isInstance(o)) {
+			// black magic: see ProxySet#contains(Object); null cannot be mapped to an int
+			@SuppressWarnings("unchecked")
+			Proxy p = (Proxy) o;
+
+			return subjects.contains(mapper.getSubject(p));
+		} else return false;
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: If the given collection is an {@code IntProxySet} sharing the mapper of this set, this method works
+	 * directly on the two underlying sets of subjects and does not map anything.
+	 */
+	@Override
+	public boolean containsAll(Collection<?> c) {
+		IntSet shared = sharedSubjects(c);
+		if (shared != null) {
+			PrimitiveIterator.OfInt it = shared.iterator();
+			while (it.hasNext())
+				if (!subjects.contains(it.nextInt())) return false;
+			return true;
+		}
+
+		for (Object o : c)
+			if (!contains(o)) return false;
+		return true;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean isEmpty() {
+		return subjects.isEmpty();
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: Invoking the {@link Iterator#remove()}-method affects the underlying set of subjects, too.
+	 */
+	@Override
+	public Iterator<Proxy> iterator() {
+		return new IntProxyIterator<Proxy>(subjects.iterator(), mapper);
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: This method modifies the underlying set of subjects.
+	 */
+	@Override
+	public boolean remove(Object o) {
+		if (o != null && mapper.getProxyClass().isInstance(o)) {
+			// black magic: see ProxySet#contains(Object); null cannot be mapped to an int
+			@SuppressWarnings("unchecked")
+			Proxy p = (Proxy) o;
+
+			return subjects.remove(mapper.getSubject(p));
+		} else return false;
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: This method modifies the underlying set of subjects. If the given collection is an {@code IntProxySet}
+	 * sharing the mapper of this set, the subjects are removed directly without mapping anything.
+	 */
+	@Override
+	public boolean removeAll(Collection<?> c) {
+		IntSet shared = sharedSubjects(c);
+		if (shared != null) {
+			if (shared == subjects) {
+				boolean result = !subjects.isEmpty();
+				subjects.clear();
+				return result;
+			}
+
+			boolean result = false;
+			PrimitiveIterator.OfInt it = shared.iterator();
+			while (it.hasNext())
+				result |= subjects.remove(it.nextInt());
+			return result;
+		}
+
+		boolean result = false;
+		for (Object p : c) {
+			result |= remove(p);
+		}
+		return result;
+	}
+
+	/**
+	 * {@inheritDoc}<br /><br />
+	 * Note: This method modifies the underlying set of subjects. If the given collection is an {@code IntProxySet}
+	 * sharing the mapper of this set, the subjects are retained directly without mapping anything.
+	 */
+	@Override
+	public boolean retainAll(Collection<?> c) {
+		IntSet shared = sharedSubjects(c);
+		boolean result = false;
+		if (shared != null) {
+			PrimitiveIterator.OfInt it = subjects.iterator();
+			while (it.hasNext()) {
+				if (!shared.contains(it.nextInt())) {
+					result = true;
+					it.remove();
+				}
+			}
+			return result;
+		}
+
+		Iterator<Proxy> it = iterator();
+		while (it.hasNext()) {
+			if (!c.contains(it.next())) {
+				result = true;
+				it.remove();
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int size() {
+		return subjects.size();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Object[] toArray() {
+		Object[] result = new Object[size()];
+		int i = 0;
+		PrimitiveIterator.OfInt it = subjects.iterator();
+		while (it.hasNext()) {
+			result[i++] = mapper.getProxy(it.nextInt());
+		}
+		return result;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public <T> T[] toArray(T[] a) {
+		if (!a.getClass().getComponentType().isAssignableFrom(mapper.getProxyClass())) {    // black magic
+			throw new ArrayStoreException();
+		}
+
+		if (a.length < size())
+			a = (T[]) Array.newInstance(a.getClass().getComponentType(), size());
+
+		int i = 0;
+		PrimitiveIterator.OfInt it = subjects.iterator();
+		while (it.hasNext()) {
+			a[i++] = (T) mapper.getProxy(it.nextInt());
+		}
+		return a;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		StringBuilder result = new StringBuilder();
+
+		result.append("[");
+
+		Iterator<Proxy> it = this.iterator();
+		if (it.hasNext()) result.append(it.next());
+		while (it.hasNext()) {
+			result.append(", ");
+			result.append(it.next());
+		}
+
+		result.append("]");
+
+		return result.toString();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int hashCode() {
+		int result = 0;
+		for (Proxy p : this)
+			result += p == null ? 0 : p.hashCode();
+		return result;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj instanceof Set<?>) {
+			Set<?> other = (Set<?>) obj;
+			return this.size() == other.size() && this.containsAll(other);
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the underlying set of subjects of the given collection if it is an {@code IntProxySet} sharing the
+	 * mapper of this set (see {@link ProxySet}). Otherwise, this method returns {@code null}.
+	 *
+	 * @param c a collection
+	 * @return the underlying set of subjects of {@code c} or {@code null} if {@code c} does not share the mapper
+	 */
+	private IntSet sharedSubjects(Collection<?> c) {
+		if (c instanceof IntProxySet<?>) {
+			IntProxySet<?> other = (IntProxySet<?>) c;
+			if (mapper.equals(other.mapper))
+				return other.subjects;
+		}
+		return null;
+	}
+
+}
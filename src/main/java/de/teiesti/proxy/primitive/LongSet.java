@@ -0,0 +1,61 @@
+package de.teiesti.proxy.primitive;
+
+import java.util.PrimitiveIterator;
+
+/**
+ * A {@code LongSet} is a set of {@code long} values which are stored without boxing. It provides the subset of the
+ * {@link java.util.Set} operations which is needed to back an {@link LongProxySet}.
+ */
+public interface LongSet {
+
+	/**
+	 * Adds the given value to this set if it is not already present.
+	 *
+	 * @param value the value to add
+	 * @return {@code true} if this set did not already contain the given value
+	 */
+	public boolean add(long value);
+
+	/**
+	 * Removes the given value from this set if it is present.
+	 *
+	 * @param value the value to remove
+	 * @return {@code true} if this set contained the given value
+	 */
+	public boolean remove(long value);
+
+	/**
+	 * Returns if this set contains the given value.
+	 *
+	 * @param value the value whose presence is to be tested
+	 * @return {@code true} if this set contains the given value
+	 */
+	public boolean contains(long value);
+
+	/**
+	 * Returns the number of values in this set.
+	 *
+	 * @return the number of values in this set
+	 */
+	public int size();
+
+	/**
+	 * Returns if this set contains no values.
+	 *
+	 * @return {@code true} if this set contains no values
+	 */
+	public boolean isEmpty();
+
+	/**
+	 * Removes all values from this set.
+	 */
+	public void clear();
+
+	/**
+	 * Returns an iterator over the values in this set. The iterator supports {@link PrimitiveIterator.OfLong#remove()}.
+	 *
+	 * @return an iterator over the values in this set
+	 */
+	public PrimitiveIterator.OfLong iterator();
+
+}
@@ -0,0 +1,5 @@
+/**
+ * This package provides primitive specializations of the proxy data structures: Subjects are plain {@code int} or
+ * {@code long} values (e.g. database keys) which are stored without boxing.
+ */
+package de.teiesti.proxy.primitive;
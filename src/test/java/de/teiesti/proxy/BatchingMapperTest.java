@@ -0,0 +1,151 @@
+package de.teiesti.proxy;
+
+import static org.junit.Assert.*;
+import static org.hamcrest.CoreMatchers.*;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class BatchingMapperTest {
+
+	private static final int THREADS = 16;
+
+	private AtomicInteger loads;
+	private List<Collection<? extends String>> batches;
+	private Mapper<String, Integer> remote;
+	private ExecutorService executor;
+
+	@Before
+	public void setup() throws Exception {
+		loads = new AtomicInteger();
+		batches = new ArrayList<>();
+		remote = new Mapper<String, Integer>() {
+			@Override
+			public String getProxy(Integer subject) {
+				return subject.toString();
+			}
+
+			@Override
+			public Integer getSubject(String proxy) {
+				return getSubjects(Collections.singletonList(proxy)).get(0);
+			}
+
+			@Override
+			public List<Integer> getSubjects(Collection<? extends String> proxies) {
+				loads.incrementAndGet();
+				synchronized (batches) {
+					batches.add(new ArrayList<>(proxies));
+				}
+				sleep(10);                                          // simulates a round trip
+				List<Integer> result = new ArrayList<>();
+				for (String p : proxies) {
+					if (p.equals("fail"))
+						throw new IllegalStateException("remote failure");
+					result.add(Integer.valueOf(p));
+				}
+				return result;
+			}
+
+			@Override
+			public Class<?> getProxyClass() {
+				return String.class;
+			}
+
+			@Override
+			public Class<?> getSubjectClass() {
+				return Integer.class;
+			}
+		};
+		executor = Executors.newFixedThreadPool(THREADS);
+	}
+
+	@After
+	public void teardown() throws Exception {
+		executor.shutdownNow();
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private List<Future<Integer>> concurrently(Mapper<String, Integer> mapper, String... proxies) {
+		List<Future<Integer>> result = new ArrayList<>();
+		for (String p : proxies)
+			result.add(executor.submit((Callable<Integer>) () -> mapper.getSubject(p)));
+		return result;
+	}
+
+	@Test
+	public void getSubject_batches() throws Exception {
+		// the window never elapses, so the batch is loaded exactly when all calls joined it
+		BatchingMapper<String, Integer> batching = new BatchingMapper<>(remote, 1, TimeUnit.MINUTES, THREADS);
+		String[] proxies = new String[THREADS];
+		for (int i = 0; i < THREADS; i++)
+			proxies[i] = Integer.toString(i);
+
+		List<Future<Integer>> results = concurrently(batching, proxies);
+
+		for (int i = 0; i < THREADS; i++)
+			assertThat(results.get(i).get(10, TimeUnit.SECONDS), is(i));
+		assertThat(loads.get(), is(1));
+		assertThat(batches.get(0).size(), is(THREADS));
+		assertThat(batching.getBatchCount(), is(1L));
+	}
+
+	@Test
+	public void getSubject_deduplicates() throws Exception {
+		BatchingMapper<String, Integer> batching = new BatchingMapper<>(remote, 20, TimeUnit.MILLISECONDS, 1000);
+		String[] proxies = new String[THREADS];
+		for (int i = 0; i < THREADS; i++)
+			proxies[i] = "42";
+
+		for (Future<Integer> result : concurrently(batching, proxies))
+			assertThat(result.get(), is(42));
+		for (Collection<? extends String> batch : batches)
+			assertThat(batch.size(), is(new HashSet<>(batch).size()));
+	}
+
+	@Test
+	public void getSubject_maximumBatchSize() throws Exception {
+		BatchingMapper<String, Integer> batching = new BatchingMapper<>(remote, 1, TimeUnit.MINUTES, 2);
+
+		List<Future<Integer>> results = concurrently(batching, "1", "2", "3", "4", "5", "6");
+
+		for (int i = 0; i < results.size(); i++)
+			assertThat(results.get(i).get(10, TimeUnit.SECONDS), is(i + 1));   // does not wait for the window
+		assertThat(loads.get(), is(3));
+		for (Collection<? extends String> batch : batches)
+			assertThat(batch.size(), is(2));
+	}
+
+	@Test
+	public void getSubject_failure() throws Exception {
+		BatchingMapper<String, Integer> batching = new BatchingMapper<>(remote, 0, TimeUnit.MILLISECONDS, 1);
+
+		try {
+			batching.getSubject("fail");
+			fail();
+		} catch (IllegalStateException e) {
+			assertThat(e.getMessage(), is("remote failure"));
+		}
+		assertThat(batching.getSubject("7"), is(7));
+	}
+
+}
@@ -0,0 +1,153 @@
+package de.teiesti.proxy;
+
+import static org.junit.Assert.*;
+import static org.hamcrest.CoreMatchers.*;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class CachingMapperTest {
+
+	private Mapper<String, Integer> mapper;
+
+	@Before
+	public void setup() throws Exception {
+		mapper = new Mapper<String, Integer>() {
+			@Override
+			public String getProxy(Integer subject) {
+				return new String(subject.toString());	// a new object on every call
+			}
+
+			@Override
+			public Integer getSubject(String proxy) {
+				return Integer.valueOf(proxy);
+			}
+
+			@Override
+			public Class<?> getProxyClass() {
+				return String.class;
+			}
+
+			@Override
+			public Class<?> getSubjectClass() {
+				return Integer.class;
+			}
+		};
+	}
+
+	@Test
+	public void unbounded_getProxy_same() {
+		CachingMapper<String, Integer> caching = new CachingMapper<>(mapper, CachingMapper.Policy.UNBOUNDED);
+
+		String first = caching.getProxy(42);
+		String second = caching.getProxy(42);
+
+		assertSame(first, second);
+		assertThat(caching.getMissCount(), is(1L));
+		assertThat(caching.getHitCount(), is(1L));
+		assertThat(caching.getEvictionCount(), is(0L));
+	}
+
+	@Test
+	public void weak_getProxy_same() {
+		CachingMapper<String, Integer> caching = new CachingMapper<>(mapper);
+		Integer subject = 4242;
+
+		String first = caching.getProxy(subject);
+		String second = caching.getProxy(subject);
+
+		assertSame(first, second);
+		assertThat(caching.getMissCount(), is(1L));
+		assertThat(caching.getHitCount(), is(1L));
+	}
+
+	@Test
+	public void lru_evictsEldest() {
+		CachingMapper<String, Integer> caching = new CachingMapper<>(mapper, 2);
+
+		String one = caching.getProxy(1);
+		caching.getProxy(2);
+		caching.getProxy(1);	// 2 is now the least recently used subject
+		caching.getProxy(3);
+
+		assertThat(caching.size(), is(2));
+		assertThat(caching.getEvictionCount(), is(1L));
+		assertSame(one, caching.getProxy(1));
+
+		caching.getProxy(2);
+		assertThat(caching.getMissCount(), is(4L));
+		assertThat(caching.getEvictionCount(), is(2L));
+	}
+
+	@Test
+	public void getSubject_forwarded() {
+		CachingMapper<String, Integer> caching = new CachingMapper<>(mapper, CachingMapper.Policy.UNBOUNDED);
+
+		assertThat(caching.getSubject("42"), is(42));
+		assertThat(caching.getHitCount() + caching.getMissCount(), is(0L));
+	}
+
+	@Test
+	public void proxySet_iterator_noAllocationWhenWarm() {
+		Set<Integer> subjects = new HashSet<>();
+		for (int i = 0; i < 100; i++)
+			subjects.add(i);
+
+		CachingMapper<String, Integer> caching = new CachingMapper<>(mapper, CachingMapper.Policy.UNBOUNDED);
+		ProxySet<String, Integer> proxies = new ProxySet<>(subjects, caching);
+
+		Set<String> first = new HashSet<>();
+		for (String p : proxies)
+			first.add(p);
+
+		Iterator<String> it = proxies.iterator();
+		while (it.hasNext()) {
+			String p = it.next();
+			assertTrue(first.contains(p));
+		}
+
+		assertThat(caching.getMissCount(), is(100L));
+		assertThat(caching.getHitCount(), is(100L));
+	}
+
+	@Test
+	public void unbounded_getProxy_concurrent() throws Exception {
+		final CachingMapper<String, Integer> caching = new CachingMapper<>(mapper, CachingMapper.Policy.UNBOUNDED);
+		final Set<String> proxies = Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<>()));
+		final CountDownLatch start = new CountDownLatch(1);
+
+		Thread[] threads = new Thread[8];
+		for (int i = 0; i < threads.length; i++) {
+			threads[i] = new Thread(() -> {
+				try {
+					start.await();
+				} catch (InterruptedException e) {
+					return;
+				}
+				for (int j = 0; j < 1000; j++)
+					proxies.add(caching.getProxy(j % 10));
+			});
+			threads[i].start();
+		}
+		start.countDown();
+		for (Thread t : threads)
+			t.join();
+
+		assertThat(proxies.size(), is(10));	// every thread got the same proxy for each subject
+		assertThat(caching.size(), is(10));
+		assertThat(caching.getHitCount() + caching.getMissCount(), is(8000L));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void lru_withoutMaximumSize() {
+		new CachingMapper<>(mapper, CachingMapper.Policy.LRU);
+	}
+
+}
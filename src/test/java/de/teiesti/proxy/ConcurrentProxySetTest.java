@@ -0,0 +1,101 @@
+package de.teiesti.proxy;
+
+import static org.junit.Assert.*;
+import static org.hamcrest.CoreMatchers.*;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class ConcurrentProxySetTest {
+
+	private ConcurrentProxySet<String, Integer> proxies;
+
+	@Before
+	public void setup() throws Exception {
+		proxies = new ConcurrentProxySet<>(new Mapper<String, Integer>() {
+			@Override
+			public String getProxy(Integer subject) {
+				return subject.toString();
+			}
+
+			@Override
+			public Integer getSubject(String proxy) {
+				return Integer.valueOf(proxy);
+			}
+
+			@Override
+			public Class<?> getProxyClass() {
+				return String.class;
+			}
+
+			@Override
+			public Class<?> getSubjectClass() {
+				return Integer.class;
+			}
+		});
+	}
+
+	@Test
+	public void iterator_modifiedDuringIteration() {
+		for (int i = 0; i < 100; i++)
+			proxies.add(Integer.toString(i));
+
+		Iterator<String> it = proxies.iterator();
+		while (it.hasNext()) {
+			String p = it.next();
+			proxies.remove(p);				// would throw a ConcurrentModificationException using a HashSet
+			proxies.add(Integer.toString(-Integer.valueOf(p) - 1));
+		}
+
+		assertThat(proxies.size(), is(100));
+		assertThat(proxies.toArray().length, is(100));
+	}
+
+	@Test
+	public void concurrent_addRemoveContains() throws Exception {
+		final int threads = 8;
+		final int perThread = 10000;
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<Integer>> results = new ArrayList<>();
+			for (int t = 0; t < threads; t++) {
+				final int offset = t * perThread;
+				results.add(executor.submit(new Callable<Integer>() {
+					@Override
+					public Integer call() {
+						int found = 0;
+						for (int i = offset; i < offset + perThread; i++) {
+							proxies.add(Integer.toString(i));
+							if (proxies.contains(Integer.toString(i)))
+								found++;
+							if (i % 2 == 0)
+								proxies.remove(Integer.toString(i));
+							if (i % 1000 == 0)
+								for (String p : proxies)
+									assertNotNull(p);
+						}
+						return found;
+					}
+				}));
+			}
+
+			for (Future<Integer> r : results)
+				assertThat(r.get(), is(perThread));
+		} finally {
+			executor.shutdown();
+		}
+
+		assertThat(proxies.size(), is(threads * perThread / 2));
+		for (int i = 1; i < threads * perThread; i += 2)
+			assertTrue(proxies.contains(Integer.toString(i)));
+	}
+
+}
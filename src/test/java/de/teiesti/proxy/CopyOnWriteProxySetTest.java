@@ -0,0 +1,168 @@
+package de.teiesti.proxy;
+
+import static org.junit.Assert.*;
+import static org.hamcrest.CoreMatchers.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class CopyOnWriteProxySetTest {
+
+	private CopyOnWriteProxySet<String, Integer> proxies;
+
+	@Before
+	public void setup() {
+		proxies = new CopyOnWriteProxySet<>(Arrays.asList(1, 2, 3),
+				Mapper.of(String.class, Integer.class, Object::toString, Integer::valueOf));
+	}
+
+	@Test
+	public void add_remove_contains() {
+		assertTrue(proxies.add("4"));
+		assertFalse(proxies.add("4"));
+		assertTrue(proxies.remove("1"));
+		assertFalse(proxies.remove("1"));
+
+		assertTrue(proxies.contains("4"));
+		assertFalse(proxies.contains("1"));
+		assertFalse(proxies.contains(4));
+		assertEquals(new HashSet<>(Arrays.asList("2", "3", "4")), proxies);
+	}
+
+	@Test
+	public void iterator_snapshot() {
+		Iterator<String> it = proxies.iterator();
+		proxies.add("4");
+		proxies.remove("2");
+
+		List<String> seen = new ArrayList<>();
+		while (it.hasNext())
+			seen.add(it.next());
+		it.remove();
+
+		assertThat(seen, is(Arrays.asList("1", "2", "3")));
+		assertEquals(new HashSet<>(Arrays.asList("1", "4")), proxies);
+	}
+
+	@Test
+	public void mutate_singleVersion() {
+		Iterator<String> before = proxies.iterator();
+		proxies.mutate(set -> {
+			set.add("4");
+			set.remove("1");
+			set.addAll(Arrays.asList("5", "6"));
+			assertTrue(proxies.contains("1"));                  // not published yet
+		});
+
+		assertEquals(new HashSet<>(Arrays.asList("2", "3", "4", "5", "6")), proxies);
+		assertThat(before.next(), is("1"));
+	}
+
+	@Test
+	public void bulk() {
+		assertTrue(proxies.addAll(Arrays.asList("3", "4")));
+		assertTrue(proxies.retainAll(Arrays.asList("1", "4", "7")));
+		assertFalse(proxies.removeAll(Arrays.asList("9")));
+		proxies.clear();
+
+		assertTrue(proxies.isEmpty());
+		assertTrue(new CopyOnWriteProxySet<>(Mapper.identity(String.class)).isEmpty());
+	}
+
+	@Test
+	public void concurrent_readWrite() throws Exception {
+		final int readers = 4;
+		ExecutorService executor = Executors.newFixedThreadPool(readers + 1);
+		try {
+			List<Future<?>> results = new ArrayList<>();
+			results.add(executor.submit(() -> {
+				for (int i = 4; i < 2000; i++) {
+					final int n = i;
+					proxies.mutate(set -> {
+						set.add(Integer.toString(n));
+						set.add(Integer.toString(-n));
+					});
+				}
+			}));
+			for (int r = 0; r < readers; r++) {
+				results.add(executor.submit(() -> {
+					for (int i = 0; i < 2000; i++) {
+						assertTrue(proxies.contains("1"));
+						int size = 0;
+						for (String p : proxies)
+							size++;
+						assertThat(size % 2, is(1));           // both proxies of a mutation or none
+					}
+				}));
+			}
+
+			for (Future<?> f : results)
+				f.get();
+		} finally {
+			executor.shutdown();
+		}
+
+		assertThat(proxies.size(), is(3 + 2 * 1996));
+	}
+
+	@Test
+	public void removeIf_singleVersion() {
+		proxies.addAll(Arrays.asList("4", "5", "6"));
+		Iterator<String> before = proxies.iterator();
+
+		assertTrue(proxies.removeIf(p -> Integer.parseInt(p) % 2 == 0));
+		assertFalse(proxies.removeIf(p -> p.equals("2")));
+
+		assertEquals(new HashSet<>(Arrays.asList("1", "3", "5")), proxies);
+		int size = 0;
+		while (before.hasNext()) {
+			before.next();
+			size++;
+		}
+		assertThat(size, is(6));
+	}
+
+	@Test
+	public void concurrent_toArray() throws Exception {
+		final int readers = 4;
+		ExecutorService executor = Executors.newFixedThreadPool(readers + 1);
+		try {
+			List<Future<?>> results = new ArrayList<>();
+			results.add(executor.submit(() -> {
+				for (int i = 0; i < 2000; i++) {
+					final int n = 100 + i % 10;             // the size grows and shrinks
+					if (i % 20 < 10)
+						proxies.mutate(set -> set.add(Integer.toString(n)));
+					else
+						proxies.mutate(set -> set.remove(Integer.toString(n)));
+				}
+			}));
+			for (int r = 0; r < readers; r++) {
+				results.add(executor.submit(() -> {
+					for (int i = 0; i < 2000; i++) {
+						assertThat(Arrays.asList(proxies.toArray()), not(hasItem(nullValue())));
+						assertThat(Arrays.asList(proxies.toArray(new String[0])), not(hasItem(nullValue())));
+						assertThat(Arrays.asList(proxies.toArray(new String[13])), hasItem("1"));
+					}
+				}));
+			}
+
+			for (Future<?> f : results)
+				f.get();
+		} finally {
+			executor.shutdown();
+		}
+
+		assertThat(proxies.size(), is(3));
+	}
+
+}
@@ -0,0 +1,137 @@
+package de.teiesti.proxy;
+
+import static org.junit.Assert.*;
+import static org.hamcrest.CoreMatchers.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class FilteredProxySetTest {
+
+	private Set<Integer> subjects;
+	private int mapped;
+	private ProxySet<String, Integer> proxies;
+
+	@Before
+	public void setup() {
+		subjects = new TreeSet<>();
+		for (int i = 0; i < 10; i++)
+			subjects.add(i);
+		Mapper<String, Integer> mapper = Mapper.of(String.class, Integer.class, s -> {
+			mapped++;
+			return s.toString();
+		}, Integer::valueOf);
+		proxies = new ProxySet<>(subjects, mapper);
+	}
+
+	@Test
+	public void filterSubjects_pushDown() {
+		FilteredProxySet<String, Integer> even = proxies.filterSubjects(s -> s % 2 == 0);
+
+		assertThat(new ArrayList<>(even), is(Arrays.asList("0", "2", "4", "6", "8")));
+		assertThat(mapped, is(5));
+		assertThat(even.size(), is(5));
+		assertThat(mapped, is(5));
+		assertTrue(even.contains("4"));
+		assertFalse(even.contains("5"));
+		assertFalse(even.contains(4));
+	}
+
+	@Test
+	public void filter_composed() {
+		FilteredProxySet<String, Integer> view = proxies.filterSubjects(s -> s > 2).filter(p -> !p.equals("5"))
+				.filterSubjects(s -> s < 8);
+
+		assertThat(new ArrayList<>(view), is(Arrays.asList("3", "4", "6", "7")));
+		assertFalse(view.contains("5"));
+		assertFalse(view.contains("1"));
+	}
+
+	@Test
+	public void map_projection() {
+		Mapper<Integer, String> length = Mapper.of(Integer.class, String.class, String::length, i -> "x".repeat(i));
+		FilteredProxySet<String, Integer> view = proxies.filter(p -> !p.equals("3"));
+		Mapper<String, String> negate = Mapper.of(String.class, String.class, p -> "-" + p, p -> p.substring(1));
+		FilteredProxySet<String, Integer> negated = view.map(negate);
+
+		assertThat(new ArrayList<>(negated), is(Arrays.asList("-0", "-1", "-2", "-4", "-5", "-6", "-7", "-8", "-9")));
+		assertTrue(negated.contains("-4"));
+		assertFalse(negated.contains("-3"));
+		assertThat(view.map(negate).map(length).size(), is(9));
+	}
+
+	@Test
+	public void remove_writeThrough() {
+		FilteredProxySet<String, Integer> odd = proxies.filterSubjects(s -> s % 2 == 1);
+
+		assertFalse(odd.remove("2"));
+		assertTrue(odd.remove("3"));
+		Iterator<String> it = odd.iterator();
+		assertThat(it.next(), is("1"));
+		it.remove();
+		odd.clear();
+
+		assertTrue(odd.isEmpty());
+		assertThat(subjects, is((Set<Integer>) new TreeSet<>(Arrays.asList(0, 2, 4, 6, 8))));
+	}
+
+	@Test
+	public void size_cached() {
+		FilteredProxySet<String, Integer> view = proxies.filterSubjects(s -> s < 5);
+		view.setSizeCached(true);
+
+		assertThat(view.size(), is(5));
+		view.remove("0");
+		assertThat(view.size(), is(4));
+		subjects.remove(1);
+		assertThat(view.size(), is(4));
+		view.invalidateSize();
+		assertThat(view.size(), is(3));
+	}
+
+	@Test
+	public void iterator_removeAfterHasNext() {
+		Iterator<String> it = proxies.filterSubjects(s -> s % 2 == 0).iterator();
+		it.next();
+		assertTrue(it.hasNext());
+		try {
+			it.remove();
+			fail();
+		} catch (IllegalStateException e) {
+			assertTrue(subjects.contains(0));
+		}
+	}
+
+	@Test
+	public void iterator_removeAfterLastHasNext() {
+		Iterator<String> it = proxies.filterSubjects(s -> s > 6).iterator();
+		while (it.hasNext())
+			it.next();
+		it.remove();
+
+		assertFalse(subjects.contains(9));
+		assertThat(subjects.size(), is(9));
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void iterator_removeTwice() {
+		Iterator<String> it = proxies.filter(p -> true).iterator();
+		it.next();
+		it.remove();
+		it.remove();
+	}
+
+	@Test
+	public void filter_equals() {
+		List<String> expected = Arrays.asList("7", "8", "9");
+		assertEquals(new TreeSet<>(expected), proxies.filterSubjects(s -> s > 6));
+	}
+
+}
@@ -0,0 +1,119 @@
+package de.teiesti.proxy;
+
+import static org.junit.Assert.*;
+import static org.hamcrest.CoreMatchers.*;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.LongStream;
+
+import javax.management.Attribute;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class InstrumentedMapperTest {
+
+	private InstrumentedMapper<String, Integer> mapper;
+
+	@Before
+	public void setup() throws Exception {
+		mapper = new InstrumentedMapper<>(new Mapper<String, Integer>() {
+			@Override
+			public String getProxy(Integer subject) {
+				return subject.toString();
+			}
+
+			@Override
+			public Integer getSubject(String proxy) {
+				return Integer.valueOf(proxy);
+			}
+
+			@Override
+			public Class<?> getProxyClass() {
+				return String.class;
+			}
+
+			@Override
+			public Class<?> getSubjectClass() {
+				return Integer.class;
+			}
+		});
+	}
+
+	@Test
+	public void mapper_counts_calls() {
+		mapper.getProxy(1);
+		mapper.getSubject("2");
+		mapper.getProxies(Arrays.asList(3, 4, 5));
+
+		assertThat(mapper.getProxyCalls(), is(1L));
+		assertThat(mapper.getSubjectCalls(), is(1L));
+		assertThat(mapper.getBulkProxyCalls(), is(1L));
+		assertThat(mapper.getBulkSubjectCalls(), is(0L));
+		assertThat(mapper.getMappedSubjects(), is(4L));
+		assertThat(mapper.getMappedProxies(), is(1L));
+		assertThat(mapper.getSampledCalls(), is(3L));
+		assertThat(LongStream.of(mapper.getLatencyHistogram()).sum(), is(3L));
+
+		mapper.reset();
+		assertThat(mapper.getProxyCalls(), is(0L));
+		assertThat(LongStream.of(mapper.getLatencyHistogram()).sum(), is(0L));
+	}
+
+	@Test
+	public void mapper_sampling() {
+		mapper.setSampleInterval(Integer.MAX_VALUE);
+		for (int i = 0; i < 1000; i++)
+			mapper.getProxy(i);
+
+		assertThat(mapper.getProxyCalls(), is(1000L));
+		assertTrue(mapper.getSampledCalls() < 1000L);
+	}
+
+	@Test
+	public void set_counts_operations() {
+		Set<Integer> subjects = new HashSet<>(Arrays.asList(1, 2, 3));
+		InstrumentedProxySet<String, Integer> proxies = new InstrumentedProxySet<>(subjects, mapper);
+
+		assertTrue(proxies.contains("1"));
+		assertFalse(proxies.contains(1));
+		assertFalse(proxies.remove(2));
+		assertTrue(proxies.add("4"));
+		assertTrue(proxies.containsAll(Arrays.asList("1", "2")));
+		assertFalse(proxies.containsAll(Arrays.asList("1", 2)));	// not counted as a failed type check
+		for (String p : proxies)
+			assertNotNull(p);
+		proxies.toArray();
+
+		assertThat(proxies.getContainsCalls(), is(2L));
+		assertThat(proxies.getRemoveCalls(), is(1L));
+		assertThat(proxies.getAddCalls(), is(1L));
+		assertThat(proxies.getBulkCalls(), is(2L));
+		assertThat(proxies.getTypeCheckFailures(), is(2L));
+		assertThat(proxies.getIterations(), is(2L));
+		assertThat(proxies.getIteratedProxies(), is(8L));
+		assertThat(proxies.getMeanProxiesPerIteration(), is(4.0));
+	}
+
+	@Test
+	public void jmx_register() throws Exception {
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		ObjectName name = mapper.register("test");
+		try {
+			mapper.getProxy(42);
+			assertThat(server.getAttribute(name, "ProxyCalls"), is((Object) 1L));
+
+			server.setAttribute(name, new Attribute("SampleInterval", 64));
+			assertThat(mapper.getSampleInterval(), is(64));
+		} finally {
+			InstrumentedMapper.unregister(name);
+		}
+		assertFalse(server.isRegistered(name));
+	}
+
+}
@@ -0,0 +1,135 @@
+package de.teiesti.proxy;
+
+import static org.junit.Assert.*;
+import static org.hamcrest.CoreMatchers.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import de.teiesti.proxy.ObservableProxySet.Change;
+
+public class ObservableProxySetTest {
+
+	private Set<Integer> subjects;
+	private int mapped;
+	private ObservableProxySet<String, Integer> proxies;
+	private List<List<String>> batches;
+
+	@Before
+	public void setup() {
+		subjects = new TreeSet<>(Arrays.asList(1, 2, 3));
+		Mapper<String, Integer> mapper = Mapper.of(String.class, Integer.class, s -> {
+			mapped++;
+			return s.toString();
+		}, Integer::valueOf);
+		proxies = new ObservableProxySet<>(subjects, mapper);
+		batches = new ArrayList<>();
+		proxies.addListener(changes -> batches.add(changes.stream().map(Change::toString)
+				.collect(Collectors.toList())));
+	}
+
+	@Test
+	public void add_remove() {
+		assertTrue(proxies.add("4"));
+		assertFalse(proxies.add("4"));
+		assertTrue(proxies.remove("1"));
+		assertFalse(proxies.remove("1"));
+
+		assertThat(batches, is(Arrays.asList(Arrays.asList("ADDED(4)"), Arrays.asList("REMOVED(1)"))));
+		assertThat(mapped, is(0));
+	}
+
+	@Test
+	public void bulk_singleBatch() {
+		proxies.addAll(Arrays.asList("4", "5", "1"));
+		proxies.retainAll(Arrays.asList("1", "4"));
+		proxies.removeAll(Arrays.asList("1", "9"));
+
+		assertThat(batches, is(Arrays.asList(Arrays.asList("ADDED(4)", "ADDED(5)"),
+				Arrays.asList("REMOVED(2)", "REMOVED(3)", "REMOVED(5)"), Arrays.asList("REMOVED(1)"))));
+		assertThat(subjects, is((Set<Integer>) new TreeSet<>(Arrays.asList(4))));
+	}
+
+	@Test
+	public void removeIf_singleBatch() {
+		assertTrue(proxies.removeIf(p -> !p.equals("2")));
+		assertFalse(proxies.removeIf(p -> p.equals("9")));
+
+		assertThat(batches, is(Arrays.asList(Arrays.asList("REMOVED(1)", "REMOVED(3)"))));
+		assertThat(subjects, is((Set<Integer>) new TreeSet<>(Arrays.asList(2))));
+	}
+
+	@Test
+	public void batch_coalesced() {
+		proxies.batch(() -> {
+			proxies.add("4");
+			proxies.remove("4");
+			proxies.remove("1");
+			proxies.add("1");
+			proxies.add("5");
+			proxies.batch(() -> proxies.remove("2"));
+		});
+
+		assertThat(batches, is(Arrays.asList(Arrays.asList("ADDED(5)", "REMOVED(2)"))));
+	}
+
+	@Test
+	public void clear() {
+		proxies.batch(() -> {
+			proxies.add("4");
+			proxies.clear();
+			proxies.add("7");
+		});
+		proxies.clear();
+
+		assertThat(batches, is(Arrays.asList(Arrays.asList("CLEARED", "ADDED(7)"), Arrays.asList("CLEARED"))));
+	}
+
+	@Test
+	public void iterator_remove() {
+		proxies.batch(() -> {
+			Iterator<String> it = proxies.iterator();
+			while (it.hasNext())
+				if (!it.next().equals("2"))
+					it.remove();
+		});
+		Iterator<String> it = proxies.iterator();
+		it.next();
+		it.remove();
+
+		assertThat(batches, is(Arrays.asList(Arrays.asList("REMOVED(1)", "REMOVED(3)"), Arrays.asList("REMOVED(2)"))));
+		assertTrue(subjects.isEmpty());
+	}
+
+	@Test
+	public void change_lazyProxy() {
+		List<Change<String, Integer>> received = new ArrayList<>();
+		proxies.addListener(received::addAll);
+		proxies.add("4");
+		int before = mapped;
+
+		assertThat(received.get(0).getSubject(), is(4));
+		assertThat(mapped, is(before));
+		assertThat(received.get(0).getProxy(), is("4"));
+		assertThat(received.get(0).getProxy(), is("4"));
+		assertThat(mapped, is(before + 1));
+		assertThat(received.get(0).getType(), is(ObservableProxySet.Type.ADDED));
+	}
+
+	@Test
+	public void removeListener() {
+		ObservableProxySet.Listener<String, Integer> listener = changes -> fail();
+		proxies.addListener(listener);
+		assertTrue(proxies.removeListener(listener));
+		proxies.add("4");
+	}
+
+}
@@ -0,0 +1,146 @@
+package de.teiesti.proxy;
+
+import static org.junit.Assert.*;
+import static org.hamcrest.CoreMatchers.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class PrefetchingProxyIteratorTest {
+
+	private Set<Integer> subjects;
+	private ProxySet<String, Integer> proxies;
+	private ExecutorService executor;
+
+	@Before
+	public void setup() throws Exception {
+		subjects = new LinkedHashSet<>();
+		for (int i = 0; i < 100; i++)
+			subjects.add(i);
+		proxies = new ProxySet<>(subjects, new Mapper<String, Integer>() {
+			@Override
+			public String getProxy(Integer subject) {
+				if (subject < 0)
+					throw new IllegalArgumentException("negative");
+				try {
+					Thread.sleep(ThreadLocalRandom.current().nextInt(3));      // slow and out of order
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				return subject.toString();
+			}
+
+			@Override
+			public Integer getSubject(String proxy) {
+				return Integer.valueOf(proxy);
+			}
+
+			@Override
+			public Class<?> getProxyClass() {
+				return String.class;
+			}
+
+			@Override
+			public Class<?> getSubjectClass() {
+				return Integer.class;
+			}
+		});
+		executor = Executors.newFixedThreadPool(8);
+	}
+
+	@After
+	public void teardown() throws Exception {
+		executor.shutdownNow();
+	}
+
+	@Test
+	public void iterator_keeps_order() {
+		List<String> result = new ArrayList<>();
+		PrefetchingProxyIterator<String, Integer> it = proxies.iterator(executor, 16);
+		while (it.hasNext())
+			result.add(it.next());
+
+		List<String> expected = new ArrayList<>();
+		for (Integer s : subjects)
+			expected.add(s.toString());
+		assertThat(result, is(expected));
+	}
+
+	@Test
+	public void iterator_remove() {
+		PrefetchingProxyIterator<String, Integer> it = proxies.iterator(executor, 4);
+		while (it.hasNext()) {
+			if (Integer.valueOf(it.next()) % 2 == 0)
+				it.remove();
+			assertThat(subjects.size(), is(100));              // removals are deferred
+		}
+
+		assertThat(subjects.size(), is(50));
+		for (Integer s : subjects)
+			assertThat(s % 2, is(1));
+	}
+
+	@Test
+	public void iterator_remove_last() {
+		PrefetchingProxyIterator<String, Integer> it = proxies.iterator(executor, 4);
+		String last = null;
+		while (it.hasNext())
+			last = it.next();
+		it.remove();
+
+		assertThat(last, is("99"));
+		assertFalse(subjects.contains(99));
+	}
+
+	@Test
+	public void close_applies_removals() {
+		try (PrefetchingProxyIterator<String, Integer> it = proxies.iterator(executor, 8)) {
+			it.next();
+			it.remove();
+			it.next();
+		}
+
+		assertFalse(subjects.contains(0));
+		assertThat(subjects.size(), is(99));
+	}
+
+	@Test
+	public void list_remove_notDeferred() {
+		List<Integer> list = new ArrayList<>(Arrays.asList(1, 2, 1));
+		Mapper<Integer, Integer> identity = Mapper.identity(Integer.class);
+
+		PrefetchingProxyIterator<Integer, Integer> it = new PrefetchingProxyIterator<>(list, identity, executor, 8);
+		it.next();
+		try {
+			it.remove();                                        // would remove the first 1 instead of this one
+			fail();
+		} catch (IllegalStateException e) {
+			assertThat(list, is(Arrays.asList(1, 2, 1)));
+		}
+
+		it = new PrefetchingProxyIterator<>(list, identity, executor, 8);
+		while (it.hasNext())
+			it.next();
+		it.remove();                                            // forwarded to the underlying iterator
+		assertThat(list, is(Arrays.asList(1, 2)));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void next_rethrows() {
+		subjects.add(-1);
+		PrefetchingProxyIterator<String, Integer> it = proxies.iterator(executor, 8);
+		while (it.hasNext())
+			it.next();
+	}
+
+}
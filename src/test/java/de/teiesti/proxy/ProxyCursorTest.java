@@ -0,0 +1,138 @@
+package de.teiesti.proxy;
+
+import static org.junit.Assert.*;
+import static org.hamcrest.CoreMatchers.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class ProxyCursorTest {
+
+	private static final class Box {
+
+		private int value;
+
+		private Box(int value) {
+			this.value = value;
+		}
+
+		@Override
+		public int hashCode() {
+			return value;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			return obj instanceof Box && ((Box) obj).value == value;
+		}
+
+	}
+
+	private static final class BoxMapper implements RebindingMapper<Box, Integer> {
+
+		private int created;
+
+		@Override
+		public Box getProxy(Integer subject) {
+			created++;
+			return new Box(subject);
+		}
+
+		@Override
+		public Integer getSubject(Box proxy) {
+			return proxy.value;
+		}
+
+		@Override
+		public Box createFlyweight() {
+			created++;
+			return new Box(0);
+		}
+
+		@Override
+		public void rebind(Box flyweight, Integer subject) {
+			flyweight.value = subject;
+		}
+
+		@Override
+		public Class<?> getProxyClass() {
+			return Box.class;
+		}
+
+		@Override
+		public Class<?> getSubjectClass() {
+			return Integer.class;
+		}
+
+	}
+
+	private Set<Integer> subjects;
+	private BoxMapper mapper;
+	private ProxySet<Box, Integer> proxies;
+
+	@Before
+	public void setup() {
+		subjects = new TreeSet<>(Arrays.asList(1, 2, 3, 4, 5));
+		mapper = new BoxMapper();
+		proxies = new ProxySet<>(subjects, mapper);
+	}
+
+	@Test
+	public void cursor_flyweight() {
+		ProxyCursor<Box, Integer> cursor = proxies.cursor();
+		Box first = null;
+		List<Integer> values = new ArrayList<>();
+		while (cursor.next()) {
+			if (first == null)
+				first = cursor.get();
+			assertSame(first, cursor.get());
+			assertThat(cursor.getSubject(), is(cursor.get().value));
+			values.add(cursor.get().value);
+		}
+
+		assertThat(values, is(Arrays.asList(1, 2, 3, 4, 5)));
+		assertThat(mapper.created, is(1));
+	}
+
+	@Test
+	public void cursor_forEachRemaining() {
+		int[] sum = new int[1];
+		proxies.cursor().forEachRemaining(b -> sum[0] += b.value);
+
+		assertThat(sum[0], is(15));
+		assertThat(mapper.created, is(1));
+	}
+
+	@Test
+	public void cursor_remove() {
+		ProxyCursor<Box, Integer> cursor = proxies.cursor();
+		while (cursor.next())
+			if (cursor.getSubject() % 2 == 0)
+				cursor.remove();
+
+		assertThat(subjects, is((Set<Integer>) new TreeSet<>(Arrays.asList(1, 3, 5))));
+	}
+
+	@Test
+	public void cursor_fallback() {
+		Mapper<String, Integer> strings = Mapper.of(String.class, Integer.class, Object::toString, Integer::valueOf);
+		ProxyCursor<String, Integer> cursor = new ProxySet<>(subjects, strings).cursor();
+		List<String> values = new ArrayList<>();
+		cursor.forEachRemaining(values::add);
+
+		assertThat(values, is(Arrays.asList("1", "2", "3", "4", "5")));
+	}
+
+	@Test(expected = NoSuchElementException.class)
+	public void cursor_notPositioned() {
+		proxies.cursor().get();
+	}
+
+}
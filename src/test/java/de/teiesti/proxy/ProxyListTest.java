@@ -0,0 +1,132 @@
+package de.teiesti.proxy;
+
+import static org.junit.Assert.*;
+import static org.hamcrest.CoreMatchers.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.RandomAccess;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class ProxyListTest {
+
+	private List<Integer> subjects;
+	private Mapper<String, Integer> mapper;
+	private ProxyList<String, Integer> proxies;
+
+	@Before
+	public void setup() throws Exception {
+		subjects = new ArrayList<>();
+		mapper = new Mapper<String, Integer>() {
+			@Override
+			public String getProxy(Integer subject) {
+				return subject.toString();
+			}
+
+			@Override
+			public Integer getSubject(String proxy) {
+				return Integer.valueOf(proxy);
+			}
+
+			@Override
+			public Class<?> getProxyClass() {
+				return String.class;
+			}
+
+			@Override
+			public Class<?> getSubjectClass() {
+				return Integer.class;
+			}
+		};
+		proxies = ProxyList.of(subjects, mapper);
+	}
+
+	@Test
+	public void of_randomAccess() {
+		assertTrue(proxies instanceof RandomAccess);
+		assertTrue(proxies.subList(0, 0) instanceof RandomAccess);
+		assertFalse(ProxyList.of(new LinkedList<Integer>(), mapper) instanceof RandomAccess);
+	}
+
+	@Test
+	public void proxies_add_get_set_remove() {
+		proxies.add("1");
+		proxies.add("3");
+		proxies.add(1, "2");
+
+		assertThat(subjects, is(Arrays.asList(1, 2, 3)));
+		assertThat(proxies.get(1), is("2"));
+
+		assertThat(proxies.set(1, "4"), is("2"));
+		assertThat(subjects, is(Arrays.asList(1, 4, 3)));
+
+		assertThat(proxies.remove(0), is("1"));
+		assertTrue(proxies.remove("3"));
+		assertFalse(proxies.remove("3"));
+		assertThat(subjects, is(Arrays.asList(4)));
+	}
+
+	@Test
+	public void subjects_indexOf() {
+		subjects.addAll(Arrays.asList(1, 2, 1));
+
+		assertThat(proxies.indexOf("1"), is(0));
+		assertThat(proxies.lastIndexOf("1"), is(2));
+		assertThat(proxies.indexOf("5"), is(-1));
+		assertThat(proxies.indexOf(1), is(-1));
+		assertTrue(proxies.contains("2"));
+	}
+
+	@Test
+	public void proxies_listIterator() {
+		subjects.addAll(Arrays.asList(1, 2, 3));
+
+		ListIterator<String> it = proxies.listIterator(1);
+		assertThat(it.previous(), is("1"));
+		assertThat(it.next(), is("1"));
+		assertThat(it.next(), is("2"));
+		it.set("5");
+		it.add("6");
+		assertThat(it.next(), is("3"));
+		it.remove();
+
+		assertThat(subjects, is(Arrays.asList(1, 5, 6)));
+	}
+
+	@Test
+	public void proxies_subList() {
+		subjects.addAll(Arrays.asList(1, 2, 3, 4));
+
+		List<String> sub = proxies.subList(1, 3);
+		assertThat(sub, is(Arrays.asList("2", "3")));
+
+		sub.clear();
+		assertThat(subjects, is(Arrays.asList(1, 4)));
+	}
+
+	@Test
+	public void proxies_equals_hashCode() {
+		subjects.addAll(Arrays.asList(1, 2, 3));
+
+		List<String> expected = Arrays.asList("1", "2", "3");
+		assertThat(proxies, is(expected));
+		assertThat(expected, is((List<String>) proxies));
+		assertThat(proxies.hashCode(), is(expected.hashCode()));
+		assertFalse(proxies.equals(Arrays.asList("1", "3", "2")));
+	}
+
+	@Test
+	public void shared_addAll() {
+		subjects.addAll(Arrays.asList(1, 2));
+		ProxyList<String, Integer> other = ProxyList.of(new ArrayList<>(Arrays.asList(3, 4)), mapper);
+
+		proxies.addAll(1, other);
+		assertThat(subjects, is(Arrays.asList(1, 3, 4, 2)));
+	}
+
+}
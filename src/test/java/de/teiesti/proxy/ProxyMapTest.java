@@ -0,0 +1,183 @@
+package de.teiesti.proxy;
+
+import static org.junit.Assert.*;
+import static org.hamcrest.CoreMatchers.*;
+
+import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class ProxyMapTest {
+
+	private Map<Integer, Integer> subjects;
+	private ProxyMap<String, Integer, Integer, Integer> proxies;
+
+	@Before
+	public void setup() throws Exception {
+		subjects = new HashMap<>();
+		proxies = new ProxyMap<>(subjects, new Mapper<String, Integer>() {
+			@Override
+			public String getProxy(Integer subject) {
+				return subject.toString();
+			}
+
+			@Override
+			public Integer getSubject(String proxy) {
+				return Integer.valueOf(proxy);
+			}
+
+			@Override
+			public Class<?> getProxyClass() {
+				return String.class;
+			}
+
+			@Override
+			public Class<?> getSubjectClass() {
+				return Integer.class;
+			}
+		}, new Mapper<Integer, Integer>() {
+			@Override
+			public Integer getProxy(Integer subject) {
+				return -subject;
+			}
+
+			@Override
+			public Integer getSubject(Integer proxy) {
+				return -proxy;
+			}
+
+			@Override
+			public Class<?> getProxyClass() {
+				return Integer.class;
+			}
+
+			@Override
+			public Class<?> getSubjectClass() {
+				return Integer.class;
+			}
+		});
+	}
+
+	@Test
+	public void proxies_put_get() {
+		assertNull(proxies.put("1", -10));
+		assertThat(proxies.put("1", -11), is(-10));
+
+		assertThat(subjects.get(1), is(11));
+		assertThat(proxies.get("1"), is(-11));
+		assertNull(proxies.get("2"));
+		assertNull(proxies.get(1));
+		assertThat(proxies.size(), is(1));
+	}
+
+	@Test
+	public void subjects_put_get() {
+		subjects.put(1, 10);
+		subjects.put(2, 20);
+
+		assertThat(proxies.get("2"), is(-20));
+		assertTrue(proxies.containsKey("1"));
+		assertFalse(proxies.containsKey("3"));
+		assertTrue(proxies.containsValue(-10));
+		assertFalse(proxies.containsValue(10));
+	}
+
+	@Test
+	public void proxies_remove() {
+		subjects.put(1, 10);
+
+		assertThat(proxies.remove("1"), is(-10));
+		assertNull(proxies.remove("1"));
+		assertTrue(subjects.isEmpty());
+	}
+
+	@Test
+	public void keySet_writesThrough() {
+		subjects.put(1, 10);
+		subjects.put(2, 20);
+
+		assertTrue(proxies.keySet().contains("1"));
+		assertTrue(proxies.keySet().remove("1"));
+		assertFalse(subjects.containsKey(1));
+	}
+
+	@Test
+	public void values_writesThrough() {
+		subjects.put(1, 10);
+		subjects.put(2, 20);
+
+		assertTrue(proxies.values().contains(-20));
+		assertTrue(proxies.values().remove(-20));
+		assertFalse(subjects.containsKey(2));
+	}
+
+	@Test
+	public void entrySet_writesThrough() {
+		subjects.put(1, 10);
+
+		Iterator<Map.Entry<String, Integer>> it = proxies.entrySet().iterator();
+		Map.Entry<String, Integer> e = it.next();
+		assertThat(e.getKey(), is("1"));
+		assertThat(e.getValue(), is(-10));
+
+		assertThat(e.setValue(-12), is(-10));
+		assertThat(subjects.get(1), is(12));
+
+		assertTrue(proxies.entrySet().contains(new AbstractMap.SimpleEntry<>("1", -12)));
+		assertFalse(proxies.entrySet().contains(new AbstractMap.SimpleEntry<>("1", -10)));
+
+		it.remove();
+		assertTrue(subjects.isEmpty());
+	}
+
+	@Test
+	public void proxies_equals_hashCode() {
+		subjects.put(1, 10);
+		subjects.put(2, 20);
+
+		Map<String, Integer> expected = new HashMap<>();
+		expected.put("1", -10);
+		expected.put("2", -20);
+
+		assertThat(proxies, is(expected));
+		assertThat(expected, is((Map<String, Integer>) proxies));
+		assertThat(proxies.hashCode(), is(expected.hashCode()));
+	}
+
+	@Test
+	public void foreign_entries() {
+		subjects.put(1, 10);
+		subjects.put(5, 50);
+
+		Map<Integer, String> foreign = new HashMap<>();
+		foreign.put(1, "s1");
+		foreign.put(5, "s5");
+
+		assertFalse(proxies.equals(foreign));
+		assertFalse(proxies.entrySet().contains(new AbstractMap.SimpleEntry<>(5, "s1")));
+		assertFalse(proxies.entrySet().contains(new AbstractMap.SimpleEntry<>("5", "s1")));
+		assertFalse(proxies.entrySet().remove("5"));
+		assertThat(subjects.size(), is(2));
+	}
+
+	@Test
+	public void values_null() {
+		subjects.put(1, 10);
+		subjects.put(2, null);
+
+		assertNull(proxies.get("2"));
+		assertTrue(proxies.values().contains(null));
+		assertTrue(proxies.values().contains(-10));
+		assertThat(proxies.values().toString(), is("[-10, null]"));
+		assertTrue(proxies.values().removeAll(Arrays.asList((Object) null, "x")));
+		assertFalse(subjects.containsKey(2));
+		assertTrue(proxies.values().retainAll(Arrays.asList(-20)));
+		assertTrue(subjects.isEmpty());
+	}
+
+}
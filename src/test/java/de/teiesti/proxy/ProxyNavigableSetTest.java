@@ -0,0 +1,156 @@
+package de.teiesti.proxy;
+
+import static org.junit.Assert.*;
+import static org.hamcrest.CoreMatchers.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class ProxyNavigableSetTest {
+
+	private NavigableSet<Integer> subjects;
+	private ProxyNavigableSet<Long, Integer> proxies;
+
+	@Before
+	public void setup() throws Exception {
+		subjects = new TreeSet<>(Arrays.asList(10, 20, 30, 40, 50));
+		proxies = new ProxyNavigableSet<>(subjects, new Mapper<Long, Integer>() {
+			@Override
+			public Long getProxy(Integer subject) {
+				return subject.longValue();
+			}
+
+			@Override
+			public Integer getSubject(Long proxy) {
+				return proxy.intValue();
+			}
+
+			@Override
+			public Class<?> getProxyClass() {
+				return Long.class;
+			}
+
+			@Override
+			public Class<?> getSubjectClass() {
+				return Integer.class;
+			}
+
+			@Override
+			public int characteristics() {
+				return Mapper.INJECTIVE | Mapper.ORDER_PRESERVING;
+			}
+		});
+	}
+
+	private static List<Long> list(Iterable<Long> it) {
+		List<Long> result = new ArrayList<>();
+		for (Long l : it)
+			result.add(l);
+		return result;
+	}
+
+	@Test
+	public void proxies_firstLast() {
+		assertThat(proxies.first(), is(10L));
+		assertThat(proxies.last(), is(50L));
+		assertNull(proxies.comparator());
+	}
+
+	@Test
+	public void proxies_closestMatches() {
+		assertThat(proxies.lower(30L), is(20L));
+		assertThat(proxies.floor(30L), is(30L));
+		assertThat(proxies.ceiling(31L), is(40L));
+		assertThat(proxies.higher(30L), is(40L));
+		assertNull(proxies.lower(10L));
+		assertNull(proxies.higher(50L));
+	}
+
+	@Test
+	public void proxies_ranges() {
+		assertThat(list(proxies.subSet(20L, 40L)), is(Arrays.asList(20L, 30L)));
+		assertThat(list(proxies.subSet(20L, false, 40L, true)), is(Arrays.asList(30L, 40L)));
+		assertThat(list(proxies.headSet(30L)), is(Arrays.asList(10L, 20L)));
+		assertThat(list(proxies.tailSet(30L, false)), is(Arrays.asList(40L, 50L)));
+	}
+
+	@Test
+	public void ranges_writeThrough() {
+		NavigableSet<Long> head = proxies.headSet(30L, true);
+		head.clear();
+
+		assertThat(subjects, is((NavigableSet<Integer>) new TreeSet<>(Arrays.asList(40, 50))));
+
+		proxies.add(35L);
+		assertThat(list(proxies.subSet(30L, 45L)), is(Arrays.asList(35L, 40L)));
+	}
+
+	@Test
+	public void proxies_descending() {
+		List<Long> expected = new ArrayList<>(Arrays.asList(10L, 20L, 30L, 40L, 50L));
+		Collections.reverse(expected);
+
+		assertThat(list(proxies.descendingSet()), is(expected));
+
+		Iterator<Long> it = proxies.descendingIterator();
+		assertThat(it.next(), is(50L));
+		it.remove();
+		assertFalse(subjects.contains(50));
+	}
+
+	@Test
+	public void proxies_poll() {
+		assertThat(proxies.pollFirst(), is(10L));
+		assertThat(proxies.pollLast(), is(50L));
+		assertThat(subjects.size(), is(3));
+	}
+
+	@Test
+	public void proxies_comparator() {
+		NavigableSet<Integer> reversed = new TreeSet<>(Collections.reverseOrder());
+		reversed.addAll(subjects);
+		ProxyNavigableSet<Long, Integer> view = new ProxyNavigableSet<>(reversed, new Mapper<Long, Integer>() {
+			@Override
+			public Long getProxy(Integer subject) {
+				return subject.longValue();
+			}
+
+			@Override
+			public Integer getSubject(Long proxy) {
+				return proxy.intValue();
+			}
+
+			@Override
+			public Class<?> getProxyClass() {
+				return Long.class;
+			}
+
+			@Override
+			public Class<?> getSubjectClass() {
+				return Integer.class;
+			}
+
+			@Override
+			public int characteristics() {
+				return Mapper.INJECTIVE | Mapper.ORDER_PRESERVING;
+			}
+		});
+
+		assertTrue(view.comparator().compare(10L, 20L) > 0);
+		assertThat(view.first(), is(50L));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void mapper_notOrderPreserving() {
+		new ProxyNavigableSet<>(subjects, Mapper.of(String.class, Integer.class, Object::toString, Integer::valueOf));
+	}
+
+}
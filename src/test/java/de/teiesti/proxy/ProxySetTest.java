@@ -5,10 +5,14 @@ import static org.hamcrest.CoreMatchers.*;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -16,20 +20,24 @@ import org.junit.Test;
 public class ProxySetTest {
 
 	private Set<Integer> subjects;
+	private Mapper<Integer, Integer> mapper;
 	private ProxySet<Integer, Integer> proxies;
+	private int mapped;
 	
 	
 	@Before
 	public void setup() throws Exception {
 		subjects = new HashSet<>();
-		proxies = new ProxySet<>(subjects, new Mapper<Integer, Integer>() {
+		mapper = new Mapper<Integer, Integer>() {
 			@Override
 			public Integer getProxy(Integer subject) {
+				mapped++;
 				return subject;
 			}
 
 			@Override
 			public Integer getSubject(Integer proxy) {
+				mapped++;
 				return proxy;
 			}
 
@@ -42,7 +50,13 @@ public class ProxySetTest {
 			public Class<?> getSubjectClass() {
 				return Integer.class;
 			}
-		});
+
+			@Override
+			public int characteristics() {
+				return Mapper.INJECTIVE;
+			}
+		};
+		proxies = new ProxySet<>(subjects, mapper);
 	}
 
 	/*@Test
@@ -55,10 +69,10 @@ public class ProxySetTest {
 		subjects.add(42);
 
 		assertThat(subjects.size(), is(1));
-		assertThat(subjects, everyItem(is(new Integer(42))));
+		assertThat(subjects, everyItem(is(Integer.valueOf(42))));
 
 		assertThat(proxies.size(), is(1));
-		assertThat(proxies, everyItem(is(new Integer(42))));
+		assertThat(proxies, everyItem(is(Integer.valueOf(42))));
 	}
 
 	@Test
@@ -66,10 +80,10 @@ public class ProxySetTest {
 		proxies.add(42);
 
 		assertThat(subjects.size(), is(1));
-		assertThat(subjects, everyItem(is(new Integer(42))));
+		assertThat(subjects, everyItem(is(Integer.valueOf(42))));
 
 		assertThat(proxies.size(), is(1));
-		assertThat(proxies, everyItem(is(new Integer(42))));
+		assertThat(proxies, everyItem(is(Integer.valueOf(42))));
 	}
 
 	@Test
@@ -78,10 +92,10 @@ public class ProxySetTest {
 		proxies.add(42);
 
 		assertThat(subjects.size(), is(1));
-		assertThat(subjects, everyItem(is(new Integer(42))));
+		assertThat(subjects, everyItem(is(Integer.valueOf(42))));
 
 		assertThat(proxies.size(), is(1));
-		assertThat(proxies, everyItem(is(new Integer(42))));
+		assertThat(proxies, everyItem(is(Integer.valueOf(42))));
 	}
 
 	@Test
@@ -90,10 +104,10 @@ public class ProxySetTest {
 		proxies.add(42);
 
 		assertThat(subjects.size(), is(1));
-		assertThat(subjects, everyItem(is(new Integer(42))));
+		assertThat(subjects, everyItem(is(Integer.valueOf(42))));
 
 		assertThat(proxies.size(), is(1));
-		assertThat(proxies, everyItem(is(new Integer(42))));
+		assertThat(proxies, everyItem(is(Integer.valueOf(42))));
 	}
 
 	@Test
@@ -442,4 +456,423 @@ public class ProxySetTest {
 		assertThat(proxies.toArray(new Integer[proxies.size()]), is(expected));
 	}
 
+	@Test
+	public void proxies_spliterator() {
+		for (int i = 0; i < 1000; i++)
+			subjects.add(i);
+
+		Spliterator<Integer> it = proxies.spliterator();
+
+		assertThat(it.getExactSizeIfKnown(), is(1000L));
+		assertTrue(it.hasCharacteristics(Spliterator.SIZED));
+		assertTrue(it.hasCharacteristics(Spliterator.DISTINCT));
+
+		Spliterator<Integer> split = it.trySplit();
+		assertNotNull(split);
+		assertThat(it.estimateSize() + split.estimateSize(), is(1000L));
+	}
+
+	@Test
+	public void proxies_parallelStream() {
+		for (int i = 0; i < 1000; i++)
+			subjects.add(i);
+
+		assertThat(proxies.parallelStream().mapToInt(Integer::intValue).sum(), is(999 * 1000 / 2));
+		assertThat(proxies.parallelStream().collect(Collectors.toSet()), is(subjects));
+	}
+
+	@Test
+	public void shared_addAll() {
+		ProxySet<Integer, Integer> other = new ProxySet<>(new HashSet<>(Arrays.asList(1, 2, 3)), mapper);
+		proxies.add(3);
+		proxies.add(4);
+		mapped = 0;
+
+		assertTrue(proxies.addAll(other));
+		assertFalse(proxies.addAll(other));
+
+		assertThat(subjects, is((Set<Integer>) new HashSet<>(Arrays.asList(1, 2, 3, 4))));
+		assertThat(mapped, is(0));
+	}
+
+	@Test
+	public void shared_containsAll() {
+		ProxySet<Integer, Integer> other = new ProxySet<>(new HashSet<>(Arrays.asList(1, 2)), mapper);
+		subjects.addAll(Arrays.asList(1, 2, 3));
+		mapped = 0;
+
+		assertTrue(proxies.containsAll(other));
+		assertFalse(other.containsAll(proxies));
+		assertThat(mapped, is(0));
+	}
+
+	@Test
+	public void shared_removeAll() {
+		ProxySet<Integer, Integer> other = new ProxySet<>(new HashSet<>(Arrays.asList(1, 2, 5)), mapper);
+		subjects.addAll(Arrays.asList(1, 2, 3));
+		mapped = 0;
+
+		assertTrue(proxies.removeAll(other));
+		assertFalse(proxies.removeAll(other));
+
+		assertThat(subjects, is((Set<Integer>) new HashSet<>(Arrays.asList(3))));
+		assertThat(mapped, is(0));
+	}
+
+	@Test
+	public void shared_retainAll() {
+		ProxySet<Integer, Integer> other = new ProxySet<>(new HashSet<>(Arrays.asList(1, 2, 5)), mapper);
+		subjects.addAll(Arrays.asList(1, 2, 3));
+		mapped = 0;
+
+		assertTrue(proxies.retainAll(other));
+		assertFalse(proxies.retainAll(other));
+
+		assertThat(subjects, is((Set<Integer>) new HashSet<>(Arrays.asList(1, 2))));
+		assertThat(mapped, is(0));
+	}
+
+	@Test
+	public void proxies_retainAll() {
+		subjects.addAll(Arrays.asList(1, 2, 3));
+
+		assertTrue(proxies.retainAll(Arrays.asList(1, 2, 5)));
+		assertFalse(proxies.retainAll(Arrays.asList(1, 2, 5)));
+
+		assertThat(subjects, is((Set<Integer>) new HashSet<>(Arrays.asList(1, 2))));
+	}
+
+	private static class BulkMapper implements Mapper<Integer, Integer> {
+		private int single;
+		private int bulk;
+		private int characteristics;
+
+		@Override
+		public Integer getProxy(Integer subject) {
+			single++;
+			return subject;
+		}
+
+		@Override
+		public Integer getSubject(Integer proxy) {
+			single++;
+			return proxy;
+		}
+
+		@Override
+		public List<Integer> getProxies(Collection<? extends Integer> subjects) {
+			bulk++;
+			return new ArrayList<>(subjects);
+		}
+
+		@Override
+		public List<Integer> getSubjects(Collection<? extends Integer> proxies) {
+			bulk++;
+			return new ArrayList<>(proxies);
+		}
+
+		@Override
+		public int characteristics() {
+			return characteristics;
+		}
+
+		@Override
+		public Class<?> getProxyClass() {
+			return Integer.class;
+		}
+
+		@Override
+		public Class<?> getSubjectClass() {
+			return Integer.class;
+		}
+	}
+
+	@Test
+	public void bulk_toArray_forEach() {
+		BulkMapper bulkMapper = new BulkMapper();
+		ProxySet<Integer, Integer> view = new ProxySet<>(subjects, bulkMapper);
+		for (int i = 0; i < 2 * ProxyIterator.BATCH_SIZE + 1; i++)
+			subjects.add(i);
+
+		assertThat(view.toArray(), is(subjects.toArray()));
+		assertThat(view.toArray(new Integer[0]), is(subjects.toArray(new Integer[0])));
+		assertThat(view.hashCode(), is(subjects.hashCode()));
+		assertThat(view.stream().mapToInt(Integer::intValue).sum(), is(subjects.size() * (subjects.size() - 1) / 2));
+
+		assertThat(bulkMapper.single, is(0));
+		assertThat(bulkMapper.bulk, is(4 * 3));
+	}
+
+	@Test
+	public void bulk_addAll_containsAll_removeAll() {
+		BulkMapper bulkMapper = new BulkMapper();
+		ProxySet<Integer, Integer> view = new ProxySet<>(subjects, bulkMapper);
+		List<Integer> toBeAdded = Arrays.asList(1, 2, 3, 4);
+
+		assertTrue(view.addAll(toBeAdded));
+		assertTrue(view.containsAll(toBeAdded));
+		assertFalse(view.containsAll(Arrays.asList(1, 5)));
+		assertFalse(view.containsAll(Arrays.asList((Object) 1, "1")));
+		assertTrue(view.removeAll(Arrays.asList((Object) 1, "2", 3)));
+
+		assertThat(subjects, is((Set<Integer>) new HashSet<>(Arrays.asList(2, 4))));
+		assertThat(bulkMapper.single, is(0));
+		assertThat(bulkMapper.bulk, is(4));
+	}
+
+	@Test
+	public void bulk_containsAll_stopsEarly() {
+		BulkMapper bulkMapper = new BulkMapper();
+		ProxySet<Integer, Integer> view = new ProxySet<>(subjects, bulkMapper);
+		List<Integer> probes = new ArrayList<>();
+		for (int i = 0; i < 10 * ProxyIterator.BATCH_SIZE; i++)
+			probes.add(i);
+		subjects.addAll(probes);
+		probes.set(1, -1);
+
+		assertFalse(view.containsAll(probes));
+		assertThat(bulkMapper.bulk, is(1));
+		probes.set(1, 1);
+		assertTrue(view.containsAll(probes));
+		assertThat(bulkMapper.bulk, is(11));
+	}
+
+	@Test
+	public void characteristics_identity() {
+		BulkMapper identity = new BulkMapper();
+		identity.characteristics = Mapper.IDENTITY;
+		ProxySet<Integer, Integer> view = new ProxySet<>(subjects, identity);
+
+		assertTrue(view.addAll(Arrays.asList(1, 2, 3)));
+		assertTrue(view.contains(2));
+		assertFalse(view.contains("2"));
+		assertTrue(view.containsAll(Arrays.asList(1, 3)));
+		assertTrue(view.remove(3));
+		assertThat(view.toArray(), is(subjects.toArray()));
+		assertThat(view.toArray(new Integer[0]), is(subjects.toArray(new Integer[0])));
+		assertThat(view.stream().mapToInt(Integer::intValue).sum(), is(3));
+		assertThat(view.hashCode(), is(subjects.hashCode()));
+		assertEquals(view, new HashSet<>(Arrays.asList(1, 2)));
+
+		assertThat(identity.single, is(0));
+		assertThat(identity.bulk, is(0));
+	}
+
+	@Test
+	public void characteristics_hashPreserving_injective() {
+		BulkMapper bulkMapper = new BulkMapper();
+		bulkMapper.characteristics = Mapper.HASH_PRESERVING | Mapper.INJECTIVE;
+		ProxySet<Integer, Integer> view = new ProxySet<>(subjects, bulkMapper);
+		ProxySet<Integer, Integer> other = new ProxySet<>(new HashSet<>(Arrays.asList(1, 2)), bulkMapper);
+		subjects.addAll(Arrays.asList(1, 2));
+
+		assertThat(view.hashCode(), is(subjects.hashCode()));
+		assertEquals(view, other);
+		other.remove(2);
+		assertNotEquals(view, other);
+
+		assertThat(bulkMapper.single, is(1));
+		assertThat(bulkMapper.bulk, is(0));
+
+		assertEquals(view, new HashSet<>(Arrays.asList(1, 2)));
+		assertThat(bulkMapper.bulk, is(1));
+	}
+
+	@Test
+	public void characteristics_orderPreserving() {
+		BulkMapper bulkMapper = new BulkMapper();
+		ProxySet<Integer, Integer> view = new ProxySet<>(new TreeSet<>(Arrays.asList(3, 1, 2)), bulkMapper);
+		assertFalse(view.spliterator().hasCharacteristics(Spliterator.SORTED));
+
+		bulkMapper.characteristics = Mapper.ORDER_PRESERVING;
+		Spliterator<Integer> spliterator = view.spliterator();
+		assertTrue(spliterator.hasCharacteristics(Spliterator.SORTED));
+		assertNull(spliterator.getComparator());
+		assertThat(view.stream().sorted().collect(Collectors.toList()), is(Arrays.asList(1, 2, 3)));
+	}
+
+	@Test
+	public void characteristics_injective() {
+		BulkMapper bulkMapper = new BulkMapper();
+		ProxySet<Integer, Integer> view = new ProxySet<>(new HashSet<>(Arrays.asList(1, 2, 3)), bulkMapper);
+		assertFalse(view.spliterator().hasCharacteristics(Spliterator.DISTINCT));
+
+		bulkMapper.characteristics = Mapper.INJECTIVE;
+		assertTrue(view.spliterator().hasCharacteristics(Spliterator.DISTINCT));
+
+		Mapper<Integer, Integer> parity = Mapper.of(Integer.class, Integer.class, s -> s % 2, p -> p);
+		ProxySet<Integer, Integer> parities = new ProxySet<>(new HashSet<>(Arrays.asList(1, 2, 3)), parity);
+		assertThat(parities.stream().distinct().count(), is(2L));
+	}
+
+	private static final Mapper<String, Integer> STRINGS = new Mapper<String, Integer>() {
+		@Override
+		public String getProxy(Integer subject) {
+			return subject.toString();
+		}
+
+		@Override
+		public Integer getSubject(String proxy) {
+			return Integer.valueOf(proxy);
+		}
+
+		@Override
+		public Class<?> getProxyClass() {
+			return String.class;
+		}
+
+		@Override
+		public Class<?> getSubjectClass() {
+			return Integer.class;
+		}
+
+		@Override
+		public int characteristics() {
+			return Mapper.INJECTIVE;
+		}
+	};
+
+	@Test
+	public void nested_collapse() {
+		ProxySet<String, ?> outer = ProxySet.of(proxies, STRINGS);
+		subjects.addAll(Arrays.asList(1, 2, 3));
+
+		assertTrue(outer.contains("2"));
+		assertFalse(outer.contains(2));
+		assertTrue(outer.add("4"));
+		assertTrue(outer.remove("1"));
+		assertThat(outer.toString(), is(new ProxySet<>(new HashSet<>(subjects), STRINGS).toString()));
+		assertThat(subjects, is((Set<Integer>) new HashSet<>(Arrays.asList(2, 3, 4))));
+
+		Iterator<String> it = outer.iterator();
+		while (it.hasNext())
+			if (it.next().equals("3")) it.remove();
+		assertThat(subjects, is((Set<Integer>) new HashSet<>(Arrays.asList(2, 4))));
+	}
+
+	@Test
+	public void nested_shared() {
+		ProxySet<String, ?> outer = ProxySet.of(proxies, STRINGS);
+		ProxySet<String, ?> other = ProxySet.of(new ProxySet<>(new HashSet<>(Arrays.asList(1, 2)), mapper), STRINGS);
+		mapped = 0;
+
+		assertTrue(outer.addAll(other));
+		assertTrue(outer.containsAll(other));
+
+		assertThat(subjects, is((Set<Integer>) new HashSet<>(Arrays.asList(1, 2))));
+		assertThat(mapped, is(0));
+	}
+
+	@Test
+	public void nested_subjects() {
+		ProxySet<Integer, String> strings = new ProxySet<>(new HashSet<>(Arrays.asList("1", "22")),
+				Mapper.of(Integer.class, String.class, Integer::valueOf, Object::toString));
+		ProxySet<StringBuilder, Integer> nested = new ProxySet<>(strings,
+				Mapper.of(StringBuilder.class, Integer.class, i -> new StringBuilder(i.toString()),
+						b -> Integer.valueOf(b.toString())));
+
+		assertThat(nested.filterSubjects(s -> s > 9).size(), is(1));
+		ProxyCursor<StringBuilder, Integer> cursor = nested.cursor();
+		int sum = 0;
+		while (cursor.next())
+			sum += cursor.getSubject();
+		assertThat(sum, is(23));
+
+		ProxySet<StringBuilder, ?> collapsed = ProxySet.of(strings, Mapper.of(StringBuilder.class, Integer.class,
+				i -> new StringBuilder(i.toString()), b -> Integer.valueOf(b.toString())));
+		assertThat(collapsed.filter(b -> b.length() == 2).size(), is(1));
+		assertThat(collapsed.cursor().next(), is(true));
+		assertThat(collapsed.snapshot().size(), is(2));
+	}
+
+	@Test
+	public void shared_notInjective() {
+		Mapper<String, Integer> parity = Mapper.of(String.class, Integer.class, i -> i % 2 == 0 ? "even" : "odd",
+				p -> p.equals("even") ? 0 : 1);
+		ProxySet<String, Integer> odd = new ProxySet<>(new HashSet<>(Arrays.asList(1)), parity);
+		ProxySet<String, Integer> other = new ProxySet<>(new HashSet<>(Arrays.asList(3)), parity);
+
+		assertTrue(odd.containsAll(other));
+		assertEquals(odd, other);
+	}
+
+	@Test
+	public void shared_addAll_notInjective() {
+		BulkMapper bulkMapper = new BulkMapper();
+		ProxySet<Integer, Integer> view = new ProxySet<>(new HashSet<>(Arrays.asList(1)), bulkMapper);
+		ProxySet<Integer, Integer> other = new ProxySet<>(new HashSet<>(Arrays.asList(2, 3)), bulkMapper);
+
+		assertTrue(view.addAll(other));
+		assertThat(view.subjects(), is((Set<Integer>) new HashSet<>(Arrays.asList(1, 2, 3))));
+		assertThat(bulkMapper.single + bulkMapper.bulk, is(0));
+	}
+
+	@Test
+	public void mappers_compose() {
+		Mapper<String, Integer> composed = Mappers.compose(STRINGS, mapper);
+
+		assertThat(composed.getProxy(42), is("42"));
+		assertThat(composed.getSubject("42"), is(42));
+		assertThat(composed.getProxyClass(), is((Object) String.class));
+		assertThat(composed.getSubjectClass(), is((Object) Integer.class));
+		assertEquals(composed, Mappers.compose(STRINGS, mapper));
+		assertThat(composed.hashCode(), is(Mappers.compose(STRINGS, mapper).hashCode()));
+		assertNotEquals(composed, Mappers.compose(STRINGS, new BulkMapper()));
+
+		BulkMapper identity = new BulkMapper();
+		identity.characteristics = Mapper.IDENTITY;
+		assertSame(Mappers.compose(STRINGS, identity), STRINGS);
+	}
+
+	@Test
+	public void mapper_of() {
+		Mapper<String, Integer> of = Mapper.of(String.class, Integer.class, Object::toString, Integer::valueOf);
+		ProxySet<String, Integer> view = new ProxySet<>(subjects, of);
+
+		assertTrue(view.add("42"));
+		assertTrue(view.contains("42"));
+		assertFalse(view.contains(42));
+		assertThat(of.getProxyClass(), is((Object) String.class));
+		assertThat(subjects, is((Set<Integer>) new HashSet<>(Arrays.asList(42))));
+
+		Mapper<Integer, Integer> identity = Mapper.identity(Integer.class);
+		assertTrue(identity.hasCharacteristics(Mapper.HASH_PRESERVING));
+		assertEquals(identity, Mapper.identity(Integer.class));
+		assertSame(new ProxySet<>(subjects, identity).iterator().next(), subjects.iterator().next());
+	}
+
+	@Test
+	public void parallel_sameResults() {
+		Set<Integer> large = new TreeSet<>();
+		for (int i = 0; i < 100000; i++)
+			large.add(i);
+		ProxySet<String, Integer> sequential = new ProxySet<>(new TreeSet<>(large), STRINGS);
+		ProxySet<String, Integer> parallel = new ProxySet<>(new TreeSet<>(large), STRINGS);
+		parallel.setParallelThreshold(0);
+
+		assertArrayEquals(parallel.toArray(), sequential.toArray());
+		assertArrayEquals(parallel.toArray(new String[0]), sequential.toArray(new String[0]));
+		assertArrayEquals(parallel.toArray(new String[large.size()]), sequential.toArray(new String[large.size()]));
+		assertThat(parallel.hashCode(), is(sequential.hashCode()));
+
+		List<String> some = Arrays.asList("1", "99999", "4711");
+		List<String> foreign = Arrays.asList("1", "100000");
+		assertTrue(parallel.containsAll(some));
+		assertFalse(parallel.containsAll(foreign));
+
+		Set<String> retained = new HashSet<>();
+		for (int i = 0; i < 100000; i += 3)
+			retained.add(Integer.toString(i));
+		assertThat(parallel.retainAll(retained), is(sequential.retainAll(retained)));
+		assertThat(parallel.removeAll(some), is(sequential.removeAll(some)));
+		assertThat(parallel.removeAll(some), is(false));
+		assertEquals(sequential, parallel);
+		assertThat(parallel.size(), is(33333));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void parallel_negativeThreshold() {
+		proxies.setParallelThreshold(-1);
+	}
+
 }
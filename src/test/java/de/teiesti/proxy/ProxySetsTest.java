@@ -0,0 +1,101 @@
+package de.teiesti.proxy;
+
+import static org.junit.Assert.*;
+import static org.hamcrest.CoreMatchers.*;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class ProxySetsTest {
+
+	private Set<Integer> first;
+	private Set<Integer> second;
+	private int mapped;
+	private Mapper<String, Integer> mapper;
+
+	@Before
+	public void setup() {
+		first = new TreeSet<>(Arrays.asList(1, 2, 3, 4, 5, 6));
+		second = new TreeSet<>(Arrays.asList(5, 6, 7));
+		mapper = Mapper.of(String.class, Integer.class, s -> {
+			mapped++;
+			return s.toString();
+		}, Integer::valueOf, Mapper.INJECTIVE);
+	}
+
+	private static Set<String> strings(Integer... values) {
+		Set<String> result = new HashSet<>();
+		for (Integer v : values)
+			result.add(v.toString());
+		return result;
+	}
+
+	@Test
+	public void union() {
+		ProxySets.SetView<String> union = ProxySets.union(strings(1, 2, 3, 4, 5, 6), strings(5, 6, 7));
+
+		assertEquals(strings(1, 2, 3, 4, 5, 6, 7), union);
+		assertThat(union.size(), is(7));
+		assertThat(union.sizeUpperBound(), is(9));
+		assertTrue(union.contains("7"));
+		assertFalse(union.contains("8"));
+	}
+
+	@Test
+	public void intersection() {
+		ProxySets.SetView<String> intersection = ProxySets.intersection(strings(1, 2, 3, 4, 5, 6), strings(5, 6, 7));
+
+		assertEquals(strings(5, 6), intersection);
+		assertThat(intersection.size(), is(2));
+		assertThat(intersection.sizeUpperBound(), is(3));
+		assertFalse(intersection.contains("7"));
+	}
+
+	@Test
+	public void difference() {
+		ProxySets.SetView<String> difference = ProxySets.difference(strings(1, 2, 3, 4, 5, 6), strings(5, 6, 7));
+
+		assertEquals(strings(1, 2, 3, 4), difference);
+		assertThat(difference.size(), is(4));
+		assertThat(ProxySets.difference(strings(5, 6, 7), strings(1, 2, 3, 4, 5, 6)).size(), is(1));
+		assertThat(difference.sizeUpperBound(), is(6));
+		assertFalse(difference.contains("5"));
+	}
+
+	@Test
+	public void shared_subjects() {
+		ProxySet<String, Integer> a = new ProxySet<>(first, mapper);
+		ProxySet<String, Integer> b = new ProxySet<>(second, mapper);
+
+		ProxySets.SetView<String> intersection = ProxySets.intersection(a, b);
+		assertThat(intersection.size(), is(2));
+		assertThat(mapped, is(0));
+		assertEquals(strings(5, 6), new HashSet<>(intersection));
+		assertThat(mapped, is(2));
+		assertTrue(intersection.contains("6"));
+		assertFalse(intersection.contains(6));
+
+		assertEquals(strings(1, 2, 3, 4, 5, 6, 7), ProxySets.union(a, b));
+		assertEquals(strings(7), ProxySets.difference(b, a));
+	}
+
+	@Test
+	public void lazy() {
+		ProxySets.SetView<String> union = ProxySets.union(new ProxySet<>(first, mapper), strings(8));
+		first.add(9);
+
+		assertTrue(union.contains("9"));
+		assertThat(union.size(), is(8));
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void unmodifiable() {
+		ProxySets.union(strings(1), strings(2)).add("3");
+	}
+
+}
@@ -0,0 +1,109 @@
+package de.teiesti.proxy;
+
+import static org.junit.Assert.*;
+import static org.hamcrest.CoreMatchers.*;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class SnapshotProxySetTest {
+
+	private Set<Integer> subjects;
+	private Mapper<String, Integer> mapper;
+	private int mapped;
+
+	@Before
+	public void setup() throws Exception {
+		subjects = new HashSet<>(Arrays.asList(1, 2, 3));
+		mapper = new Mapper<String, Integer>() {
+			@Override
+			public String getProxy(Integer subject) {
+				mapped++;
+				return subject.toString();
+			}
+
+			@Override
+			public Integer getSubject(String proxy) {
+				return Integer.valueOf(proxy);
+			}
+
+			@Override
+			public Class<?> getProxyClass() {
+				return String.class;
+			}
+
+			@Override
+			public Class<?> getSubjectClass() {
+				return Integer.class;
+			}
+		};
+	}
+
+	@Test
+	public void compact_set() {
+		ImmutableCompactSet<String> set = new ImmutableCompactSet<>(Arrays.asList("a", "b", null, "a", "c"));
+
+		assertThat(set.size(), is(4));
+		assertTrue(set.contains("a"));
+		assertTrue(set.contains(null));
+		assertFalse(set.contains("d"));
+		assertThat(set.toArray(), is(new Object[] { "a", "b", null, "c" }));
+		assertThat(set.hashCode(), is(new HashSet<>(set).hashCode()));
+		assertEquals(set, new HashSet<>(Arrays.asList("c", "b", "a", null)));
+		assertEquals(new ImmutableCompactSet<>(new HashSet<>(set)), set);
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void compact_set_immutable() {
+		new ImmutableCompactSet<>(Arrays.asList("a")).add("b");
+	}
+
+	@Test
+	public void proxies_snapshot() {
+		ProxySet<String, Integer> proxies = new ProxySet<>(subjects, mapper);
+		ImmutableCompactSet<String> snapshot = proxies.snapshot();
+		subjects.add(4);
+
+		assertEquals(snapshot, new HashSet<>(Arrays.asList("1", "2", "3")));
+		assertThat(mapped, is(3));
+	}
+
+	@Test
+	public void snapshot_reads_without_mapping() {
+		SnapshotProxySet<String, Integer> proxies = new SnapshotProxySet<>(subjects, mapper);
+
+		for (int i = 0; i < 10; i++) {
+			assertTrue(proxies.contains("2"));
+			assertThat(proxies.hashCode(), is(new HashSet<>(Arrays.asList("1", "2", "3")).hashCode()));
+			for (String p : proxies)
+				assertNotNull(p);
+		}
+		assertThat(mapped, is(3));
+	}
+
+	@Test
+	public void snapshot_refreshes_on_change() {
+		SnapshotProxySet<String, Integer> proxies = new SnapshotProxySet<>(subjects, mapper);
+		assertFalse(proxies.contains("4"));
+
+		proxies.add("4");
+		assertTrue(proxies.contains("4"));
+
+		Iterator<String> it = proxies.iterator();
+		while (it.hasNext())
+			if (it.next().equals("1")) it.remove();
+		assertFalse(proxies.contains("1"));
+		assertThat(subjects, is((Set<Integer>) new HashSet<>(Arrays.asList(2, 3, 4))));
+
+		subjects.add(5);
+		assertFalse(proxies.contains("5"));
+		proxies.refresh();
+		assertTrue(proxies.contains("5"));
+	}
+
+}
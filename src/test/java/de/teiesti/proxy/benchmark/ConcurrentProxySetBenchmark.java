@@ -0,0 +1,72 @@
+package de.teiesti.proxy.benchmark;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.teiesti.proxy.ConcurrentProxySet;
+import de.teiesti.proxy.ProxySet;
+
+/**
+ * Measures the read throughput of a {@link ConcurrentProxySet} against a {@link ProxySet} which is wrapped by
+ * {@link Collections#synchronizedSet(Set)}. Use the JMH option {@code -t} to vary the number of reading threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class ConcurrentProxySetBenchmark {
+
+	@Param({ "100000" })
+	public int size;
+
+	@Param({ "ConcurrentProxySet", "SynchronizedProxySet" })
+	public String view;
+
+	private Set<Handle> set;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		HandleMapper mapper = new HandleMapper(HandleMapper.Kind.CHEAP, size);
+
+		if ("ConcurrentProxySet".equals(view)) {
+			Set<Integer> subjects = ConcurrentHashMap.newKeySet();
+			for (int i = 0; i < size; i++)
+				subjects.add(i);
+			set = new ConcurrentProxySet<>(subjects, mapper);
+		} else if ("SynchronizedProxySet".equals(view)) {
+			Set<Integer> subjects = new HashSet<>();
+			for (int i = 0; i < size; i++)
+				subjects.add(i);
+			set = Collections.synchronizedSet(new ProxySet<>(subjects, mapper));
+		} else {
+			throw new IllegalArgumentException("unknown view: " + view);
+		}
+	}
+
+	@Benchmark
+	public boolean contains() {
+		return set.contains(new Handle(ThreadLocalRandom.current().nextInt(size)));
+	}
+
+}
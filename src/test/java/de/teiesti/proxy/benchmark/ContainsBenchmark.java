@@ -0,0 +1,101 @@
+package de.teiesti.proxy.benchmark;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.teiesti.proxy.Mapper;
+import de.teiesti.proxy.ProxySet;
+
+/**
+ * Measures the type check and the whole {@link ProxySet#contains(Object)} path. The {@code mapper} parameter selects
+ * a hand-written {@link HandleMapper} or a mapper created with {@link Mapper#of(Class, Class,
+ * java.util.function.Function, java.util.function.Function)}.<br /><br />
+ *
+ * {@link #isAssignableFrom()} is the reflective check {@link ProxySet} used before, {@link #isInstance()} is the check
+ * on a cached class it uses now. {@link #containsForeign()} passes objects which are not proxies and therefore
+ * measures the type check within {@code contains}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContainsBenchmark {
+
+	private static final int SIZE = 1024;
+
+	@Param({ "HandleMapper", "Mapper.of" })
+	public String mapper;
+
+	private Mapper<Handle, Integer> m;
+	private Class<?> proxyClass;
+	private Set<Handle> set;
+	private Object[] probes;
+	private Object[] foreign;
+	private int next;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		if ("HandleMapper".equals(mapper))
+			m = new HandleMapper(HandleMapper.Kind.ALLOCATING, SIZE);
+		else if ("Mapper.of".equals(mapper))
+			m = Mapper.of(Handle.class, Integer.class, Handle::new, Handle::getId);
+		else
+			throw new IllegalArgumentException("unknown mapper: " + mapper);
+		proxyClass = m.getProxyClass();
+
+		Set<Integer> subjects = new HashSet<>();
+		for (int i = 0; i < SIZE; i++)
+			subjects.add(i);
+		set = new ProxySet<>(subjects, m);
+
+		probes = new Object[SIZE];
+		foreign = new Object[SIZE];
+		for (int i = 0; i < SIZE; i++) {
+			probes[i] = new Handle(i);
+			foreign[i] = Integer.valueOf(i);
+		}
+	}
+
+	private int next() {
+		next = (next + 1) & (SIZE - 1);
+		return next;
+	}
+
+	@Benchmark
+	public boolean isAssignableFrom() {
+		Object o = probes[next()];
+		return m.getProxyClass().isAssignableFrom(o.getClass());
+	}
+
+	@Benchmark
+	public boolean isInstance() {
+		return proxyClass.isInstance(probes[next()]);
+	}
+
+	@Benchmark
+	public boolean contains() {
+		return set.contains(probes[next()]);
+	}
+
+	@Benchmark
+	public boolean containsForeign() {
+		return set.contains(foreign[next()]);
+	}
+
+}
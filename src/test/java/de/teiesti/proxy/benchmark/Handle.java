@@ -0,0 +1,53 @@
+package de.teiesti.proxy.benchmark;
+
+/**
+ * A {@code Handle} is the proxy type used by the benchmarks. It points to an {@code int} subject and is equal to any
+ * other handle pointing to the same subject.
+ */
+public final class Handle {
+
+	private final int id;
+
+	/**
+	 * Creates a {@code Handle} pointing to the given subject.
+	 *
+	 * @param id the subject
+	 */
+	public Handle(int id) {
+		this.id = id;
+	}
+
+	/**
+	 * Returns the subject this handle points to.
+	 *
+	 * @return the subject this handle points to
+	 */
+	public int getId() {
+		return id;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int hashCode() {
+		return id;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		return obj instanceof Handle && ((Handle) obj).id == id;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		return "Handle(" + id + ")";
+	}
+
+}
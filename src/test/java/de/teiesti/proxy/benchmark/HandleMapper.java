@@ -0,0 +1,94 @@
+package de.teiesti.proxy.benchmark;
+
+import org.openjdk.jmh.infra.Blackhole;
+
+import de.teiesti.proxy.Mapper;
+
+/**
+ * A {@code HandleMapper} maps {@code Integer} subjects to {@link Handle} proxies. The benchmarks use three kinds of
+ * mappers which differ in the cost of {@link Mapper#getProxy(Object)}:
+ * <ul>
+ * <li>{@link Kind#CHEAP} returns a preallocated handle,</li>
+ * <li>{@link Kind#ALLOCATING} allocates a new handle on every call and</li>
+ * <li>{@link Kind#EXPENSIVE} allocates a new handle and burns some CPU cycles before.</li>
+ * </ul>
+ * {@link Mapper#getSubject(Object)} is cheap for every kind.
+ */
+public final class HandleMapper implements Mapper<Handle, Integer> {
+
+	/**
+	 * The kind of a {@link HandleMapper}.
+	 */
+	public enum Kind {
+		CHEAP, ALLOCATING, EXPENSIVE
+	}
+
+	private static final long EXPENSIVE_TOKENS = 64;
+
+	private final Kind kind;
+	private final Handle[] handles;
+
+	/**
+	 * Creates a {@code HandleMapper} of the given kind for the subjects {@code 0} (inclusive) to {@code size}
+	 * (exclusive).
+	 *
+	 * @param kind the kind of the mapper
+	 * @param size the number of subjects
+	 */
+	public HandleMapper(Kind kind, int size) {
+		if (kind == null)
+			throw new IllegalArgumentException("kind == null");
+		if (size < 0)
+			throw new IllegalArgumentException("size < 0");
+
+		this.kind = kind;
+		if (kind == Kind.CHEAP) {
+			handles = new Handle[size];
+			for (int i = 0; i < size; i++)
+				handles[i] = new Handle(i);
+		} else {
+			handles = null;
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Handle getProxy(Integer subject) {
+		switch (kind) {
+		case CHEAP:
+			return handles[subject];
+		case EXPENSIVE:
+			Blackhole.consumeCPU(EXPENSIVE_TOKENS);
+			return new Handle(subject);
+		default:
+			return new Handle(subject);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Integer getSubject(Handle proxy) {
+		return proxy.getId();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Class<?> getProxyClass() {
+		return Handle.class;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Class<?> getSubjectClass() {
+		return Integer.class;
+	}
+
+}
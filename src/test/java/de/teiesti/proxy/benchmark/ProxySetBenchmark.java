@@ -0,0 +1,146 @@
+package de.teiesti.proxy.benchmark;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import de.teiesti.proxy.ProxyIterator;
+import de.teiesti.proxy.ProxySet;
+
+/**
+ * Measures the hot paths of {@link ProxySet}, {@link ProxyIterator} and the {@link HandleMapper} against the trivial
+ * alternative: a {@link HashSet} into which every proxy was copied. The {@code view} parameter selects the
+ * implementation under test, the {@code kind} parameter selects the mapper and {@code size} is the number of
+ * subjects.<br /><br />
+ *
+ * Note: The cost of the copy itself is measured by {@link #copy()} because it is paid once and not per operation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ProxySetBenchmark {
+
+	@Param({ "10", "1000", "100000", "10000000" })
+	public int size;
+
+	@Param({ "CHEAP", "ALLOCATING", "EXPENSIVE" })
+	public HandleMapper.Kind kind;
+
+	@Param({ "ProxySet", "HashSet" })
+	public String view;
+
+	private Set<Integer> subjects;
+	private HandleMapper mapper;
+	private Set<Handle> set;
+	private Set<Handle> equal;
+	private Handle[] probes;
+	private int next;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		subjects = new HashSet<>();
+		for (int i = 0; i < size; i++)
+			subjects.add(i);
+
+		mapper = new HandleMapper(kind, size);
+
+		if ("ProxySet".equals(view))
+			set = new ProxySet<>(subjects, mapper);
+		else if ("HashSet".equals(view))
+			set = copy();
+		else
+			throw new IllegalArgumentException("unknown view: " + view);
+
+		equal = copy();
+
+		probes = new Handle[Math.min(size, 1024)];
+		for (int i = 0; i < probes.length; i++)
+			probes[i] = new Handle((int) ((long) i * size / probes.length));
+	}
+
+	private Handle probe() {
+		Handle result = probes[next];
+		next = (next + 1) % probes.length;
+		return result;
+	}
+
+	/**
+	 * Copies all proxies into a new {@link HashSet}. This is the price of the trivial alternative.
+	 *
+	 * @return the copied set
+	 */
+	@Benchmark
+	public Set<Handle> copy() {
+		Set<Handle> result = new HashSet<>();
+		for (Integer s : subjects)
+			result.add(mapper.getProxy(s));
+		return result;
+	}
+
+	@Benchmark
+	public boolean contains() {
+		return set.contains(probe());
+	}
+
+	@Benchmark
+	public boolean add() {
+		// the probe is already contained: the set is not modified
+		return set.add(probe());
+	}
+
+	@Benchmark
+	public boolean remove() {
+		// the probe is added again afterwards: the set stays the same between invocations
+		Handle p = probe();
+		boolean result = set.remove(p);
+		set.add(p);
+		return result;
+	}
+
+	@Benchmark
+	public void iterator(Blackhole bh) {
+		Iterator<Handle> it = set.iterator();
+		while (it.hasNext())
+			bh.consume(it.next());
+	}
+
+	@Benchmark
+	public Object[] toArray() {
+		return set.toArray();
+	}
+
+	@Benchmark
+	public int hashCode_() {
+		return set.hashCode();
+	}
+
+	@Benchmark
+	public boolean equals_() {
+		return set.equals(equal);
+	}
+
+	@Benchmark
+	public boolean retainAll() {
+		// every element is retained: the set is not modified
+		return set.retainAll(equal);
+	}
+
+}
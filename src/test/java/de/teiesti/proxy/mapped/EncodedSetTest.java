@@ -0,0 +1,106 @@
+package de.teiesti.proxy.mapped;
+
+import static org.junit.Assert.*;
+import static org.hamcrest.CoreMatchers.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.Pipe;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class EncodedSetTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private static <S> byte[] encode(Set<S> subjects, SubjectCodec<S> codec) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		EncodedSet.write(subjects, codec, Channels.newChannel(out));
+		return out.toByteArray();
+	}
+
+	@Test
+	public void int_roundtrip() throws IOException {
+		Set<Integer> subjects = new LinkedHashSet<>(Arrays.asList(0, -1, Integer.MAX_VALUE, Integer.MIN_VALUE, 42));
+
+		EncodedSet<Integer> decoded = new EncodedSet<>(ByteBuffer.wrap(encode(subjects, SubjectCodec.INT)),
+				SubjectCodec.INT);
+
+		assertEquals(subjects, decoded);
+		assertThat(new ArrayList<>(decoded), is((List<Integer>) new ArrayList<>(subjects)));
+		assertTrue(decoded.contains(42));
+		assertFalse(decoded.contains(42L));
+	}
+
+	@Test
+	public void long_roundtrip() throws IOException {
+		Set<Long> subjects = new LinkedHashSet<>(Arrays.asList(Long.MIN_VALUE, Long.MAX_VALUE, 0L, -7L));
+
+		EncodedSet<Long> decoded = EncodedSet.read(Channels.newChannel(
+				new ByteArrayInputStream(encode(subjects, SubjectCodec.LONG))), SubjectCodec.LONG);
+
+		assertEquals(subjects, decoded);
+	}
+
+	@Test
+	public void sorted_delta_compact() throws IOException {
+		Set<Integer> subjects = new TreeSet<>();
+		for (int i = 1000000; i < 1100000; i++)
+			subjects.add(i);
+
+		byte[] encoded = encode(subjects, SubjectCodec.INT);
+
+		assertTrue(encoded.length < 2 * subjects.size());
+	}
+
+	@Test
+	public void map_file() throws IOException {
+		Set<Long> subjects = new HashSet<>();
+		for (long i = 0; i < 100000; i++)
+			subjects.add(i * i);
+		Path file = folder.newFile("subjects").toPath();
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+			EncodedSet.write(subjects, SubjectCodec.LONG, channel);
+		}
+
+		EncodedSet<Long> mapped = EncodedSet.map(file, SubjectCodec.LONG);
+
+		assertThat(mapped.size(), is(subjects.size()));
+		assertEquals(subjects, new HashSet<>(mapped));
+		assertThat(mapped.stream().count(), is((long) subjects.size()));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void invalid_buffer() {
+		new EncodedSet<>(ByteBuffer.wrap(new byte[16]), SubjectCodec.INT);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void read_nonBlocking() throws IOException {
+		Pipe pipe = Pipe.open();
+		try {
+			pipe.source().configureBlocking(false);
+			EncodedSet.read(pipe.source(), SubjectCodec.INT);
+		} finally {
+			pipe.source().close();
+			pipe.sink().close();
+		}
+	}
+
+}
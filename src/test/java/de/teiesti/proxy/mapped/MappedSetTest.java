@@ -0,0 +1,157 @@
+package de.teiesti.proxy.mapped;
+
+import static org.junit.Assert.*;
+import static org.hamcrest.CoreMatchers.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import de.teiesti.proxy.Mapper;
+import de.teiesti.proxy.ProxySet;
+
+public class MappedSetTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private Path file;
+	private MappedSet<Long> subjects;
+
+	@Before
+	public void setup() throws Exception {
+		file = folder.newFile("subjects").toPath();
+		subjects = MappedSet.create(file, FixedWidthSerializer.LONG, 1000);
+	}
+
+	@After
+	public void teardown() throws Exception {
+		subjects.close();
+	}
+
+	@Test
+	public void add_contains_remove() {
+		assertThat(subjects.getCapacity(), is(1024L));
+
+		for (long i = 0; i < 500; i++)
+			assertTrue(subjects.add(i * 7));
+		assertFalse(subjects.add(7L));
+
+		assertThat(subjects.size(), is(500));
+		assertTrue(subjects.contains(49L));
+		assertFalse(subjects.contains(50L));
+		assertFalse(subjects.contains(49));
+		assertFalse(subjects.contains(null));
+
+		assertTrue(subjects.remove(49L));
+		assertFalse(subjects.remove(49L));
+		assertFalse(subjects.contains(49L));
+		assertTrue(subjects.add(49L));                         // reuses the tombstone
+		assertThat(subjects.size(), is(500));
+	}
+
+	@Test
+	public void iterator_remove() {
+		Set<Long> expected = new HashSet<>();
+		for (long i = 0; i < 100; i++) {
+			subjects.add(i);
+			if (i % 3 != 0) expected.add(i);
+		}
+
+		Iterator<Long> it = subjects.iterator();
+		while (it.hasNext())
+			if (it.next() % 3 == 0) it.remove();
+
+		assertEquals(expected, subjects);
+	}
+
+	@Test
+	public void reopen() throws IOException {
+		for (long i = 0; i < 100; i++)
+			subjects.add(i << 40);
+		subjects.remove(0L);
+		subjects.close();
+
+		subjects = MappedSet.open(file, FixedWidthSerializer.LONG);
+		assertThat(subjects.size(), is(99));
+		assertTrue(subjects.contains(1L << 40));
+		assertFalse(subjects.contains(0L));
+	}
+
+	@Test(expected = IOException.class)
+	public void open_wrongWidth() throws IOException {
+		MappedSet.open(file, FixedWidthSerializer.INT);
+	}
+
+	@Test(expected = IOException.class)
+	public void open_noSet() throws IOException {
+		Path other = folder.newFile("other").toPath();
+		Files.write(other, new byte[128]);
+		MappedSet.open(other, FixedWidthSerializer.LONG);
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void add_full() throws IOException {
+		MappedSet<Integer> small = MappedSet.create(folder.newFile("small").toPath(), FixedWidthSerializer.INT, 4);
+		for (int i = 0; i < 4; i++)
+			small.add(i);
+	}
+
+	@Test
+	public void add_remove_churn() throws IOException {
+		MappedSet<Integer> small = MappedSet.create(folder.newFile("churn").toPath(), FixedWidthSerializer.INT, 16);
+		assertThat(small.getMaximumSize(), is(12L));
+		for (int i = 0; i < 10; i++)
+			small.add(i);
+		for (int i = 10; i < 10000; i++) {
+			assertTrue(small.add(i));
+			assertTrue(small.remove(i - 10));
+		}
+
+		assertThat(small.size(), is(10));
+		for (int i = 9990; i < 10000; i++)
+			assertTrue(small.contains(i));
+		assertFalse(small.contains(9989));
+		assertThat(new HashSet<>(small).size(), is(10));
+	}
+
+	@Test
+	public void proxySet() {
+		ProxySet<String, Long> proxies = new ProxySet<>(subjects, new Mapper<String, Long>() {
+			@Override
+			public String getProxy(Long subject) {
+				return "#" + subject;
+			}
+
+			@Override
+			public Long getSubject(String proxy) {
+				return Long.valueOf(proxy.substring(1));
+			}
+
+			@Override
+			public Class<?> getProxyClass() {
+				return String.class;
+			}
+
+			@Override
+			public Class<?> getSubjectClass() {
+				return Long.class;
+			}
+		});
+
+		proxies.add("#42");
+		assertTrue(subjects.contains(42L));
+		assertTrue(proxies.contains("#42"));
+		assertThat(proxies.toString(), is("[#42]"));
+	}
+
+}
@@ -0,0 +1,107 @@
+package de.teiesti.proxy.primitive;
+
+import static org.junit.Assert.*;
+import static org.hamcrest.CoreMatchers.*;
+
+import java.util.HashSet;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class IntHashSetTest {
+
+	private static Set<Integer> toSet(IntSet set) {
+		Set<Integer> result = new HashSet<>();
+		PrimitiveIterator.OfInt it = set.iterator();
+		while (it.hasNext())
+			assertTrue(result.add(it.nextInt()));
+		return result;
+	}
+
+	private static void randomOperations(IntSet set, int range) {
+		Set<Integer> expected = new HashSet<>();
+		Random random = new Random(42);
+
+		for (int i = 0; i < 100000; i++) {
+			int value = random.nextInt(range) - range / 2;
+			if (random.nextInt(10) == 0)
+				value = random.nextBoolean() ? 0 : Integer.MIN_VALUE;
+			if (set instanceof IntBitSet)
+				value = Math.abs(value % range);
+
+			switch (random.nextInt(3)) {
+			case 0:
+				assertThat(set.add(value), is(expected.add(value)));
+				break;
+			case 1:
+				assertThat(set.remove(value), is(expected.remove(value)));
+				break;
+			default:
+				assertThat(set.contains(value), is(expected.contains(value)));
+			}
+			assertThat(set.size(), is(expected.size()));
+		}
+
+		assertThat(toSet(set), is(expected));
+	}
+
+	@Test
+	public void hashSet_randomOperations() {
+		randomOperations(new IntHashSet(), 1000);
+		randomOperations(new IntHashSet(), 100000);
+	}
+
+	@Test
+	public void bitSet_randomOperations() {
+		randomOperations(new IntBitSet(), 1000);
+	}
+
+	@Test
+	public void hashSet_iteratorRemove() {
+		IntHashSet set = new IntHashSet();
+		for (int i = -500; i < 500; i++)
+			set.add(i);
+		set.add(Integer.MIN_VALUE);
+
+		PrimitiveIterator.OfInt it = set.iterator();
+		while (it.hasNext())
+			if (it.nextInt() % 2 == 0) it.remove();
+
+		assertThat(set.size(), is(500));
+		for (int i = -500; i < 500; i++)
+			assertThat(set.contains(i), is(i % 2 != 0));
+		assertFalse(set.contains(Integer.MIN_VALUE));
+	}
+
+	@Test
+	public void hashSet_clear() {
+		IntHashSet set = new IntHashSet(10);
+		for (int i = 0; i < 100; i++)
+			set.add(i);
+		set.clear();
+
+		assertTrue(set.isEmpty());
+		assertFalse(set.iterator().hasNext());
+		assertFalse(set.contains(0));
+	}
+
+	@Test
+	public void hashSet_equals_hashCode() {
+		IntHashSet set = new IntHashSet();
+		IntBitSet other = new IntBitSet();
+		Set<Integer> expected = new HashSet<>();
+		for (int i = 0; i < 100; i += 3) {
+			set.add(i);
+			other.add(i);
+			expected.add(i);
+		}
+
+		assertThat(set, is((IntSet) other));
+		assertThat(other, is((IntSet) set));
+		assertThat(set.hashCode(), is(expected.hashCode()));
+		assertThat(other.hashCode(), is(expected.hashCode()));
+	}
+
+}
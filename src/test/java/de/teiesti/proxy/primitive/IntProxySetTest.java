@@ -0,0 +1,102 @@
+package de.teiesti.proxy.primitive;
+
+import static org.junit.Assert.*;
+import static org.hamcrest.CoreMatchers.*;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class IntProxySetTest {
+
+	private IntSet subjects;
+	private IntMapper<String> mapper;
+	private IntProxySet<String> proxies;
+
+	@Before
+	public void setup() throws Exception {
+		subjects = new IntHashSet();
+		mapper = new IntMapper<String>() {
+			@Override
+			public String getProxy(int subject) {
+				return Integer.toString(subject);
+			}
+
+			@Override
+			public int getSubject(String proxy) {
+				return Integer.parseInt(proxy);
+			}
+
+			@Override
+			public Class<?> getProxyClass() {
+				return String.class;
+			}
+		};
+		proxies = new IntProxySet<>(subjects, mapper);
+	}
+
+	@Test
+	public void proxies_add_contains_remove() {
+		assertTrue(proxies.add("1"));
+		assertFalse(proxies.add("1"));
+		assertTrue(proxies.add("2"));
+
+		assertTrue(subjects.contains(1));
+		assertTrue(proxies.contains("2"));
+		assertFalse(proxies.contains("3"));
+		assertFalse(proxies.contains(2));
+		assertFalse(proxies.contains(null));
+
+		assertTrue(proxies.remove("1"));
+		assertFalse(proxies.remove("1"));
+		assertThat(proxies.size(), is(1));
+	}
+
+	@Test
+	public void proxies_equals_hashCode() {
+		subjects.add(1);
+		subjects.add(2);
+
+		Set<String> expected = new HashSet<>(Arrays.asList("1", "2"));
+		assertThat(proxies, is(expected));
+		assertThat(expected, is((Set<String>) proxies));
+		assertThat(proxies.hashCode(), is(expected.hashCode()));
+		assertThat(proxies.toArray(new String[0]).length, is(2));
+	}
+
+	@Test
+	public void proxies_iterator() {
+		for (int i = 0; i < 10; i++)
+			subjects.add(i);
+
+		Iterator<String> it = proxies.iterator();
+		while (it.hasNext())
+			if (Integer.parseInt(it.next()) < 5) it.remove();
+
+		assertThat(proxies, is((Set<String>) new HashSet<>(Arrays.asList("5", "6", "7", "8", "9"))));
+	}
+
+	@Test
+	public void shared_bulkOperations() {
+		subjects.add(1);
+		subjects.add(2);
+		IntProxySet<String> other = new IntProxySet<>(new IntBitSet(), mapper);
+		other.add("2");
+		other.add("3");
+
+		assertFalse(proxies.containsAll(other));
+		assertTrue(proxies.addAll(other));
+		assertTrue(proxies.containsAll(other));
+		assertTrue(proxies.retainAll(other));
+		assertThat(proxies, is((Set<String>) new HashSet<>(Arrays.asList("2", "3"))));
+		assertTrue(proxies.removeAll(other));
+		assertTrue(proxies.isEmpty());
+		assertTrue(other.removeAll(other));
+		assertTrue(other.isEmpty());
+	}
+
+}
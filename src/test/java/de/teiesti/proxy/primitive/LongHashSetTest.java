@@ -0,0 +1,80 @@
+package de.teiesti.proxy.primitive;
+
+import static org.junit.Assert.*;
+import static org.hamcrest.CoreMatchers.*;
+
+import java.util.HashSet;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class LongHashSetTest {
+
+	private static Set<Long> toSet(LongSet set) {
+		Set<Long> result = new HashSet<>();
+		PrimitiveIterator.OfLong it = set.iterator();
+		while (it.hasNext())
+			assertTrue(result.add(it.nextLong()));
+		return result;
+	}
+
+	@Test
+	public void hashSet_randomOperations() {
+		LongHashSet set = new LongHashSet();
+		Set<Long> expected = new HashSet<>();
+		Random random = new Random(42);
+
+		for (int i = 0; i < 100000; i++) {
+			long value = (random.nextInt(1000) - 500) * 0x100000000L;	// differ in the upper half only
+			if (random.nextInt(10) == 0)
+				value = random.nextBoolean() ? 0 : Long.MIN_VALUE;
+
+			switch (random.nextInt(3)) {
+			case 0:
+				assertThat(set.add(value), is(expected.add(value)));
+				break;
+			case 1:
+				assertThat(set.remove(value), is(expected.remove(value)));
+				break;
+			default:
+				assertThat(set.contains(value), is(expected.contains(value)));
+			}
+			assertThat(set.size(), is(expected.size()));
+		}
+
+		assertThat(toSet(set), is(expected));
+		assertThat(set.hashCode(), is(expected.hashCode()));
+	}
+
+	@Test
+	public void hashSet_iteratorRemove() {
+		LongHashSet set = new LongHashSet();
+		for (long i = -500; i < 500; i++)
+			set.add(i << 32);
+		set.add(Long.MIN_VALUE);
+
+		PrimitiveIterator.OfLong it = set.iterator();
+		while (it.hasNext())
+			if ((it.nextLong() >> 32) % 2 == 0) it.remove();
+
+		assertThat(set.size(), is(500));
+		for (long i = -500; i < 500; i++)
+			assertThat(set.contains(i << 32), is(i % 2 != 0));
+		assertFalse(set.contains(Long.MIN_VALUE));
+	}
+
+	@Test
+	public void hashSet_clear() {
+		LongHashSet set = new LongHashSet(10);
+		for (long i = 0; i < 100; i++)
+			set.add(i);
+		set.clear();
+
+		assertTrue(set.isEmpty());
+		assertFalse(set.iterator().hasNext());
+		assertFalse(set.contains(0));
+	}
+
+}
@@ -0,0 +1,102 @@
+package de.teiesti.proxy.primitive;
+
+import static org.junit.Assert.*;
+import static org.hamcrest.CoreMatchers.*;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class LongProxySetTest {
+
+	private LongSet subjects;
+	private LongMapper<String> mapper;
+	private LongProxySet<String> proxies;
+
+	@Before
+	public void setup() throws Exception {
+		subjects = new LongHashSet();
+		mapper = new LongMapper<String>() {
+			@Override
+			public String getProxy(long subject) {
+				return Long.toString(subject);
+			}
+
+			@Override
+			public long getSubject(String proxy) {
+				return Long.parseLong(proxy);
+			}
+
+			@Override
+			public Class<?> getProxyClass() {
+				return String.class;
+			}
+		};
+		proxies = new LongProxySet<>(subjects, mapper);
+	}
+
+	@Test
+	public void proxies_add_contains_remove() {
+		assertTrue(proxies.add("1"));
+		assertFalse(proxies.add("1"));
+		assertTrue(proxies.add("8589934592"));
+
+		assertTrue(subjects.contains(1L));
+		assertTrue(proxies.contains("8589934592"));
+		assertFalse(proxies.contains("0"));
+		assertFalse(proxies.contains(1L));
+		assertFalse(proxies.contains(null));
+
+		assertTrue(proxies.remove("1"));
+		assertFalse(proxies.remove("1"));
+		assertThat(proxies.size(), is(1));
+	}
+
+	@Test
+	public void proxies_equals_hashCode() {
+		subjects.add(1);
+		subjects.add(Long.MAX_VALUE);
+
+		Set<String> expected = new HashSet<>(Arrays.asList("1", Long.toString(Long.MAX_VALUE)));
+		assertThat(proxies, is(expected));
+		assertThat(expected, is((Set<String>) proxies));
+		assertThat(proxies.hashCode(), is(expected.hashCode()));
+		assertThat(proxies.toArray(new String[0]).length, is(2));
+	}
+
+	@Test
+	public void proxies_iterator() {
+		for (long i = 0; i < 10; i++)
+			subjects.add(i);
+
+		Iterator<String> it = proxies.iterator();
+		while (it.hasNext())
+			if (Long.parseLong(it.next()) < 5) it.remove();
+
+		assertThat(proxies, is((Set<String>) new HashSet<>(Arrays.asList("5", "6", "7", "8", "9"))));
+	}
+
+	@Test
+	public void shared_bulkOperations() {
+		subjects.add(1);
+		subjects.add(2);
+		LongProxySet<String> other = new LongProxySet<>(new LongHashSet(), mapper);
+		other.add("2");
+		other.add("3");
+
+		assertFalse(proxies.containsAll(other));
+		assertTrue(proxies.addAll(other));
+		assertTrue(proxies.containsAll(other));
+		assertTrue(proxies.retainAll(other));
+		assertThat(proxies, is((Set<String>) new HashSet<>(Arrays.asList("2", "3"))));
+		assertTrue(proxies.removeAll(other));
+		assertTrue(proxies.isEmpty());
+		assertTrue(other.removeAll(other));
+		assertTrue(other.isEmpty());
+	}
+
+}